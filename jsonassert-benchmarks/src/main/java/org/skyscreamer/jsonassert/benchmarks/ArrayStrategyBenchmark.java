@@ -0,0 +1,99 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.comparator.ArrayComparisonStrategy;
+import org.skyscreamer.jsonassert.comparator.DefaultComparator;
+import org.skyscreamer.jsonassert.comparator.JSONCompareUtil;
+import org.skyscreamer.jsonassert.corpus.JSONCorpusGenerator;
+
+/**
+ * Measures each strategy {@link DefaultComparator#compareJSONArray} can compare two arrays with, on arrays chosen to
+ * get that strategy. Outside strict order, actual arrays are shuffled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayStrategyBenchmark {
+
+    @Param
+    public ArrayComparisonStrategy strategy;
+
+    @Param({ "10", "100", "1000" })
+    public int size;
+
+    private DefaultComparator comparator;
+    private JSONArray expected;
+    private JSONArray actual;
+
+    @Setup
+    public void setUp() throws JSONException {
+        BenchmarkDocuments.Shape shape;
+        switch (strategy) {
+        case STRICT_ORDER:
+            shape = BenchmarkDocuments.Shape.KEYED_ARRAY;
+            break;
+        case SIMPLE_VALUE_CARDINALITY:
+            shape = BenchmarkDocuments.Shape.SIMPLE_ARRAY;
+            break;
+        case UNIQUE_KEY:
+            shape = BenchmarkDocuments.Shape.KEYED_ARRAY;
+            break;
+        default:
+            shape = BenchmarkDocuments.Shape.UNKEYED_ARRAY;
+            break;
+        }
+        boolean strictOrder = strategy == ArrayComparisonStrategy.STRICT_ORDER;
+        comparator = new DefaultComparator(strictOrder ? JSONCompareMode.STRICT : JSONCompareMode.LENIENT);
+        expected = new JSONObject(BenchmarkDocuments.expected(shape, size)).getJSONArray(JSONCorpusGenerator.ARRAY_KEY);
+        actual = new JSONObject(BenchmarkDocuments.actual(shape, size, !strictOrder)).getJSONArray(JSONCorpusGenerator.ARRAY_KEY);
+
+        ArrayComparisonStrategy selected = comparator.selectArrayStrategy(expected);
+        if (selected == ArrayComparisonStrategy.UNIQUE_KEY && JSONCompareUtil.findUniqueKey(expected) == null) {
+            selected = ArrayComparisonStrategy.RECURSIVE_FALLBACK;
+        }
+        if (selected != strategy) {
+            throw new IllegalStateException("Arrays compared by " + selected + " instead of " + strategy);
+        }
+    }
+
+    @Benchmark
+    public JSONCompareResult compareJSONArray() throws JSONException {
+        JSONCompareResult result = new JSONCompareResult();
+        comparator.compareJSONArray(JSONCorpusGenerator.ARRAY_KEY, expected, actual, result);
+        return result;
+    }
+}
@@ -0,0 +1,88 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skyscreamer.jsonassert.ArrayValueMatcher;
+import org.skyscreamer.jsonassert.Customization;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.ValueMatcher;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+import org.skyscreamer.jsonassert.corpus.JSONCorpusGenerator;
+
+/**
+ * Measures {@link ArrayValueMatcher} matching one expected element against every element of an array of keyed
+ * objects, sequentially and in parallel. The expected element only requires each element to have a numeric id.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class ArrayValueMatcherBenchmark {
+
+    private static final String ID_PATH = JSONCorpusGenerator.ARRAY_KEY + "[*]." + JSONCorpusGenerator.ID_KEY;
+
+    private static final ValueMatcher<Object> ANY_NUMBER = new ValueMatcher<Object>() {
+        @Override
+        public boolean equal(Object actual, Object expected) {
+            return actual instanceof Number;
+        }
+    };
+
+    @Param({ "100", "10000", "100000" })
+    public int size;
+
+    @Param({ "false", "true" })
+    public boolean parallel;
+
+    private CustomComparator comparator;
+    private JSONObject expected;
+    private JSONObject actual;
+
+    @Setup
+    public void setUp() throws JSONException {
+        CustomComparator elementComparator = new CustomComparator(JSONCompareMode.LENIENT,
+                new Customization(ID_PATH, ANY_NUMBER));
+        comparator = new CustomComparator(JSONCompareMode.LENIENT, new Customization(JSONCorpusGenerator.ARRAY_KEY,
+                new ArrayValueMatcher<Object>(elementComparator, 0, size - 1, parallel)));
+        expected = new JSONObject().put(JSONCorpusGenerator.ARRAY_KEY,
+                new JSONArray().put(new JSONObject().put(JSONCorpusGenerator.ID_KEY, 0)));
+        actual = new JSONObject(BenchmarkDocuments.actual(BenchmarkDocuments.Shape.KEYED_ARRAY, size, false));
+    }
+
+    @Benchmark
+    public JSONCompareResult compare() throws JSONException {
+        return JSONCompare.compareJSON(expected, actual, comparator);
+    }
+}
@@ -0,0 +1,100 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.benchmarks;
+
+import org.skyscreamer.jsonassert.corpus.JSONCorpusGenerator;
+
+/**
+ * The documents benchmarks run over, generated by {@link JSONCorpusGenerator} from a fixed seed, so the same shape
+ * and size always give the same document. Array shapes hold their array under {@link JSONCorpusGenerator#ARRAY_KEY}.
+ */
+public final class BenchmarkDocuments {
+
+    /**
+     * The shape of a document.
+     */
+    public enum Shape {
+        /**
+         * An object of {@code size} simple values.
+         */
+        FLAT_OBJECT,
+
+        /**
+         * Objects and arrays nested as deep as needed to hold at least {@code size} simple values.
+         */
+        NESTED_OBJECT,
+
+        /**
+         * An array of {@code size} numbers, compared by cardinality when order does not matter.
+         */
+        SIMPLE_ARRAY,
+
+        /**
+         * An array of {@code size} objects with a unique id, compared by unique key when order does not matter.
+         */
+        KEYED_ARRAY,
+
+        /**
+         * An array of {@code size} objects in identical pairs, compared by the quadratic fallback when order does not
+         * matter.
+         */
+        UNKEYED_ARRAY
+    }
+
+    private static final long SEED = 20131231L;
+
+    private BenchmarkDocuments() {
+    }
+
+    /**
+     * @param shape shape of the document
+     * @param size number of values or elements
+     * @return the expected document
+     */
+    public static String expected(Shape shape, int size) {
+        return generator(shape, size).generate().getExpected();
+    }
+
+    /**
+     * @param shape shape of the document
+     * @param size number of values or elements
+     * @param reordered whether arrays are shuffled, so that the document only equals the expected document when
+     *                  array order does not matter
+     * @return an actual document equal to {@link #expected(Shape, int)}
+     */
+    public static String actual(Shape shape, int size, boolean reordered) {
+        return generator(shape, size).withShuffledArrays(reordered).generate().getActual();
+    }
+
+    private static JSONCorpusGenerator generator(Shape shape, int size) {
+        JSONCorpusGenerator generator = new JSONCorpusGenerator(SEED);
+        switch (shape) {
+        case FLAT_OBJECT:
+            return generator.withDepth(0).withWidth(size).withKeyCardinality(size);
+        case NESTED_OBJECT:
+            generator.withWidth(4).withArrayLength(4);
+            for (int depth = 0; generator.withDepth(depth).getValueCount() < size; depth++) {
+                // Deepen until the document holds enough values
+            }
+            return generator;
+        case SIMPLE_ARRAY:
+            return generator.withDepth(1).withWidth(1).withArrayLength(size);
+        case KEYED_ARRAY:
+            return generator.withDepth(2).withWidth(1).withArrayLength(size);
+        default:
+            return generator.withDepth(2).withWidth(1).withArrayLength(size).withUniqueKeys(false);
+        }
+    }
+}
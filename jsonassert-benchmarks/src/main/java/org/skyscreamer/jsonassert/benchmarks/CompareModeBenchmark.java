@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+
+/**
+ * Measures comparing equal documents in each {@link JSONCompareMode}: already parsed, from strings, and through
+ * {@link JSONAssert}. Arrays are in the same order in both documents, so strict modes pass too.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CompareModeBenchmark {
+
+    @Param
+    public JSONCompareMode mode;
+
+    @Param
+    public BenchmarkDocuments.Shape shape;
+
+    @Param({ "10", "1000" })
+    public int size;
+
+    private String expectedJson;
+    private String actualJson;
+    private JSONObject expected;
+    private JSONObject actual;
+
+    @Setup
+    public void setUp() throws JSONException {
+        expectedJson = BenchmarkDocuments.expected(shape, size);
+        actualJson = BenchmarkDocuments.actual(shape, size, false);
+        expected = new JSONObject(expectedJson);
+        actual = new JSONObject(actualJson);
+    }
+
+    @Benchmark
+    public JSONCompareResult compareParsed() throws JSONException {
+        return JSONCompare.compareJSON(expected, actual, mode);
+    }
+
+    @Benchmark
+    public JSONCompareResult compareStrings() throws JSONException {
+        return JSONCompare.compareJSON(expectedJson, actualJson, mode);
+    }
+
+    @Benchmark
+    public void assertEquals() throws JSONException {
+        JSONAssert.assertEquals(expectedJson, actualJson, mode);
+    }
+}
@@ -0,0 +1,86 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.benchmarks;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skyscreamer.jsonassert.Customization;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.ValueMatcher;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+import org.skyscreamer.jsonassert.corpus.JSONCorpusGenerator;
+
+/**
+ * Measures {@link CustomComparator} on an array of keyed objects as the number of customizations grows. One
+ * customization applies to the id of every element; the others never apply, so only cost lookups.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class CustomComparatorBenchmark {
+
+    private static final ValueMatcher<Object> EQUAL = new ValueMatcher<Object>() {
+        @Override
+        public boolean equal(Object actual, Object expected) {
+            return actual.equals(expected);
+        }
+    };
+
+    @Param({ "1", "10", "100" })
+    public int customizations;
+
+    @Param({ "10", "1000" })
+    public int size;
+
+    private CustomComparator comparator;
+    private JSONObject expected;
+    private JSONObject actual;
+
+    @Setup
+    public void setUp() throws JSONException {
+        Customization[] list = new Customization[customizations];
+        for (int i = 0; i < customizations - 1; i++) {
+            // Alternate between literal paths and wildcards, which take different matching paths
+            list[i] = new Customization(i % 2 == 0 ? "items[*].missing" + i : "other" + i + ".**", EQUAL);
+        }
+        list[customizations - 1] = new Customization(JSONCorpusGenerator.ARRAY_KEY + "[*]." + JSONCorpusGenerator.ID_KEY, EQUAL);
+        comparator = new CustomComparator(JSONCompareMode.LENIENT, list);
+        expected = new JSONObject(BenchmarkDocuments.expected(BenchmarkDocuments.Shape.KEYED_ARRAY, size));
+        actual = new JSONObject(BenchmarkDocuments.actual(BenchmarkDocuments.Shape.KEYED_ARRAY, size, true));
+    }
+
+    @Benchmark
+    public JSONCompareResult compare() throws JSONException {
+        return JSONCompare.compareJSON(expected, actual, comparator);
+    }
+}
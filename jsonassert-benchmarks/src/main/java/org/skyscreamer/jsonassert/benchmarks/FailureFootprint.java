@@ -0,0 +1,91 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.benchmarks;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.openjdk.jol.info.GraphLayout;
+import org.skyscreamer.jsonassert.FieldComparisonFailure;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+
+/**
+ * Measures the heap retained per recorded failure by a {@link JSONCompareResult}, next to a copy of the original
+ * result that kept a full field string per failure and built its message as failures arrived. Run it with
+ * {@code java -cp target/benchmarks.jar org.skyscreamer.jsonassert.benchmarks.FailureFootprint [failures]}.
+ */
+public final class FailureFootprint {
+    private static final Integer EXPECTED = 1;
+    private static final Integer ACTUAL = 2;
+
+    private FailureFootprint() {
+    }
+
+    public static void main(String[] args) {
+        int failures = args.length > 0 ? Integer.parseInt(args[0]) : 200000;
+
+        BaselineResult baseline = new BaselineResult();
+        JSONCompareResult result = new JSONCompareResult();
+        for (int i = 0; i < failures; i++) {
+            String field = "order.items[" + i + "].price";
+            baseline.fail(field, EXPECTED, ACTUAL);
+            result.fail(field, EXPECTED, ACTUAL);
+        }
+
+        report("baseline", baseline, failures);
+        report("JSONCompareResult", result, failures);
+        result.getMessage();
+        report("JSONCompareResult after getMessage()", result, failures);
+        for (FieldComparisonFailure failure : result.getFieldFailures()) {
+            failure.getField();
+        }
+        report("JSONCompareResult after getField()", result, failures);
+    }
+
+    private static void report(String name, Object result, int failures) {
+        long bytes = GraphLayout.parseInstance(result).totalSize();
+        System.out.printf("%-40s %,12d bytes %,8.1f bytes/failure%n", name, bytes, (double) bytes / failures);
+    }
+
+    /**
+     * The fields and failure recording of JSONCompareResult 1.5.0.
+     */
+    private static final class BaselineResult {
+        private final StringBuilder _message = new StringBuilder();
+        private final List<BaselineFailure> _fieldFailures = new ArrayList<BaselineFailure>();
+
+        void fail(String field, Object expected, Object actual) {
+            _fieldFailures.add(new BaselineFailure(field, expected, actual));
+            String message = field + "\nExpected: " + expected + "\n     got: " + actual + "\n";
+            if (_message.length() == 0) {
+                _message.append(message);
+            } else {
+                _message.append(" ; ").append(message);
+            }
+        }
+    }
+
+    private static final class BaselineFailure {
+        private final String _field;
+        private final Object _expected;
+        private final Object _actual;
+
+        BaselineFailure(String field, Object expected, Object actual) {
+            this._field = field;
+            this._expected = expected;
+            this._actual = actual;
+        }
+    }
+}
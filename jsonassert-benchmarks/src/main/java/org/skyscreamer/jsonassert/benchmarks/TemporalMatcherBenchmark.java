@@ -0,0 +1,120 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.benchmarks;
+
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.skyscreamer.jsonassert.EpochRangeValueMatcher;
+import org.skyscreamer.jsonassert.IsoDateTimeValueMatcher;
+import org.skyscreamer.jsonassert.RegularExpressionValueMatcher;
+import org.skyscreamer.jsonassert.UuidValueMatcher;
+import org.skyscreamer.jsonassert.ValueMatcher;
+
+/**
+ * Measures the date-time, UUID and epoch matchers against the regular expressions they replace, each matching an
+ * array of valid values.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+public class TemporalMatcherBenchmark {
+
+    private static final String ISO_DATE_TIME_REGEX =
+            "\\d{4}-\\d{2}-\\d{2}T\\d{2}:\\d{2}(?::\\d{2}(?:\\.\\d{1,9})?)?(?:Z|[+-]\\d{2}(?::?\\d{2}(?::\\d{2})?)?)";
+    private static final String UUID_REGEX = "[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}";
+    private static final String EPOCH_REGEX = "1[0-9]{9}";
+
+    @Param({ "1000" })
+    public int size;
+
+    private final ValueMatcher<Object> isoDateTime = new IsoDateTimeValueMatcher();
+    private final ValueMatcher<Object> isoDateTimeRegex = new RegularExpressionValueMatcher<Object>(ISO_DATE_TIME_REGEX);
+    private final ValueMatcher<Object> uuid = new UuidValueMatcher();
+    private final ValueMatcher<Object> uuidRegex = new RegularExpressionValueMatcher<Object>(UUID_REGEX);
+    private final ValueMatcher<Object> epoch = new EpochRangeValueMatcher(1000000000L, 1999999999L);
+    private final ValueMatcher<Object> epochRegex = new RegularExpressionValueMatcher<Object>(EPOCH_REGEX);
+
+    private Object[] dateTimes;
+    private Object[] uuids;
+    private Object[] epochs;
+
+    @Setup
+    public void setUp() {
+        dateTimes = new Object[size];
+        uuids = new Object[size];
+        epochs = new Object[size];
+        for (int i = 0; i < size; i++) {
+            dateTimes[i] = String.format("20%02d-%02d-%02dT%02d:%02d:%02d.%03d%s", i % 100, i % 12 + 1, i % 28 + 1,
+                    i % 24, i % 60, (i * 7) % 60, i % 1000, i % 2 == 0 ? "Z" : "+01:00");
+            uuids[i] = new UUID(i * 0x9E3779B97F4A7C15L, ~i * 0xC2B2AE3D27D4EB4FL).toString();
+            epochs[i] = 1500000000L + i;
+        }
+    }
+
+    private static int matchAll(ValueMatcher<Object> matcher, Object[] values) {
+        int matched = 0;
+        for (Object value : values) {
+            if (matcher.equal(value, "")) {
+                matched++;
+            }
+        }
+        return matched;
+    }
+
+    @Benchmark
+    public int isoDateTime() {
+        return matchAll(isoDateTime, dateTimes);
+    }
+
+    @Benchmark
+    public int isoDateTimeRegex() {
+        return matchAll(isoDateTimeRegex, dateTimes);
+    }
+
+    @Benchmark
+    public int uuid() {
+        return matchAll(uuid, uuids);
+    }
+
+    @Benchmark
+    public int uuidRegex() {
+        return matchAll(uuidRegex, uuids);
+    }
+
+    @Benchmark
+    public int epoch() {
+        return matchAll(epoch, epochs);
+    }
+
+    @Benchmark
+    public int epochRegex() {
+        return matchAll(epochRegex, epochs);
+    }
+}
@@ -0,0 +1,248 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.skyscreamer.jsonassert.FieldComparisonFailure.Kind;
+
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.indexFreePath;
+
+/**
+ * A {@link ComparisonListener} that groups repeated failures instead of keeping each one. Failures are grouped by
+ * the path with array indices removed, e.g. {@code items[].currency}, and by their expected and actual values, so
+ * that 100,000 array elements failing the same way make one group with a count and a few sample paths. At most a
+ * fixed number of groups is kept; failures that would start a new group beyond that are only counted. Memory use is
+ * therefore bounded however many failures there are.
+ *
+ * <p>Typical use:</p>
+ *
+ * <code>
+ * AggregatingComparisonListener failures = new AggregatingComparisonListener();<br>
+ * if (JSONCompare.compareJSON(expected, actual, JSONCompareMode.STRICT, failures).failed()) {<br>
+ * &nbsp;&nbsp;&nbsp;&nbsp;fail(failures.getMessage());<br>
+ * }
+ * </code>
+ */
+public class AggregatingComparisonListener implements ComparisonListener {
+    /**
+     * Number of groups kept unless specified otherwise.
+     */
+    public static final int DEFAULT_MAX_GROUPS = 100;
+
+    /**
+     * Number of sample paths kept per group unless specified otherwise.
+     */
+    public static final int DEFAULT_MAX_SAMPLES = 3;
+
+    private final int maxGroups;
+    private final int maxSamples;
+    private final Map<String, FailureGroup> groups = new LinkedHashMap<String, FailureGroup>();
+    private long failureCount;
+    private long ungroupedCount;
+
+    /**
+     * Creates a listener keeping at most {@link #DEFAULT_MAX_GROUPS} groups of {@link #DEFAULT_MAX_SAMPLES} samples.
+     */
+    public AggregatingComparisonListener() {
+        this(DEFAULT_MAX_GROUPS, DEFAULT_MAX_SAMPLES);
+    }
+
+    /**
+     * Creates a listener keeping at most {@code maxGroups} groups of {@code maxSamples} sample paths each.
+     *
+     * @param maxGroups maximum number of groups kept
+     * @param maxSamples maximum number of sample paths kept per group
+     * @throws IllegalArgumentException if either is negative
+     */
+    public AggregatingComparisonListener(int maxGroups, int maxSamples) {
+        if (maxGroups < 0 || maxSamples < 0) {
+            throw new IllegalArgumentException("Negative limit: " + maxGroups + ", " + maxSamples);
+        }
+        this.maxGroups = maxGroups;
+        this.maxSamples = maxSamples;
+    }
+
+    @Override
+    public void onFailure(String field, Object expected, Object actual) {
+        record(Kind.FAILURE, field, FieldComparisonFailure.describeValue(expected),
+                FieldComparisonFailure.describeValue(actual));
+    }
+
+    @Override
+    public void onMissing(String field, Object expected) {
+        record(Kind.MISSING, field, FieldComparisonFailure.describeValue(expected), null);
+    }
+
+    @Override
+    public void onUnexpected(String field, Object actual) {
+        record(Kind.UNEXPECTED, field, null, FieldComparisonFailure.describeValue(actual));
+    }
+
+    @Override
+    public void onMessage(String message) {
+        record(Kind.MESSAGE, message, null, null);
+    }
+
+    private void record(Kind kind, String field, String expected, String actual) {
+        failureCount++;
+        String template = indexFreePath(field);
+        String key = kind.ordinal() + "\u0000" + template + "\u0000" + expected + "\u0000" + actual;
+        FailureGroup group = groups.get(key);
+        if (group == null) {
+            if (groups.size() >= maxGroups) {
+                ungroupedCount++;
+                return;
+            }
+            group = new FailureGroup(kind, template, expected, actual);
+            groups.put(key, group);
+        }
+        group.count++;
+        if (group.samples.size() < maxSamples) {
+            group.samples.add(field);
+        }
+    }
+
+    /**
+     * @return the groups of failures, in the order their first failure was reported
+     */
+    public List<FailureGroup> getGroups() {
+        return Collections.unmodifiableList(new ArrayList<FailureGroup>(groups.values()));
+    }
+
+    /**
+     * @return the total number of failures reported, grouped or not
+     */
+    public long getFailureCount() {
+        return failureCount;
+    }
+
+    /**
+     * @return the number of failures not grouped because the maximum number of groups had been reached
+     */
+    public long getUngroupedCount() {
+        return ungroupedCount;
+    }
+
+    /**
+     * Describes every group of failures, in the style of {@link JSONCompareResult#getMessage()}, with the number of
+     * failures in the group and its sample paths.
+     *
+     * @return description of the failures, empty if there were none
+     */
+    public String getMessage() {
+        StringBuilder sb = new StringBuilder();
+        for (FailureGroup group : groups.values()) {
+            if (sb.length() > 0) {
+                sb.append(" ; ");
+            }
+            group.describeTo(sb);
+        }
+        if (ungroupedCount > 0) {
+            if (sb.length() > 0) {
+                sb.append(" ; ");
+            }
+            sb.append(ungroupedCount).append(" more failure(s) not grouped\n");
+        }
+        return sb.toString();
+    }
+
+    @Override
+    public String toString() {
+        return getMessage();
+    }
+
+    /**
+     * Failures of the same kind, at the same path apart from array indices, with the same expected and actual values.
+     */
+    public static final class FailureGroup {
+        private final Kind kind;
+        private final String pathTemplate;
+        private final String expected;
+        private final String actual;
+        private final List<String> samples = new ArrayList<String>();
+        private long count;
+
+        private FailureGroup(Kind kind, String pathTemplate, String expected, String actual) {
+            this.kind = kind;
+            this.pathTemplate = pathTemplate;
+            this.expected = expected;
+            this.actual = actual;
+        }
+
+        /**
+         * @return the kind of failures in this group
+         */
+        public Kind getKind() {
+            return kind;
+        }
+
+        /**
+         * @return the path of the failures with array indices removed, e.g. {@code items[].currency}, or the
+         *         message with indices removed for {@link Kind#MESSAGE} failures
+         */
+        public String getPathTemplate() {
+            return pathTemplate;
+        }
+
+        /**
+         * @return the description of the expected value, or null if the failures are unexpected values or messages
+         */
+        public String getExpected() {
+            return expected;
+        }
+
+        /**
+         * @return the description of the actual value, or null if the failures are missing values or messages
+         */
+        public String getActual() {
+            return actual;
+        }
+
+        /**
+         * @return the number of failures in this group
+         */
+        public long getCount() {
+            return count;
+        }
+
+        /**
+         * @return the full paths of the first few failures in this group
+         */
+        public List<String> getSampleFields() {
+            return Collections.unmodifiableList(samples);
+        }
+
+        void describeTo(StringBuilder sb) {
+            // expected and actual are already descriptions, which describeValue() leaves as they are
+            FieldComparisonFailure.appendDescription(sb, kind, pathTemplate, expected, actual);
+            if (kind == Kind.MESSAGE) {
+                sb.append("\n");
+            }
+            sb.append(count).append(" time(s)");
+            if (!samples.isEmpty()) {
+                sb.append(", e.g. at ");
+                for (int i = 0; i < samples.size(); i++) {
+                    sb.append(i == 0 ? "" : ", ").append(samples.get(i));
+                }
+            }
+            sb.append("\n");
+        }
+    }
+}
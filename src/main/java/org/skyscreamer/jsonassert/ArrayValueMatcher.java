@@ -15,6 +15,12 @@
 package org.skyscreamer.jsonassert;
 
 import java.text.MessageFormat;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.atomic.AtomicBoolean;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -29,8 +35,8 @@ import org.skyscreamer.jsonassert.comparator.JSONComparator;
  * This allows simple verification of constant array element components and
  * coupled with RegularExpressionValueMatcher can be used to match specific
  * array element components against a regular expression pattern. As a convenience to reduce syntactic complexity of expected string, if the
- * expected object is not an array, a one element expected array is created
- * containing whatever is provided as the expected value.</p>
+ * expected object is not an array, it is treated as a one element expected
+ * array containing whatever is provided as the expected value.</p>
  * 
  * <p>Some examples of typical usage idioms listed below.</p>
  * 
@@ -136,9 +142,18 @@ import org.skyscreamer.jsonassert.comparator.JSONComparator;
  * 
  */
 public class ArrayValueMatcher<T> implements LocationAwareValueMatcher<T> {
+	/**
+	 * Minimum number of elements in range before a parallel ArrayValueMatcher
+	 * splits the work across threads.
+	 */
+	public static final int PARALLEL_THRESHOLD = 1024;
+
+	private static final int MIN_ELEMENTS_PER_TASK = 256;
+
 	private final JSONComparator comparator;
 	private final int from;
 	private final int to;
+	private final boolean parallel;
 
 	/**
 	 * Create ArrayValueMatcher to match every element in actual array against
@@ -176,6 +191,27 @@ public class ArrayValueMatcher<T> implements LocationAwareValueMatcher<T> {
 	 * @param to last element in actual array to compared
 	 */
 	public ArrayValueMatcher(JSONComparator comparator, int from, int to) {
+		this(comparator, from, to, false);
+	}
+
+	/**
+	 * Create ArrayValueMatcher to match every element in specified range
+	 * (inclusive) from actual array against elements taken in sequence from
+	 * expected array, repeating from start of expected array if necessary. If
+	 * parallel is true and the range covers at least
+	 * {@link #PARALLEL_THRESHOLD} elements, the range is split into chunks
+	 * compared concurrently in the common fork/join pool; the failures
+	 * reported are the same, in the same order, as when comparing
+	 * sequentially. The comparator, and any ValueMatcher it uses, must then be
+	 * safe to use from several threads at once.
+	 * 
+	 * @param comparator
+	 *            comparator to use to compare elements
+	 * @param from first element in actual array to compared
+	 * @param to last element in actual array to compared
+	 * @param parallel whether large ranges may be compared concurrently
+	 */
+	public ArrayValueMatcher(JSONComparator comparator, int from, int to, boolean parallel) {
 		assert comparator != null : "comparator null";
 		assert from >= 0 : MessageFormat.format("from({0}) < 0", from);
 		assert to >= from : MessageFormat.format("to({0}) < from({1})", to,
@@ -183,6 +219,7 @@ public class ArrayValueMatcher<T> implements LocationAwareValueMatcher<T> {
 		this.comparator = comparator;
 		this.from = from;
 		this.to = to;
+		this.parallel = parallel;
 	}
 
 	@Override
@@ -201,15 +238,12 @@ public class ArrayValueMatcher<T> implements LocationAwareValueMatcher<T> {
 		}
 		try {
 			JSONArray actualArray = (JSONArray) actual;
-			JSONArray expectedArray = expected instanceof JSONArray ? (JSONArray) expected: new JSONArray(new Object[] { expected });
 			int first = Math.max(0, from);
 			int last = Math.min(actualArray.length() - 1, to);
-			int expectedLen = expectedArray.length();
-			for (int i = first; i <= last; i++) {
-				String elementPrefix = MessageFormat.format("{0}[{1}]", prefix, i);
-				Object actualElement = actualArray.get(i);
-				Object expectedElement = expectedArray.get((i - first) % expectedLen);
-				comparator.compareValues(elementPrefix, expectedElement, actualElement, result);
+			if (parallel && last - first + 1 >= PARALLEL_THRESHOLD) {
+				compareInParallel(prefix, actualArray, expected, first, last, result);
+			} else {
+				compareRange(prefix, actualArray, expected, first, first, last, result, null);
 			}
 			// any failures have already been passed to result, so return true
 			return true;
@@ -219,4 +253,85 @@ public class ArrayValueMatcher<T> implements LocationAwareValueMatcher<T> {
 		}
 	}
 
+	/*
+	 * Compares elements start to end (inclusive) of the range beginning at
+	 * first. A non-array expected value is used as is for every element rather
+	 * than wrapped in a one element array.
+	 */
+	private void compareRange(String prefix, JSONArray actualArray, Object expected, int first, int start, int end,
+			JSONCompareResult result, AtomicBoolean abandoned) throws JSONException {
+		JSONArray expectedArray = expected instanceof JSONArray ? (JSONArray) expected : null;
+		int expectedLen = expectedArray == null ? 1 : expectedArray.length();
+		StringBuilder elementPrefix = new StringBuilder(prefix.length() + 8).append(prefix).append('[');
+		int prefixLength = elementPrefix.length();
+		for (int i = start; i <= end; i++) {
+			if (abandoned != null && abandoned.get()) {
+				return;
+			}
+			elementPrefix.setLength(prefixLength);
+			elementPrefix.append(i).append(']');
+			Object actualElement = actualArray.get(i);
+			Object expectedElement = expectedArray == null ? expected : expectedArray.get((i - first) % expectedLen);
+			comparator.compareValues(elementPrefix.toString(), expectedElement, actualElement, result);
+		}
+	}
+
+	private void compareInParallel(final String prefix, final JSONArray actualArray, final Object expected,
+			final int first, int last, JSONCompareResult result) throws JSONException {
+		int elements = last - first + 1;
+		int tasks = Math.max(1, Math.min(ForkJoinPool.getCommonPoolParallelism() * 4,
+				elements / MIN_ELEMENTS_PER_TASK));
+		int chunk = (elements + tasks - 1) / tasks;
+		final ConcurrentJSONCompareResult chunkResults = new ConcurrentJSONCompareResult();
+		final AtomicBoolean abandoned = new AtomicBoolean();
+		List<ForkJoinTask<?>> chunks = new ArrayList<ForkJoinTask<?>>(tasks);
+		for (int start = first; start <= last; start += chunk) {
+			final int chunkStart = start;
+			final int chunkEnd = Math.min(last, start + chunk - 1);
+			chunks.add(ForkJoinTask.adapt(new Callable<Void>() {
+				@Override
+				public Void call() throws JSONException {
+					compareRange(prefix, actualArray, expected, first, chunkStart, chunkEnd,
+							chunkResults.partition(chunkStart), abandoned);
+					return null;
+				}
+			}).fork());
+		}
+		boolean joined = false;
+		try {
+			for (ForkJoinTask<?> task : chunks) {
+				task.join();
+			}
+			joined = true;
+		}
+		catch (RuntimeException e) {
+			throw jsonExceptionIn(e);
+		}
+		finally {
+			if (!joined) {
+				// A chunk failed: stop the others rather than leave them running with nobody waiting for them
+				abandoned.set(true);
+				for (ForkJoinTask<?> task : chunks) {
+					task.cancel(false);
+				}
+			}
+		}
+		// Merging in range order reproduces the result of a sequential comparison
+		chunkResults.mergeInto(result);
+	}
+
+	/*
+	 * ForkJoinTask wraps a chunk's checked exceptions, and may wrap the
+	 * exception it rethrows in the joining thread once more; a JSONException
+	 * is unwrapped so that it is handled as in a sequential comparison.
+	 */
+	private static RuntimeException jsonExceptionIn(RuntimeException e) {
+		for (Throwable cause = e; cause != null; cause = cause.getCause()) {
+			if (cause instanceof JSONException) {
+				return (JSONException) cause;
+			}
+		}
+		return e;
+	}
+
 }
@@ -0,0 +1,36 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+/**
+ * A value matcher specialized for strings. When a {@link Customization}'s matcher implements this interface as
+ * well as {@link ValueMatcher}, and both actual and expected values are strings, they are passed to
+ * {@link #equalCharSequence(CharSequence, CharSequence)} directly, so the matcher need not convert them with
+ * {@code toString()}. All other values still go to {@link ValueMatcher#equal(Object, Object)}.
+ */
+public interface CharSequenceValueMatcher {
+
+    /**
+     * Compares two string values.
+     *
+     * @param actual the value being tested
+     * @param expected the expected value
+     * @return true if the values match, false otherwise
+     * @throws ValueMatcherException if the values do not match and the matcher needs to override the default
+     *             comparison failure message
+     */
+    boolean equalCharSequence(CharSequence actual, CharSequence expected) throws ValueMatcherException;
+
+}
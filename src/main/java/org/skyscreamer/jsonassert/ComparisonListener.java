@@ -0,0 +1,57 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+/**
+ * Receives comparison failures as a comparator finds them. By default a {@link JSONCompareResult} collects them
+ * into lists and a message itself. A result created with
+ * {@link JSONCompareResult#JSONCompareResult(ComparisonListener)} forwards them to another listener instead, so
+ * that differences between large documents can be streamed to a file or simply counted without being held in
+ * memory.
+ */
+public interface ComparisonListener {
+
+    /**
+     * Called when the actual value of a field does not match the expected value.
+     *
+     * @param field path of the field
+     * @param expected expected value
+     * @param actual actual value
+     */
+    void onFailure(String field, Object expected, Object actual);
+
+    /**
+     * Called when an expected field or array element is missing from the actual JSON.
+     *
+     * @param field path of the containing object or array
+     * @param expected the missing key or value
+     */
+    void onMissing(String field, Object expected);
+
+    /**
+     * Called when the actual JSON has a field or array element that was not expected.
+     *
+     * @param field path of the containing object or array
+     * @param actual the unexpected key or value
+     */
+    void onUnexpected(String field, Object actual);
+
+    /**
+     * Called for a failure that is described only by a message, e.g. arrays of different lengths.
+     *
+     * @param message description of the failure
+     */
+    void onMessage(String message);
+}
@@ -0,0 +1,345 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.skyscreamer.jsonassert.comparator.ArrayComparisonStrategy;
+import org.skyscreamer.jsonassert.comparator.DefaultComparator;
+
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.findUniqueKey;
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.formatUniqueKey;
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.getKeys;
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.qualify;
+
+/**
+ * How a comparison against an expected document will run, as returned by
+ * {@link JSONCompare#explain(String, JSONCompareMode, Customization...)}: one node per value of the expected
+ * document, giving the strategy each array will be compared with, the customization or directive each value will be
+ * matched with and which parts are ignored, together with an estimate of the cost of comparing it.
+ *
+ * <p>The plan is worked out from the expected document alone. An array of objects planned as
+ * {@link ArrayComparisonStrategy#UNIQUE_KEY} still falls back to {@link ArrayComparisonStrategy#RECURSIVE_FALLBACK}
+ * if its key turns out not to be unique in the actual array, and a value whose actual type differs is reported as a
+ * failure without being compared further.</p>
+ *
+ * <p>The elements of an array compared by {@link ArrayComparisonStrategy#RECURSIVE_FALLBACK} are compared as
+ * documents of their own, so customizations are matched against paths relative to the element, as the comparator
+ * does, while the plan still shows the path of each value in the expected document.</p>
+ *
+ * <p>Costs count the values compared, plus the elements hashed for arrays compared by cardinality or unique key,
+ * assuming the actual document has the same shape. For {@link ArrayComparisonStrategy#RECURSIVE_FALLBACK} every
+ * expected element is assumed to be compared with every actual element, the worst case.</p>
+ */
+public final class ComparisonPlan {
+
+    /**
+     * What a node of the plan compares.
+     */
+    public enum Kind {
+        /**
+         * An object, compared key by key.
+         */
+        OBJECT,
+
+        /**
+         * An array, compared by {@link #getStrategy()}.
+         */
+        ARRAY,
+
+        /**
+         * A value compared as a whole: a simple value, or any value matched by a customization or directive.
+         */
+        VALUE,
+
+        /**
+         * A value, object or array skipped by an ignoring customization.
+         */
+        IGNORED
+    }
+
+    private final String path;
+    private final Kind kind;
+    private final int size;
+    private final ArrayComparisonStrategy strategy;
+    private final String uniqueKey;
+    private final Customization customization;
+    private final MatcherDirective directive;
+    private final List<ComparisonPlan> children;
+    private final long estimatedCost;
+
+    private ComparisonPlan(String path, Kind kind, int size, ArrayComparisonStrategy strategy, String uniqueKey,
+                           Customization customization, MatcherDirective directive, List<ComparisonPlan> children,
+                           long estimatedCost) {
+        this.path = path;
+        this.kind = kind;
+        this.size = size;
+        this.strategy = strategy;
+        this.uniqueKey = uniqueKey;
+        this.customization = customization;
+        this.directive = directive;
+        this.children = Collections.unmodifiableList(children);
+        this.estimatedCost = estimatedCost;
+    }
+
+    /**
+     * Plans the comparison of {@code expected}, a parsed document, by a comparator in {@code mode} with
+     * {@code customizations}.
+     */
+    static ComparisonPlan plan(Object expected, JSONCompareMode mode, List<Customization> customizations)
+            throws JSONException {
+        Planner planner = new Planner(new DefaultComparator(mode), customizations);
+        if (expected instanceof JSONObject) {
+            return planner.planObject("", "", (JSONObject) expected);
+        } else if (expected instanceof JSONArray) {
+            return planner.planArray("", "", (JSONArray) expected);
+        }
+        return leaf("", Kind.VALUE, null, null, 1);
+    }
+
+    private static ComparisonPlan leaf(String path, Kind kind, Customization customization, MatcherDirective directive,
+                                       long cost) {
+        return new ComparisonPlan(path, kind, -1, null, null, customization, directive,
+                Collections.<ComparisonPlan>emptyList(), cost);
+    }
+
+    // Mirrors the decisions of DefaultComparator and CustomComparator. Each node is planned with its path in the
+    // expected document and the path customizations are matched against, which starts again at the root inside
+    // the elements of an array compared by RECURSIVE_FALLBACK.
+    private static final class Planner {
+        private final DefaultComparator comparator;
+        private final List<Customization> customizations;
+
+        Planner(DefaultComparator comparator, List<Customization> customizations) {
+            this.comparator = comparator;
+            this.customizations = customizations;
+        }
+
+        ComparisonPlan planValue(String path, String matchPath, Object value) throws JSONException {
+            if (value instanceof MatcherDirective) {
+                return leaf(path, Kind.VALUE, null, (MatcherDirective) value, 1);
+            }
+            Customization customization = findCustomization(matchPath);
+            if (customization != null) {
+                return customization.isIgnore()
+                        ? leaf(path, Kind.IGNORED, customization, null, 0)
+                        : leaf(path, Kind.VALUE, customization, null, 1);
+            }
+            if (value instanceof JSONObject || value instanceof JSONArray) {
+                for (Customization c : customizations) {
+                    if (c.ignoresSubtree(matchPath)) {
+                        return leaf(path, Kind.IGNORED, c, null, 0);
+                    }
+                }
+            }
+            return planUncustomized(path, matchPath, value);
+        }
+
+        // An element of an array compared by RECURSIVE_FALLBACK, which is compared as a document of its own
+        ComparisonPlan planFallbackElement(String path, Object element) throws JSONException {
+            if (element instanceof MatcherDirective) {
+                return leaf(path, Kind.VALUE, null, (MatcherDirective) element, 1);
+            }
+            return planUncustomized(path, "", element);
+        }
+
+        private ComparisonPlan planUncustomized(String path, String matchPath, Object value) throws JSONException {
+            if (value instanceof JSONObject) {
+                return planObject(path, matchPath, (JSONObject) value);
+            } else if (value instanceof JSONArray) {
+                return planArray(path, matchPath, (JSONArray) value);
+            }
+            return leaf(path, Kind.VALUE, null, null, 1);
+        }
+
+        ComparisonPlan planObject(String path, String matchPath, JSONObject object) throws JSONException {
+            List<ComparisonPlan> children = new ArrayList<ComparisonPlan>();
+            long cost = object.length();
+            for (String key : getKeys(object)) {
+                ComparisonPlan child = planValue(qualify(path, key), qualify(matchPath, key), object.get(key));
+                children.add(child);
+                cost += child.estimatedCost;
+            }
+            return new ComparisonPlan(path, Kind.OBJECT, object.length(), null, null, null, null, children, cost);
+        }
+
+        ComparisonPlan planArray(String path, String matchPath, JSONArray array) throws JSONException {
+            int n = array.length();
+            if (n == 0) {
+                return new ComparisonPlan(path, Kind.ARRAY, 0, null, null, null, null,
+                        Collections.<ComparisonPlan>emptyList(), 1);
+            }
+            ArrayComparisonStrategy strategy = comparator.selectArrayStrategy(array);
+            String uniqueKey = null;
+            if (strategy == ArrayComparisonStrategy.UNIQUE_KEY) {
+                uniqueKey = findUniqueKey(array);
+                if (uniqueKey == null) {
+                    strategy = ArrayComparisonStrategy.RECURSIVE_FALLBACK;
+                }
+            }
+            List<ComparisonPlan> children = new ArrayList<ComparisonPlan>();
+            long childCost = 0;
+            if (strategy != ArrayComparisonStrategy.SIMPLE_VALUE_CARDINALITY) {
+                for (int i = 0; i < n; i++) {
+                    Object element = array.get(i);
+                    ComparisonPlan child;
+                    if (strategy == ArrayComparisonStrategy.RECURSIVE_FALLBACK) {
+                        child = planFallbackElement(path + "[" + i + "]", element);
+                    } else if (uniqueKey == null) {
+                        child = planValue(path + "[" + i + "]", matchPath + "[" + i + "]", element);
+                    } else {
+                        Object id = ((JSONObject) element).get(uniqueKey);
+                        child = planValue(formatUniqueKey(path, uniqueKey, id),
+                                formatUniqueKey(matchPath, uniqueKey, id), element);
+                    }
+                    children.add(child);
+                    childCost += child.estimatedCost;
+                }
+            }
+            long cost;
+            switch (strategy) {
+            case STRICT_ORDER:
+                cost = 1 + childCost;
+                break;
+            case SIMPLE_VALUE_CARDINALITY:
+                cost = 1 + 2L * n;
+                break;
+            case UNIQUE_KEY:
+                cost = 1 + 2L * n + childCost;
+                break;
+            default:
+                cost = 1 + n * childCost;
+                break;
+            }
+            return new ComparisonPlan(path, Kind.ARRAY, n, strategy, uniqueKey, null, null, children, cost);
+        }
+
+        private Customization findCustomization(String path) {
+            for (Customization c : customizations) {
+                if (c.appliesToPath(path)) {
+                    return c;
+                }
+            }
+            return null;
+        }
+    }
+
+    /**
+     * @return JSON path of the value, empty for the root
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return what this node compares
+     */
+    public Kind getKind() {
+        return kind;
+    }
+
+    /**
+     * @return number of keys of an object or elements of an array, -1 for other kinds
+     */
+    public int getSize() {
+        return size;
+    }
+
+    /**
+     * @return strategy a non-empty array will be compared with, null for other kinds
+     */
+    public ArrayComparisonStrategy getStrategy() {
+        return strategy;
+    }
+
+    /**
+     * @return field by which the elements of an array will be matched up, if its strategy is
+     *         {@link ArrayComparisonStrategy#UNIQUE_KEY}, otherwise null
+     */
+    public String getUniqueKey() {
+        return uniqueKey;
+    }
+
+    /**
+     * @return customization the value will be matched or ignored with, or null
+     */
+    public Customization getCustomization() {
+        return customization;
+    }
+
+    /**
+     * @return directive the value will be matched with, or null
+     */
+    public MatcherDirective getDirective() {
+        return directive;
+    }
+
+    /**
+     * @return plans of the keys of an object, or of the elements of an array unless compared by cardinality
+     */
+    public List<ComparisonPlan> getChildren() {
+        return children;
+    }
+
+    /**
+     * @return estimated number of values compared and elements hashed, this node and its descendants included
+     */
+    public long getEstimatedCost() {
+        return estimatedCost;
+    }
+
+    /**
+     * Renders the plan as an indented tree, one node per line.
+     */
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        appendTo(sb, 0);
+        return sb.toString();
+    }
+
+    private void appendTo(StringBuilder sb, int depth) {
+        for (int i = 0; i < depth; i++) {
+            sb.append("  ");
+        }
+        sb.append(path.isEmpty() ? "(root)" : path).append(": ").append(kind);
+        if (kind == Kind.OBJECT) {
+            sb.append(", ").append(size).append(size == 1 ? " key" : " keys");
+        } else if (kind == Kind.ARRAY) {
+            sb.append(", ").append(size).append(size == 1 ? " element" : " elements");
+            if (strategy != null) {
+                sb.append(", ").append(strategy);
+            }
+            if (uniqueKey != null) {
+                sb.append(" on ").append(uniqueKey);
+            }
+        }
+        if (customization != null) {
+            sb.append(", customization ").append(customization.getPath());
+        }
+        if (directive != null) {
+            sb.append(", directive ").append(directive.getSource());
+        }
+        sb.append(", cost ").append(estimatedCost).append('\n');
+        for (ComparisonPlan child : children) {
+            child.appendTo(sb, depth + 1);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import java.util.concurrent.ConcurrentSkipListMap;
+
+/**
+ * Collects the results of a comparison split across many threads. Each unit of work, e.g. a range of array elements,
+ * reports its failures to its own partition, identified by an ordinal giving its position in the traversal.
+ * Partitions are created with lock-free appends and can be written to concurrently, each by one thread at a time.
+ * Merging them in ordinal order gives the same result, failure for failure and byte for byte in its message, as a
+ * sequential comparison would.
+ */
+public class ConcurrentJSONCompareResult {
+    private final ConcurrentSkipListMap<Long, JSONCompareResult> partitions =
+            new ConcurrentSkipListMap<Long, JSONCompareResult>();
+
+    /**
+     * Returns the partition for {@code ordinal}, creating it if needed. Work earlier in traversal order must use a
+     * smaller ordinal than work later in traversal order.
+     *
+     * @param ordinal position of the work in traversal order
+     * @return the result to report the work's failures to
+     */
+    public JSONCompareResult partition(long ordinal) {
+        JSONCompareResult partition = partitions.get(ordinal);
+        if (partition == null) {
+            JSONCompareResult created = new JSONCompareResult();
+            partition = partitions.putIfAbsent(ordinal, created);
+            if (partition == null) {
+                partition = created;
+            }
+        }
+        return partition;
+    }
+
+    /**
+     * Did every partition pass?
+     * @return True if no failure has been reported to any partition
+     */
+    public boolean passed() {
+        for (JSONCompareResult partition : partitions.values()) {
+            if (partition.failed()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reports the failures of every partition to {@code result}, in ordinal order. Must only be called once all
+     * work has finished.
+     *
+     * @param result the result to merge into
+     * @return result
+     */
+    public JSONCompareResult mergeInto(JSONCompareResult result) {
+        for (JSONCompareResult partition : partitions.values()) {
+            result.merge(partition);
+        }
+        return result;
+    }
+
+    /**
+     * Merges every partition, in ordinal order, into a new result. Must only be called once all work has finished.
+     *
+     * @return the merged result
+     */
+    public JSONCompareResult toResult() {
+        return mergeInto(new JSONCompareResult());
+    }
+}
@@ -20,28 +20,86 @@ import java.util.regex.Pattern;
  * Associates a custom matcher to a specific jsonpath.
  */
 public final class Customization {
+	private static final String SUBTREE_SUFFIX = ".**";
+	private static final ValueMatcher<Object> ANY_VALUE = new ValueMatcher<Object>() {
+		@Override
+		public boolean equal(Object o1, Object o2) {
+			return true;
+		}
+	};
+
+	private final String jsonPath;
+	private final GlobPathMatcher glob;
 	private final Pattern path;
+	private final boolean indexDependent;
 	private final ValueMatcher<Object> comparator;
+	private final LongValueMatcher longMatcher;
+	private final DoubleValueMatcher doubleMatcher;
+	private final BooleanValueMatcher booleanMatcher;
+	private final CharSequenceValueMatcher charSequenceMatcher;
+	private final boolean ignore;
+	private final Customization subtreeRoot;
 
 	public Customization(String path, ValueMatcher<Object> comparator) {
+		this(path, comparator, false);
+	}
+
+	private Customization(String path, ValueMatcher<Object> comparator, boolean ignore) {
         assert path != null;
         assert comparator != null;
-		this.path = Pattern.compile(buildPattern(path));
+		this.jsonPath = path;
+		this.glob = GlobPathMatcher.compile(path);
+		// Only patterns too large for the glob engine fall back to a regular expression
+		this.path = glob == null ? Pattern.compile(buildPattern(path), Pattern.DOTALL) : null;
+		this.indexDependent = GlobPathMatcher.dependsOnArrayIndex(path);
 		this.comparator = comparator;
+		this.longMatcher = specialized(comparator, LongValueMatcher.class, "equalLong", long.class, long.class);
+		this.doubleMatcher = specialized(comparator, DoubleValueMatcher.class, "equalDouble", double.class,
+				double.class);
+		this.booleanMatcher = specialized(comparator, BooleanValueMatcher.class, "equalBoolean", boolean.class,
+				boolean.class);
+		this.charSequenceMatcher = specialized(comparator, CharSequenceValueMatcher.class, "equalCharSequence",
+				CharSequence.class, CharSequence.class);
+		this.ignore = ignore;
+		this.subtreeRoot = ignore && path.endsWith(SUBTREE_SUFFIX)
+				? new Customization(path.substring(0, path.length() - SUBTREE_SUFFIX.length()), comparator, false)
+				: null;
 	}
 
-	private String buildPattern(String path) {
+	/*
+	 * Returns comparator as a matcher of type, if it is one and the method
+	 * named implements it no higher up its class hierarchy than equal(T, T).
+	 * A subclass of a library matcher that overrides only equal must still
+	 * have every value passed to equal.
+	 */
+	private static <M> M specialized(ValueMatcher<Object> comparator, Class<M> type, String method,
+			Class<?>... parameterTypes) {
+		if (!type.isInstance(comparator)) {
+			return null;
+		}
+		try {
+			Class<?> equalClass = comparator.getClass().getMethod("equal", Object.class, Object.class)
+					.getDeclaringClass();
+			Class<?> specializedClass = comparator.getClass().getMethod(method, parameterTypes).getDeclaringClass();
+			return equalClass.isAssignableFrom(specializedClass) ? type.cast(comparator) : null;
+		}
+		catch (NoSuchMethodException e) {
+			return null;
+		}
+	}
+
+	static String buildPattern(String path) {
 		return buildPatternLevel1(path);
 	}
 
-	private String buildPatternLevel1(String path) {
+	private static String buildPatternLevel1(String path) {
 		String regex = "\\*\\*\\.";
 		String replacement = "(?:.+\\.)?";
 
 		return buildPattern(path, regex, replacement, 1);
 	}
 
-	private String buildPatternLevel2(String s) {
+	private static String buildPatternLevel2(String s) {
 		if (s.isEmpty()) {
 			return "";
 		}
@@ -51,7 +109,7 @@ public final class Customization {
 		return buildPattern(s, regex, replacement, 2);
 	}
 
-	private String buildPatternLevel3(String s) {
+	private static String buildPatternLevel3(String s) {
 		if (s.isEmpty()) {
 			return "";
 		}
@@ -62,9 +120,9 @@ public final class Customization {
 		return buildPattern(s, regex, replacement, 3);
 	}
 
-	private String buildPattern(String path, String regex, String replacement, int level) {
+	private static String buildPattern(String path, String regex, String replacement, int level) {
 		StringBuilder sb = new StringBuilder();
-		String[] parts = path.split(regex);
+		String[] parts = path.split(regex, -1);
 		for (int i = 0; i < parts.length; i++) {
 			sb.append(buildPatternForLevel(level, parts[i]));
 			if (i < parts.length - 1) {
@@ -74,7 +132,7 @@ public final class Customization {
 		return sb.toString();
 	}
 
-	private String buildPatternForLevel(int level, String part) {
+	private static String buildPatternForLevel(int level, String part) {
 		switch (level) {
 			case 1:
 				return buildPatternLevel2(part);
@@ -98,7 +156,63 @@ public final class Customization {
 		return new Customization(path, comparator);
 	}
 
+	/**
+	 * Creates a {@link Customization} that ignores every value at {@code path}. Unlike a customization whose
+	 * matcher accepts anything, an ignored path is never traversed: if it ends with {@code .**}, comparators stop
+	 * at the object or array the wildcard hangs from instead of visiting each value below it, and keys at ignored
+	 * paths are not reported as missing or unexpected.
+	 *
+	 * @param path the json path, e.g. {@code metadata.**} or {@code **.timestamp}
+	 * @return a new ignoring Customization
+	 */
+	public static Customization ignore(String path) {
+		return new Customization(path, ANY_VALUE, true);
+	}
+
+    /**
+     * The json path this customization was created with.
+     *
+     * @return the path, wildcards included
+     */
+    public String getPath() {
+        return jsonPath;
+    }
+
+    /**
+     * Whether this customization was created by {@link #ignore(String)}.
+     *
+     * @return true if values at the paths this customization applies to are not compared
+     */
+    public boolean isIgnore() {
+        return ignore;
+    }
+
+    /**
+     * Whether this is an ignoring customization covering every path below {@code path}, so that a comparator
+     * may skip the object or array found there without descending into it.
+     *
+     * @param path the json path of an object or array
+     * @return true if all descendants of {@code path} are ignored
+     */
+    public boolean ignoresSubtree(String path) {
+        return subtreeRoot != null && subtreeRoot.appliesToPath(path);
+    }
+
+    /**
+     * Whether this customization may apply to one element of an array but not to another, e.g. because its path
+     * names a specific index such as {@code items[0].price}. When false, {@link #appliesToPath(String)} gives the
+     * same answer for all paths that differ only in their array indices.
+     *
+     * @return true if matching depends on array indices
+     */
+    public boolean dependsOnArrayIndex() {
+        return indexDependent;
+    }
+
     public boolean appliesToPath(String path) {
+        if (glob != null) {
+            return glob.matches(path);
+        }
         return this.path.matcher(path).matches();
     }
 
@@ -122,7 +236,11 @@ public final class Customization {
 	/**
 	 * Return true if actual value matches expected value using this
 	 * Customization's comparator. The equal method used for comparison depends
-	 * on type of comparator.
+	 * on type of comparator: a LocationAwareValueMatcher is always passed the
+	 * prefix and result, while a comparator that also implements
+	 * LongValueMatcher, DoubleValueMatcher, BooleanValueMatcher or
+	 * CharSequenceValueMatcher is passed values of that type unboxed, unless
+	 * a subclass overrides its equal method but not the unboxed one.
 	 *
 	 * @param prefix
 	 *            JSON path of the JSON item being tested (only used if
@@ -146,6 +264,22 @@ public final class Customization {
 		if (comparator instanceof LocationAwareValueMatcher) {
 			return ((LocationAwareValueMatcher<Object>)comparator).equal(prefix, actual, expected, result);
 		}
+		if (charSequenceMatcher != null && actual instanceof CharSequence && expected instanceof CharSequence) {
+			return charSequenceMatcher.equalCharSequence((CharSequence) actual, (CharSequence) expected);
+		}
+		if (longMatcher != null && isIntegral(actual) && isIntegral(expected)) {
+			return longMatcher.equalLong(((Number) actual).longValue(), ((Number) expected).longValue());
+		}
+		if (doubleMatcher != null && actual instanceof Number && expected instanceof Number) {
+			return doubleMatcher.equalDouble(((Number) actual).doubleValue(), ((Number) expected).doubleValue());
+		}
+		if (booleanMatcher != null && actual instanceof Boolean && expected instanceof Boolean) {
+			return booleanMatcher.equalBoolean(((Boolean) actual).booleanValue(), ((Boolean) expected).booleanValue());
+		}
 		return comparator.equal(actual, expected);
 	}
+
+	private static boolean isIntegral(Object value) {
+		return value instanceof Integer || value instanceof Long || value instanceof Short || value instanceof Byte;
+	}
 }
@@ -0,0 +1,198 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import java.lang.ref.WeakReference;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * An iterator over the differences between two JSON documents that runs the comparison only as far as needed to
+ * produce the next difference. Comparators push failures as they find them, so the comparison runs on a separate
+ * daemon thread that hands each failure over to the consumer and then waits until the consumer asks for another.
+ * The thread is started on the first call to {@link #hasNext()} or {@link #next()}, and stops when the comparison
+ * ends, when {@link #close()} is called, or when the iterator is no longer referenced.
+ */
+final class DifferenceIterator implements Iterator<FieldComparisonFailure> {
+    private static final Object END = new Object();
+
+    private final Handoff handoff;
+    private final Runnable producerTask;
+    private Thread producer;
+    private Object next;
+    private boolean finished;
+
+    /**
+     * @param comparison compares the documents, reporting failures to the result it is given
+     */
+    DifferenceIterator(Comparison comparison) {
+        this.handoff = new Handoff();
+        this.producerTask = new Producer(handoff, comparison, new WeakReference<DifferenceIterator>(this));
+    }
+
+    /**
+     * A comparison reporting its failures to a result.
+     */
+    interface Comparison {
+        void compare(JSONCompareResult result);
+    }
+
+    @Override
+    public boolean hasNext() {
+        if (next == null && !finished) {
+            if (producer == null) {
+                producer = new Thread(producerTask, "JSONassert differences");
+                producer.setDaemon(true);
+                producer.start();
+            }
+            next = handoff.take();
+            if (next == END) {
+                next = null;
+                finished = true;
+            } else if (next instanceof Throwable) {
+                finished = true;
+                Throwable t = (Throwable) next;
+                next = null;
+                if (t instanceof Error) {
+                    throw (Error) t;
+                }
+                if (t instanceof RuntimeException) {
+                    throw (RuntimeException) t;
+                }
+                throw new IllegalStateException("Comparison failed", t);
+            }
+        }
+        return next != null;
+    }
+
+    @Override
+    public FieldComparisonFailure next() {
+        if (!hasNext()) {
+            throw new NoSuchElementException();
+        }
+        FieldComparisonFailure failure = (FieldComparisonFailure) next;
+        next = null;
+        return failure;
+    }
+
+    @Override
+    public void remove() {
+        throw new UnsupportedOperationException();
+    }
+
+    /**
+     * Stops the comparison if it is still running. Further calls to {@link #hasNext()} return false.
+     */
+    void close() {
+        finished = true;
+        next = null;
+        handoff.closed = true;
+        if (producer != null) {
+            producer.interrupt();
+        }
+    }
+
+    // Shared between consumer and producer; must not reference the iterator so that it can be collected
+    private static final class Handoff {
+        private final SynchronousQueue<Object> queue = new SynchronousQueue<Object>();
+        private volatile boolean closed;
+
+        Object take() {
+            try {
+                return queue.take();
+            }
+            catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new IllegalStateException("Interrupted while waiting for the next difference", e);
+            }
+        }
+    }
+
+    private static final class Abandoned extends RuntimeException {
+        private static final long serialVersionUID = 1L;
+    }
+
+    private static final class Producer implements Runnable, ComparisonListener {
+        private static final long POLL_MILLIS = 100;
+
+        private final Handoff handoff;
+        private final Comparison comparison;
+        private final WeakReference<DifferenceIterator> consumer;
+
+        Producer(Handoff handoff, Comparison comparison, WeakReference<DifferenceIterator> consumer) {
+            this.handoff = handoff;
+            this.comparison = comparison;
+            this.consumer = consumer;
+        }
+
+        @Override
+        public void run() {
+            // Whatever ends the comparison is handed over, otherwise the consumer would wait for it forever
+            Object outcome = END;
+            try {
+                comparison.compare(new JSONCompareResult(this));
+            }
+            catch (Abandoned e) {
+                // Nobody is left to consume the remaining differences
+                return;
+            }
+            catch (Throwable t) {
+                outcome = t;
+            }
+            try {
+                put(outcome);
+            }
+            catch (Abandoned ignored) {
+                // Nobody is left to report the outcome to
+            }
+        }
+
+        @Override
+        public void onFailure(String field, Object expected, Object actual) {
+            put(new FieldComparisonFailure(field, expected, actual, FieldComparisonFailure.Kind.FAILURE));
+        }
+
+        @Override
+        public void onMissing(String field, Object expected) {
+            put(new FieldComparisonFailure(field, expected, null, FieldComparisonFailure.Kind.MISSING));
+        }
+
+        @Override
+        public void onUnexpected(String field, Object actual) {
+            put(new FieldComparisonFailure(field, null, actual, FieldComparisonFailure.Kind.UNEXPECTED));
+        }
+
+        @Override
+        public void onMessage(String message) {
+            put(new FieldComparisonFailure(message, null, null, FieldComparisonFailure.Kind.MESSAGE));
+        }
+
+        // Waits for the consumer to take item, giving up once it has been closed or garbage collected
+        private void put(Object item) {
+            try {
+                while (!handoff.queue.offer(item, POLL_MILLIS, TimeUnit.MILLISECONDS)) {
+                    if (handoff.closed || consumer.get() == null) {
+                        throw new Abandoned();
+                    }
+                }
+            }
+            catch (InterruptedException e) {
+                throw new Abandoned();
+            }
+        }
+    }
+}
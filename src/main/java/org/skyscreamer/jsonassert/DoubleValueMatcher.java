@@ -0,0 +1,34 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+/**
+ * A value matcher specialized for numbers. When a {@link Customization}'s matcher implements this interface as
+ * well as {@link ValueMatcher}, and both actual and expected values are numbers, they are passed to
+ * {@link #equalDouble(double, double)} as primitives, unless the matcher is also a {@link LongValueMatcher} and
+ * both values are integral. All other values still go to {@link ValueMatcher#equal(Object, Object)}.
+ */
+public interface DoubleValueMatcher {
+
+    /**
+     * Compares two numeric values.
+     *
+     * @param actual the value being tested
+     * @param expected the expected value
+     * @return true if the values match, false otherwise
+     */
+    boolean equalDouble(double actual, double expected);
+
+}
@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+/**
+ * <p>A JSONassert value matcher that accepts any integral epoch timestamp
+ * within a fixed range (inclusive). The unit is whatever the range is given
+ * in, typically seconds or milliseconds since 1970-01-01T00:00:00Z. The
+ * expected value is ignored, so it can be any placeholder.</p>
+ * 
+ * <p>To verify that 'createdAt' holds a time in milliseconds from the last
+ * hour:</p>
+ * 
+ * <code>
+ * long now = System.currentTimeMillis();<br>
+ * new Customization("createdAt", new EpochRangeValueMatcher(now - 3600000, now))
+ * </code>
+ * 
+ * <p>Integral values are compared as primitive longs through
+ * {@link LongValueMatcher}, without allocation.</p>
+ */
+public class EpochRangeValueMatcher implements ValueMatcher<Object>, LongValueMatcher {
+
+	private final long min;
+	private final long max;
+
+	/**
+	 * Create EpochRangeValueMatcher accepting timestamps from min to max
+	 * (inclusive).
+	 * 
+	 * @param min
+	 *            earliest accepted timestamp
+	 * @param max
+	 *            latest accepted timestamp
+	 * @throws IllegalArgumentException
+	 *             if max is less than min
+	 */
+	public EpochRangeValueMatcher(long min, long max) throws IllegalArgumentException {
+		if (max < min) {
+			throw new IllegalArgumentException("Maximum " + max + " less than minimum " + min);
+		}
+		this.min = min;
+		this.max = max;
+	}
+
+	@Override
+	public boolean equal(Object actual, Object expected) {
+		if (!(actual instanceof Integer || actual instanceof Long || actual instanceof Short || actual instanceof Byte)) {
+			throw new ValueMatcherException("Value is not an integral timestamp", describeExpected(), String.valueOf(actual));
+		}
+		return equalLong(((Number) actual).longValue(), 0);
+	}
+
+	@Override
+	public boolean equalLong(long actual, long expected) {
+		if (actual < min || actual > max) {
+			throw new ValueMatcherException("Timestamp out of range", describeExpected(), Long.toString(actual));
+		}
+		return true;
+	}
+
+	private String describeExpected() {
+		return "timestamp from " + min + " to " + max;
+	}
+}
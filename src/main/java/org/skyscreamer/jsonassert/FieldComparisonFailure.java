@@ -14,22 +14,46 @@
 
 package org.skyscreamer.jsonassert;
 
+import org.json.JSONArray;
+import org.json.JSONObject;
+
 /**
  * Models a failure when comparing two fields.
  */
 public class FieldComparisonFailure {
-    private final String _field;
+    /**
+     * What kind of failure a {@link FieldComparisonFailure} is.
+     */
+    public enum Kind {
+        /** Actual value did not match expected value. */
+        FAILURE,
+        /** Expected field or element was missing; there is no actual value. */
+        MISSING,
+        /** Actual field or element was not expected; there is no expected value. */
+        UNEXPECTED,
+        /** Failure described only by a message, which is the field; there is no expected or actual value. */
+        MESSAGE
+    }
+
+    // Either the field itself or a PathTree.Node that renders it
+    private final Object _field;
     private final Object _expected;
     private final Object _actual;
+    private final Kind _kind;
 
     public FieldComparisonFailure(String field, Object expected, Object actual) {
+        this(field, expected, actual, Kind.FAILURE);
+    }
+
+    FieldComparisonFailure(Object field, Object expected, Object actual, Kind kind) {
         this._field = field;
         this._expected = expected;
         this._actual = actual;
+        this._kind = kind;
     }
 
     public String getField() {
-        return _field;
+        return _field == null ? null : _field.toString();
     }
 
     public Object getExpected() {
@@ -39,4 +63,63 @@ public class FieldComparisonFailure {
     public Object getActual() {
         return _actual;
     }
+
+    /**
+     * Tells apart a missing or unexpected field from a failure whose actual or expected value is null.
+     *
+     * @return the kind of failure
+     */
+    public Kind getKind() {
+        return _kind;
+    }
+
+    /**
+     * Describes a failure as {@link JSONCompareResult#getMessage()} does. Report writers and listeners use it so
+     * that every description of a failure reads the same.
+     *
+     * @param kind kind of failure
+     * @param field path of the field, or the message of a {@link Kind#MESSAGE} failure
+     * @param expected expected value, ignored for {@link Kind#UNEXPECTED} and {@link Kind#MESSAGE} failures
+     * @param actual actual value, ignored for {@link Kind#MISSING} and {@link Kind#MESSAGE} failures
+     * @return the description
+     */
+    public static String describe(Kind kind, String field, Object expected, Object actual) {
+        return appendDescription(new StringBuilder(), kind, field, expected, actual).toString();
+    }
+
+    static StringBuilder appendDescription(StringBuilder sb, Kind kind, String field, Object expected,
+            Object actual) {
+        sb.append(field);
+        switch (kind) {
+        case FAILURE:
+            sb.append("\nExpected: ").append(describeValue(expected))
+                    .append("\n     got: ").append(describeValue(actual)).append("\n");
+            break;
+        case MISSING:
+            sb.append("\nExpected: ").append(describeValue(expected)).append("\n     but none found\n");
+            break;
+        case UNEXPECTED:
+            sb.append("\nUnexpected: ").append(describeValue(actual)).append("\n");
+            break;
+        default:
+            break;
+        }
+        return sb;
+    }
+
+    /**
+     * Describes a value in a failure message: objects and arrays by their type alone, other values as text.
+     *
+     * @param value the value
+     * @return the description
+     */
+    public static String describeValue(Object value) {
+        if (value instanceof JSONArray) {
+            return "a JSON array";
+        } else if (value instanceof JSONObject) {
+            return "a JSON object";
+        } else {
+            return String.valueOf(value);
+        }
+    }
 }
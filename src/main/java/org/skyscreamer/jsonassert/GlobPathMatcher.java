@@ -0,0 +1,227 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>Matches JSON paths against the wildcard dialect understood by {@link Customization}, without going
+ * through {@link java.util.regex}. The supported wildcards are:</p>
+ * <ul>
+ *   <li>{@code *} - one or more characters, none of them a '.'</li>
+ *   <li>{@code **} - one or more characters of any kind</li>
+ *   <li>{@code **.} - nothing at all, or one or more characters followed by a '.'</li>
+ * </ul>
+ *
+ * <p>The pattern is compiled into a small non-deterministic automaton whose state set fits in a single
+ * {@code long}, so matching is linear in the length of the path and never allocates. Patterns needing more
+ * states than that are not compiled, see {@link #compile(String)}.</p>
+ */
+final class GlobPathMatcher {
+    private static final int MAX_STATES = 63;
+
+    private static final byte LITERAL = 0;
+    private static final byte NON_DOT = 1;
+    private static final byte ANY = 2;
+
+    private static final int STAR = -1;
+    private static final int DOUBLE_STAR = -2;
+    private static final int DOUBLE_STAR_DOT = -3;
+
+    private final String literal;
+    private final byte[] kinds;
+    private final char[] chars;
+    private final long[] follow;
+    private final long start;
+    private final long accept;
+
+    private GlobPathMatcher(String literal) {
+        this.literal = literal;
+        this.kinds = null;
+        this.chars = null;
+        this.follow = null;
+        this.start = 0;
+        this.accept = 0;
+    }
+
+    private GlobPathMatcher(byte[] kinds, char[] chars, boolean[] loops, int[] skips) {
+        int n = kinds.length;
+        this.literal = null;
+        this.kinds = kinds;
+        this.chars = chars;
+        this.follow = new long[n];
+        this.accept = 1L << n;
+        for (int i = 0; i < n; i++) {
+            follow[i] = (loops[i] ? 1L << i : 0L) | closure(i + 1, skips);
+        }
+        this.start = closure(0, skips);
+    }
+
+    /**
+     * Compiles a customization path.
+     *
+     * @param glob the path, possibly containing wildcards
+     * @return the compiled matcher, or null if the pattern is too large for this engine and should be
+     *         matched with a regular expression instead
+     */
+    static GlobPathMatcher compile(String glob) {
+        List<Integer> tokens = new ArrayList<Integer>();
+        tokenize(glob, tokens);
+        if (!tokens.contains(STAR) && !tokens.contains(DOUBLE_STAR) && !tokens.contains(DOUBLE_STAR_DOT)) {
+            return new GlobPathMatcher(glob);
+        }
+        int states = 0;
+        for (int token : tokens) {
+            states += token == DOUBLE_STAR_DOT ? 2 : 1;
+        }
+        if (states > MAX_STATES) {
+            return null;
+        }
+        byte[] kinds = new byte[states];
+        char[] chars = new char[states];
+        boolean[] loops = new boolean[states];
+        int[] skips = new int[states];
+        int i = 0;
+        for (int token : tokens) {
+            skips[i] = -1;
+            switch (token) {
+                case STAR:
+                    kinds[i] = NON_DOT;
+                    loops[i++] = true;
+                    break;
+                case DOUBLE_STAR:
+                    kinds[i] = ANY;
+                    loops[i++] = true;
+                    break;
+                case DOUBLE_STAR_DOT:
+                    // Optional group: one or more characters then a '.', which may be skipped entirely
+                    kinds[i] = ANY;
+                    loops[i] = true;
+                    skips[i] = i + 2;
+                    i++;
+                    skips[i] = -1;
+                    kinds[i] = LITERAL;
+                    chars[i++] = '.';
+                    break;
+                default:
+                    kinds[i] = LITERAL;
+                    chars[i++] = (char) token;
+            }
+        }
+        return new GlobPathMatcher(kinds, chars, loops, skips);
+    }
+
+    /**
+     * Returns whether the outcome of matching a path against {@code glob} can depend on the digits of an array
+     * index in that path, such as the {@code 3} in {@code items[3].price}. A pattern is index invariant when it
+     * contains no digits and never has two wildcards in a row, since then every index is consumed as a whole by
+     * a single wildcard, which accepts any non-empty run of digits.
+     *
+     * @param glob the path pattern
+     * @return true if paths differing only in their array indices may match differently
+     */
+    static boolean dependsOnArrayIndex(String glob) {
+        List<Integer> tokens = new ArrayList<Integer>();
+        tokenize(glob, tokens);
+        boolean previousWildcard = false;
+        for (int token : tokens) {
+            boolean wildcard = token < 0;
+            if ((wildcard && previousWildcard) || Character.isDigit(token)) {
+                return true;
+            }
+            previousWildcard = wildcard;
+        }
+        return false;
+    }
+
+    /**
+     * Returns whether {@code path} matches this pattern.
+     *
+     * @param path the JSON path to test
+     * @return true if the whole path matches
+     */
+    boolean matches(CharSequence path) {
+        if (literal != null) {
+            return literal.contentEquals(path);
+        }
+        long states = start;
+        for (int p = 0, len = path.length(); p < len; p++) {
+            char c = path.charAt(p);
+            long active = states & ~accept;
+            long next = 0L;
+            while (active != 0L) {
+                int i = Long.numberOfTrailingZeros(active);
+                active &= active - 1;
+                if (accepts(i, c)) {
+                    next |= follow[i];
+                }
+            }
+            if (next == 0L) {
+                return false;
+            }
+            states = next;
+        }
+        return (states & accept) != 0L;
+    }
+
+    private boolean accepts(int state, char c) {
+        switch (kinds[state]) {
+            case NON_DOT:
+                return c != '.';
+            case ANY:
+                return true;
+            default:
+                return chars[state] == c;
+        }
+    }
+
+    private long closure(int state, int[] skips) {
+        long states = 0L;
+        while (state < skips.length) {
+            states |= 1L << state;
+            if (skips[state] < 0) {
+                return states;
+            }
+            state = skips[state];
+        }
+        return states | accept;
+    }
+
+    // Splits the pattern the same way Customization.buildPattern does: first on "**.", then on "**", then on
+    // "*", so that both implementations agree on how ambiguous runs of '*' are read.
+    private static void tokenize(String glob, List<Integer> tokens) {
+        tokenize(glob, 0, tokens);
+    }
+
+    private static void tokenize(String s, int level, List<Integer> tokens) {
+        if (level == 3) {
+            for (int i = 0; i < s.length(); i++) {
+                tokens.add((int) s.charAt(i));
+            }
+            return;
+        }
+        String separator = level == 0 ? "**." : level == 1 ? "**" : "*";
+        int token = level == 0 ? DOUBLE_STAR_DOT : level == 1 ? DOUBLE_STAR : STAR;
+        int from = 0;
+        int at;
+        while ((at = s.indexOf(separator, from)) >= 0) {
+            tokenize(s.substring(from, at), level + 1, tokens);
+            tokens.add(token);
+            from = at + separator.length();
+        }
+        tokenize(s.substring(from), level + 1, tokens);
+    }
+}
@@ -0,0 +1,157 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+/**
+ * <p>A JSONassert value matcher that accepts any ISO-8601 date-time with an
+ * offset, in the form accepted by
+ * {@link java.time.format.DateTimeFormatter#ISO_OFFSET_DATE_TIME}, e.g.
+ * {@code 2013-12-31T23:59:59Z}, {@code 2013-12-31T23:59:59.123+01:00} or
+ * {@code 2013-12-31T23:59-05:00}. The year must have four digits, and the date
+ * must exist in the calendar. The expected value is ignored, so it can be any
+ * placeholder.</p>
+ * 
+ * <p>Validation is written by hand and allocates nothing for values that
+ * match, so this matcher is cheaper than an equivalent
+ * {@link RegularExpressionValueMatcher} or parsing with a
+ * {@link java.time.format.DateTimeFormatter} on every value.</p>
+ */
+public class IsoDateTimeValueMatcher implements ValueMatcher<Object>, CharSequenceValueMatcher {
+
+	private static final String EXPECTED = "ISO-8601 date-time with offset";
+
+	@Override
+	public boolean equal(Object actual, Object expected) {
+		if (!(actual instanceof CharSequence)) {
+			throw new ValueMatcherException("Value is not a date-time string", EXPECTED, String.valueOf(actual));
+		}
+		return equalCharSequence((CharSequence) actual, null);
+	}
+
+	@Override
+	public boolean equalCharSequence(CharSequence actual, CharSequence expected) {
+		if (!isValid(actual)) {
+			throw new ValueMatcherException("Value is not an ISO-8601 date-time", EXPECTED, actual.toString());
+		}
+		return true;
+	}
+
+	/**
+	 * Check whether a value is an ISO-8601 date-time with an offset.
+	 * 
+	 * @param s
+	 *            value to check
+	 * @return true if s is a valid date-time
+	 */
+	public static boolean isValid(CharSequence s) {
+		int length = s.length();
+		// yyyy-MM-ddTHH:mm is the shortest prefix, followed by at least "Z"
+		if (length < 17
+				|| s.charAt(4) != '-' || s.charAt(7) != '-' || (s.charAt(10) != 'T' && s.charAt(10) != 't')
+				|| s.charAt(13) != ':') {
+			return false;
+		}
+		int year = digits(s, 0, 4);
+		int month = digits(s, 5, 2);
+		int day = digits(s, 8, 2);
+		int hour = digits(s, 11, 2);
+		int minute = digits(s, 14, 2);
+		if (year < 0 || month < 1 || month > 12 || day < 1 || day > daysInMonth(year, month)
+				|| hour < 0 || hour > 23 || minute < 0 || minute > 59) {
+			return false;
+		}
+		int i = 16;
+		if (s.charAt(i) == ':') {
+			int second = digits(s, i + 1, 2);
+			if (second < 0 || second > 59) {
+				return false;
+			}
+			i += 3;
+			if (i < length && s.charAt(i) == '.') {
+				int fractionStart = ++i;
+				while (i < length && isDigit(s.charAt(i))) {
+					i++;
+				}
+				if (i == fractionStart || i - fractionStart > 9) {
+					return false;
+				}
+			}
+		}
+		return isOffset(s, i, length);
+	}
+
+	private static boolean isOffset(CharSequence s, int i, int length) {
+		if (i >= length) {
+			return false;
+		}
+		char c = s.charAt(i);
+		if (c == 'Z' || c == 'z') {
+			return i + 1 == length;
+		}
+		if (c != '+' && c != '-') {
+			return false;
+		}
+		// +HH, +HH:mm or +HH:mm:ss
+		int remaining = length - i - 1;
+		if (remaining != 2 && remaining != 5 && remaining != 8) {
+			return false;
+		}
+		int hours = digits(s, i + 1, 2);
+		if (hours < 0 || hours > 18) {
+			return false;
+		}
+		for (int field = i + 3; field < length; field += 3) {
+			int value = s.charAt(field) == ':' ? digits(s, field + 1, 2) : -1;
+			if (value < 0 || value > 59 || (hours == 18 && value != 0)) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	// Value of count decimal digits starting at start, or -1 if any is not a digit or missing
+	private static int digits(CharSequence s, int start, int count) {
+		if (start + count > s.length()) {
+			return -1;
+		}
+		int value = 0;
+		for (int i = start; i < start + count; i++) {
+			char c = s.charAt(i);
+			if (!isDigit(c)) {
+				return -1;
+			}
+			value = value * 10 + (c - '0');
+		}
+		return value;
+	}
+
+	private static boolean isDigit(char c) {
+		return c >= '0' && c <= '9';
+	}
+
+	private static int daysInMonth(int year, int month) {
+		switch (month) {
+		case 2:
+			return (year % 4 == 0 && (year % 100 != 0 || year % 400 == 0)) ? 29 : 28;
+		case 4:
+		case 6:
+		case 9:
+		case 11:
+			return 30;
+		default:
+			return 31;
+		}
+	}
+}
@@ -14,12 +14,23 @@
 
 package org.skyscreamer.jsonassert;
 
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONString;
 import org.skyscreamer.jsonassert.comparator.DefaultComparator;
 import org.skyscreamer.jsonassert.comparator.JSONComparator;
+import org.skyscreamer.jsonassert.jfr.ComparisonEvents;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetrics;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetricsRegistry;
+import org.skyscreamer.jsonassert.trace.ComparisonTracer;
 
 /**
  * Provides API to compare two JSON entities.  This is the backend to {@link JSONAssert}, but it can
@@ -46,8 +57,215 @@ public final class JSONCompare {
      */
     public static JSONCompareResult compareJSON(String expectedStr, String actualStr, JSONComparator comparator)
             throws JSONException {
-        Object expected = JSONParser.parseJSON(expectedStr);
-        Object actual = JSONParser.parseJSON(actualStr);
+        return compareParsed(JSONParser.parseJSON(expectedStr), JSONParser.parseJSON(actualStr), comparator);
+    }
+
+    /**
+     * Compares JSON string provided to the expected JSON string using provided comparator, and returns the results of
+     * the comparison. Strings of the form <code>${...}</code> in the expected JSON are compiled to
+     * {@link MatcherDirective}s and match the actual value at their node.
+     * @param expectedStr Expected JSON string, possibly containing directives
+     * @param actualStr JSON string to compare
+     * @param comparator Comparator to use
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IllegalArgumentException when a directive is invalid, or when type of expectedStr doesn't match the
+     * type of actualStr
+     */
+    public static JSONCompareResult compareJSONWithDirectives(String expectedStr, String actualStr,
+            JSONComparator comparator) throws JSONException {
+        return compareParsed(JSONParser.parseJSONWithDirectives(expectedStr), JSONParser.parseJSON(actualStr),
+                comparator);
+    }
+
+    /**
+     * Compares JSON string provided to the expected JSON string, and returns the results of the comparison. Strings
+     * of the form <code>${...}</code> in the expected JSON are compiled to {@link MatcherDirective}s and match the
+     * actual value at their node.
+     *
+     * @param expectedStr Expected JSON string, possibly containing directives
+     * @param actualStr   JSON string to compare
+     * @param mode        Defines comparison behavior
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IllegalArgumentException when a directive is invalid
+     */
+    public static JSONCompareResult compareJSONWithDirectives(String expectedStr, String actualStr,
+            JSONCompareMode mode) throws JSONException {
+        return compareJSONWithDirectives(expectedStr, actualStr, getComparatorForMode(mode));
+    }
+
+    /**
+     * Compares JSON string provided to the expected JSON string using provided comparator, passing each failure to
+     * {@code listener} as soon as it is found instead of collecting them. The returned result only tells whether the
+     * comparison passed; its message and failure lists are empty.
+     * @param expectedStr Expected JSON string
+     * @param actualStr JSON string to compare
+     * @param comparator Comparator to use
+     * @param listener Listener to pass failures to
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(String expectedStr, String actualStr, JSONComparator comparator,
+            ComparisonListener listener) throws JSONException {
+        JSONCompareResult result = new JSONCompareResult(listener);
+        compareParsed(JSONParser.parseJSON(expectedStr), JSONParser.parseJSON(actualStr), comparator, result);
+        return result;
+    }
+
+    /**
+     * Compares JSON string provided to the expected JSON string, passing each failure to {@code listener} as soon as
+     * it is found instead of collecting them. The returned result only tells whether the comparison passed.
+     *
+     * @param expectedStr Expected JSON string
+     * @param actualStr   JSON string to compare
+     * @param mode        Defines comparison behavior
+     * @param listener    Listener to pass failures to
+     * @return result of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static JSONCompareResult compareJSON(String expectedStr, String actualStr, JSONCompareMode mode,
+            ComparisonListener listener) throws JSONException {
+        return compareJSON(expectedStr, actualStr, getComparatorForMode(mode), listener);
+    }
+
+    /**
+     * Returns the differences between the JSON string provided and the expected JSON string, as found by the provided
+     * comparator, as a lazy iterator. The comparison runs only as far as needed to produce each difference asked
+     * for, on a separate daemon thread that stops once the iterator is exhausted or no longer referenced. Failures
+     * described only by a message, e.g. arrays of different lengths, have the message as their field and no expected
+     * or actual value. {@link FieldComparisonFailure#getKind()} tells the kinds of difference apart.
+     * @param expectedStr Expected JSON string
+     * @param actualStr JSON string to compare
+     * @param comparator Comparator to use
+     * @return iterator over the differences, in the order the comparator finds them
+     * @throws JSONException JSON parsing error
+     */
+    public static Iterator<FieldComparisonFailure> differenceIterator(String expectedStr, String actualStr,
+            JSONComparator comparator) throws JSONException {
+        return newDifferenceIterator(JSONParser.parseJSON(expectedStr), JSONParser.parseJSON(actualStr), comparator);
+    }
+
+    /**
+     * Returns the differences between the JSON string provided and the expected JSON string, as found by the provided
+     * comparator, as a lazy sequential stream. The comparison runs only as far as needed to produce the elements the
+     * stream consumes, so {@code findFirst()} or {@code limit(10)} stop it early. Closing the stream stops the
+     * comparison at once. See {@link #differenceIterator(String, String, JSONComparator)}.
+     * @param expectedStr Expected JSON string
+     * @param actualStr JSON string to compare
+     * @param comparator Comparator to use
+     * @return stream of the differences, in the order the comparator finds them
+     * @throws JSONException JSON parsing error
+     */
+    public static Stream<FieldComparisonFailure> differences(String expectedStr, String actualStr,
+            JSONComparator comparator) throws JSONException {
+        final DifferenceIterator iterator = newDifferenceIterator(JSONParser.parseJSON(expectedStr),
+                JSONParser.parseJSON(actualStr), comparator);
+        return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator,
+                Spliterator.ORDERED | Spliterator.NONNULL), false).onClose(new Runnable() {
+            @Override
+            public void run() {
+                iterator.close();
+            }
+        });
+    }
+
+    /**
+     * Returns the differences between the JSON string provided and the expected JSON string as a lazy sequential
+     * stream. See {@link #differences(String, String, JSONComparator)}.
+     * @param expectedStr Expected JSON string
+     * @param actualStr JSON string to compare
+     * @param mode Defines comparison behavior
+     * @return stream of the differences
+     * @throws JSONException JSON parsing error
+     */
+    public static Stream<FieldComparisonFailure> differences(String expectedStr, String actualStr,
+            JSONCompareMode mode) throws JSONException {
+        return differences(expectedStr, actualStr, getComparatorForMode(mode));
+    }
+
+    private static DifferenceIterator newDifferenceIterator(final Object expected, final Object actual,
+            final JSONComparator comparator) {
+        return new DifferenceIterator(new DifferenceIterator.Comparison() {
+            @Override
+            public void compare(JSONCompareResult result) {
+                compareParsed(expected, actual, comparator, result);
+            }
+        });
+    }
+
+    /**
+     * A single comparison, run by {@link #measure(JSONComparator, ParsedComparison)}.
+     */
+    private interface ParsedComparison {
+        JSONCompareResult compare() throws JSONException;
+    }
+
+    /**
+     * Runs a comparison inside the installed metrics, tracer span and flight recorder event.
+     */
+    private static JSONCompareResult measure(JSONComparator comparator, ParsedComparison comparison)
+            throws JSONException {
+        ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+        ComparisonTracer tracer = ComparisonTracer.installed();
+        Object event = ComparisonEvents.get().beginCompare();
+        ComparisonTracer.Span span = tracer == null ? null : tracer.begin("compare", "", -1);
+        long start = metrics == null ? 0L : System.nanoTime();
+        JSONCompareResult result;
+        try {
+            result = comparison.compare();
+        }
+        finally {
+            ComparisonTracer.end(span);
+        }
+        if (metrics != null) {
+            metrics.compared(result.passed(), System.nanoTime() - start);
+        }
+        ComparisonEvents.get().endCompare(event, comparator.getClass().getName(), result.passed());
+        return result;
+    }
+
+    private static void compareParsed(final Object expected, final Object actual, final JSONComparator comparator,
+            final JSONCompareResult result) throws JSONException {
+        measure(comparator, new ParsedComparison() {
+            @Override
+            public JSONCompareResult compare() throws JSONException {
+                compareParsedUnmeasured(expected, actual, comparator, result);
+                return result;
+            }
+        });
+    }
+
+    private static void compareParsedUnmeasured(Object expected, Object actual, JSONComparator comparator,
+            JSONCompareResult result) throws JSONException {
+        if ((expected instanceof JSONObject) && (actual instanceof JSONObject)) {
+            comparator.compareJSON("", (JSONObject) expected, (JSONObject) actual, result);
+        }
+        else if ((expected instanceof JSONArray) && (actual instanceof JSONArray)) {
+            comparator.compareJSONArray("", (JSONArray) expected, (JSONArray) actual, result);
+        }
+        else if (expected instanceof JSONString && actual instanceof JSONString) {
+            if (!((JSONString) expected).toJSONString().equals(((JSONString) actual).toJSONString())) {
+                result.fail("");
+            }
+        }
+        else {
+            result.fail("", expected, actual);
+        }
+    }
+
+    private static JSONCompareResult compareParsed(final Object expected, final Object actual,
+            final JSONComparator comparator) throws JSONException {
+        return measure(comparator, new ParsedComparison() {
+            @Override
+            public JSONCompareResult compare() throws JSONException {
+                return compareParsedUnmeasured(expected, actual, comparator);
+            }
+        });
+    }
+
+    private static JSONCompareResult compareParsedUnmeasured(Object expected, Object actual,
+            JSONComparator comparator) throws JSONException {
         if ((expected instanceof JSONObject) && (actual instanceof JSONObject)) {
             return compareJSON((JSONObject) expected, (JSONObject) actual, comparator);
         }
@@ -154,4 +372,38 @@ public final class JSONCompare {
         return compareJSON(expected, actual, getComparatorForMode(mode));
     }
 
+    /**
+     * Works out how comparing a document to {@code expectedStr} will run, without an actual document: which strategy
+     * each array will be compared with, which customization each value will be matched with and what each part is
+     * estimated to cost. See {@link ComparisonPlan}.
+     *
+     * @param expectedStr    Expected JSON string
+     * @param mode           Defines comparison behavior
+     * @param customizations Customizations of the {@link org.skyscreamer.jsonassert.comparator.CustomComparator} the
+     *                       comparison will use, if any
+     * @return the plan of the comparison
+     * @throws JSONException JSON parsing error
+     */
+    public static ComparisonPlan explain(String expectedStr, JSONCompareMode mode, Customization... customizations)
+            throws JSONException {
+        return ComparisonPlan.plan(JSONParser.parseJSON(expectedStr), mode, Arrays.asList(customizations));
+    }
+
+    /**
+     * Works out how {@link #compareJSONWithDirectives(String, String, JSONComparator)} with {@code expectedStr} will
+     * run, as {@link #explain(String, JSONCompareMode, Customization...)} does, with directives in
+     * {@code expectedStr} compiled first.
+     *
+     * @param expectedStr    Expected JSON string, which may contain directives
+     * @param mode           Defines comparison behavior
+     * @param customizations Customizations of the comparator the comparison will use, if any
+     * @return the plan of the comparison
+     * @throws JSONException JSON parsing error
+     * @throws IllegalArgumentException if a directive is unknown or its argument invalid
+     */
+    public static ComparisonPlan explainWithDirectives(String expectedStr, JSONCompareMode mode,
+            Customization... customizations) throws JSONException {
+        return ComparisonPlan.plan(JSONParser.parseJSONWithDirectives(expectedStr), mode,
+                Arrays.asList(customizations));
+    }
 }
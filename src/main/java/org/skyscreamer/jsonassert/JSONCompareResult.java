@@ -18,18 +18,33 @@ import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
 
-import org.json.JSONArray;
-import org.json.JSONObject;
-
 /**
- * Bean for holding results from JSONCompare.
+ * Bean for holding results from JSONCompare. By default failures are collected into lists and a message; a result
+ * created with {@link #JSONCompareResult(ComparisonListener)} streams them to a listener instead.
  */
 public class JSONCompareResult {
+    private static final ClassValue<Boolean> OVERRIDES_FAIL = new ClassValue<Boolean>() {
+        @Override
+        protected Boolean computeValue(Class<?> type) {
+            try {
+                return type.getMethod("fail", String.class).getDeclaringClass() != JSONCompareResult.class;
+            }
+            catch (NoSuchMethodException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+    };
+
+    private final ComparisonListener _listener;
+    // Whether a subclass overrides fail(String) and so expects to be told of every failure through it
+    private final boolean _echoesFailures;
+    private boolean _echoing;
     private boolean _success;
-    private StringBuilder _message;
-    private String _field;
-    private Object _expected;
-    private Object _actual;
+    private int _failureCount;
+    // Failures and messages in the order reported, rendered into the message each time it is asked for
+    private final List<Object> _messageParts = new ArrayList<Object>();
+    private final PathTree _paths = new PathTree();
+    private FieldComparisonFailure _lastFailure;
     private final List<FieldComparisonFailure> _fieldFailures = new ArrayList<FieldComparisonFailure>();
     private final List<FieldComparisonFailure> _fieldMissing = new ArrayList<FieldComparisonFailure>();
     private final List<FieldComparisonFailure> _fieldUnexpected = new ArrayList<FieldComparisonFailure>();
@@ -41,9 +56,21 @@ public class JSONCompareResult {
         this(true, null);
     }
 
-    private JSONCompareResult(boolean success, String message) {
+    /**
+     * Creates a result that passes each failure to {@code listener} as it is reported, instead of collecting it. Such
+     * a result only records whether the comparison passed: its message is empty and its failure lists stay empty,
+     * however many failures there are.
+     *
+     * @param listener the listener to pass failures to
+     */
+    public JSONCompareResult(ComparisonListener listener) {
+        this(true, listener);
+    }
+
+    private JSONCompareResult(boolean success, ComparisonListener listener) {
         _success = success;
-        _message = new StringBuilder(message == null ? "" : message);
+        _listener = listener == null ? new Recorder() : listener;
+        _echoesFailures = OVERRIDES_FAIL.get(getClass());
     }
 
     /**
@@ -62,12 +89,33 @@ public class JSONCompareResult {
         return !_success;
     }
 
+    /**
+     * Number of failures reported to this result, including failures passed on to a listener.
+     * @return the number of failures, missing and unexpected values and failure messages
+     */
+    public int getFailureCount() {
+        return _failureCount;
+    }
+
     /**
      * Result message
      * @return String explaining why if the comparison failed
      */
     public String getMessage() {
-        return _message.toString();
+        StringBuilder message = new StringBuilder();
+        for (Object part : _messageParts) {
+            if (message.length() > 0) {
+                message.append(" ; ");
+            }
+            if (part instanceof FieldComparisonFailure) {
+                FieldComparisonFailure failure = (FieldComparisonFailure) part;
+                FieldComparisonFailure.appendDescription(message, failure.getKind(), failure.getField(),
+                        failure.getExpected(), failure.getActual());
+            } else {
+                message.append(part);
+            }
+        }
+        return message.toString();
     }
 
     /**
@@ -104,7 +152,7 @@ public class JSONCompareResult {
      */
     @Deprecated
     public Object getActual() {
-        return _actual;
+        return _lastFailure == null ? null : _lastFailure.getActual();
     }
     
     /**
@@ -117,7 +165,7 @@ public class JSONCompareResult {
      */
     @Deprecated
     public Object getExpected() {
-        return _expected;
+        return _lastFailure == null ? null : _lastFailure.getExpected();
     }
     
     /**
@@ -153,16 +201,17 @@ public class JSONCompareResult {
      */
     @Deprecated
     public String getField() {
-        return _field;
+        return _lastFailure == null ? null : _lastFailure.getField();
     }
     
     public void fail(String message) {
         _success = false;
-        if (_message.length() == 0) {
-            _message.append(message);
-        } else {
-            _message.append(" ; ").append(message);
+        if (_echoing) {
+            // Already counted and reported by the fail, missing or unexpected call that passed it on
+            return;
         }
+        _failureCount++;
+        _listener.onMessage(message);
     }
 
     /**
@@ -173,11 +222,10 @@ public class JSONCompareResult {
      * @return result of comparision
      */
     public JSONCompareResult fail(String field, Object expected, Object actual) {
-        _fieldFailures.add(new FieldComparisonFailure(field, expected, actual));
-        this._field = field;
-        this._expected = expected;
-        this._actual = actual;
-        fail(formatFailureMessage(field, expected, actual));
+        _success = false;
+        _failureCount++;
+        _listener.onFailure(field, expected, actual);
+        echo(FieldComparisonFailure.Kind.FAILURE, field, expected, actual);
         return this;
     }
 
@@ -192,13 +240,103 @@ public class JSONCompareResult {
         return this;
     }
 
-    private String formatFailureMessage(String field, Object expected, Object actual) {
-        return field
-                + "\nExpected: "
-                + describe(expected)
-                + "\n     got: "
-                + describe(actual)
-                + "\n";
+    /**
+     * Reports every failure recorded in {@code other} to this result, in the order they were reported to
+     * {@code other}, as if they had been reported to this result directly after its own. If this result streams
+     * to a listener, the listener receives them. A streaming {@code other} has no recorded failures, so only its
+     * status is merged.
+     *
+     * @param other result to take failures from
+     * @return this result
+     */
+    public JSONCompareResult merge(JSONCompareResult other) {
+        other.report(new ComparisonListener() {
+            @Override
+            public void onFailure(String field, Object expected, Object actual) {
+                fail(field, expected, actual);
+            }
+
+            @Override
+            public void onMissing(String field, Object expected) {
+                missing(field, expected);
+            }
+
+            @Override
+            public void onUnexpected(String field, Object actual) {
+                unexpected(field, actual);
+            }
+
+            @Override
+            public void onMessage(String message) {
+                fail(message);
+            }
+        });
+        if (other.failed()) {
+            _success = false;
+        }
+        return this;
+    }
+
+    /**
+     * Passes every failure recorded in this result to {@code listener}, in the order they were reported. A
+     * streaming result has no recorded failures and reports nothing.
+     *
+     * @param listener the listener to report to
+     */
+    public void report(ComparisonListener listener) {
+        for (Object part : _messageParts) {
+            if (part instanceof FieldComparisonFailure) {
+                FieldComparisonFailure failure = (FieldComparisonFailure) part;
+                switch (failure.getKind()) {
+                case MISSING:
+                    listener.onMissing(failure.getField(), failure.getExpected());
+                    break;
+                case UNEXPECTED:
+                    listener.onUnexpected(failure.getField(), failure.getActual());
+                    break;
+                default:
+                    listener.onFailure(failure.getField(), failure.getExpected(), failure.getActual());
+                    break;
+                }
+            } else {
+                listener.onMessage((String) part);
+            }
+        }
+    }
+
+    /**
+     * Collects failures into the lists and message of this result.
+     */
+    private final class Recorder implements ComparisonListener {
+        @Override
+        public void onFailure(String field, Object expected, Object actual) {
+            FieldComparisonFailure failure = new FieldComparisonFailure(_paths.intern(field), expected, actual,
+                    FieldComparisonFailure.Kind.FAILURE);
+            _fieldFailures.add(failure);
+            _lastFailure = failure;
+            _messageParts.add(failure);
+        }
+
+        @Override
+        public void onMissing(String field, Object expected) {
+            FieldComparisonFailure failure = new FieldComparisonFailure(_paths.intern(field), expected, null,
+                    FieldComparisonFailure.Kind.MISSING);
+            _fieldMissing.add(failure);
+            _messageParts.add(failure);
+        }
+
+        @Override
+        public void onUnexpected(String field, Object actual) {
+            FieldComparisonFailure failure = new FieldComparisonFailure(_paths.intern(field), null, actual,
+                    FieldComparisonFailure.Kind.UNEXPECTED);
+            _fieldUnexpected.add(failure);
+            _messageParts.add(failure);
+        }
+
+        @Override
+        public void onMessage(String message) {
+            _messageParts.add(message);
+        }
     }
 
     /**
@@ -208,18 +346,13 @@ public class JSONCompareResult {
      * @return result of comparison
      */
     public JSONCompareResult missing(String field, Object expected) {
-    	_fieldMissing.add(new FieldComparisonFailure(field, expected, null));
-        fail(formatMissing(field, expected));
+        _success = false;
+        _failureCount++;
+        _listener.onMissing(field, expected);
+        echo(FieldComparisonFailure.Kind.MISSING, field, expected, null);
         return this;
     }
 
-    private String formatMissing(String field, Object expected) {
-        return field
-                + "\nExpected: "
-                + describe(expected)
-                + "\n     but none found\n";
-    }
-
     /**
      * Identify unexpected field
      * @param field unexpected field
@@ -227,30 +360,31 @@ public class JSONCompareResult {
      * @return result of comparison
      */
     public JSONCompareResult unexpected(String field, Object actual) {
-    	_fieldUnexpected.add(new FieldComparisonFailure(field, null, actual));
-        fail(formatUnexpected(field, actual));
+        _success = false;
+        _failureCount++;
+        _listener.onUnexpected(field, actual);
+        echo(FieldComparisonFailure.Kind.UNEXPECTED, field, null, actual);
         return this;
     }
 
-    private String formatUnexpected(String field, Object actual) {
-        return field
-                + "\nUnexpected: "
-                + describe(actual)
-                + "\n";
-    }
-
-    private static String describe(Object value) {
-        if (value instanceof JSONArray) {
-            return "a JSON array";
-        } else if (value instanceof JSONObject) {
-            return "a JSON object";
-        } else {
-            return value.toString();
+    /**
+     * Passes the description of a field failure to {@link #fail(String)} when a subclass overrides it, as every
+     * failure used to be.
+     */
+    private void echo(FieldComparisonFailure.Kind kind, String field, Object expected, Object actual) {
+        if (_echoesFailures && !_echoing) {
+            _echoing = true;
+            try {
+                fail(FieldComparisonFailure.describe(kind, field, expected, actual));
+            }
+            finally {
+                _echoing = false;
+            }
         }
     }
 
     @Override
     public String toString() {
-        return _message.toString();
+        return getMessage();
     }
 }
@@ -18,6 +18,10 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.json.JSONString;
+import org.skyscreamer.jsonassert.jfr.ComparisonEvents;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetrics;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetricsRegistry;
+import org.skyscreamer.jsonassert.trace.ComparisonTracer;
 
 /**
  * Simple JSON parsing utility.
@@ -39,6 +43,26 @@ public class JSONParser {
      * @throws JSONException JSON parsing error
      */
     public static Object parseJSON(final String s) throws JSONException {
+        ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+        ComparisonTracer tracer = ComparisonTracer.installed();
+        Object event = ComparisonEvents.get().beginParse();
+        ComparisonTracer.Span span = tracer == null ? null : tracer.begin("parse", null, s.length());
+        long start = metrics == null ? 0L : System.nanoTime();
+        Object parsed;
+        try {
+            parsed = parse(s);
+        }
+        finally {
+            ComparisonTracer.end(span);
+        }
+        if (metrics != null) {
+            metrics.parsed(s.length(), System.nanoTime() - start);
+        }
+        ComparisonEvents.get().endParse(event, s.length());
+        return parsed;
+    }
+
+    private static Object parse(final String s) throws JSONException {
         if (s.trim().startsWith("{")) {
             return new JSONObject(s);
         }
@@ -55,4 +79,18 @@ public class JSONParser {
         }
         throw new JSONException("Unparsable JSON string: " + s);
     }
+
+    /**
+     * Takes an expected JSON string and returns either a {@link org.json.JSONObject} or {@link org.json.JSONArray},
+     * as {@link #parseJSON(String)} does, with every directive string inside it compiled to a
+     * {@link MatcherDirective}.
+     *
+     * @param s Raw JSON string to be parsed
+     * @return JSONObject or JSONArray
+     * @throws JSONException JSON parsing error
+     * @throws IllegalArgumentException if a directive is unknown or its argument invalid
+     */
+    public static Object parseJSONWithDirectives(final String s) throws JSONException {
+        return MatcherDirective.compileDirectives(parseJSON(s));
+    }
 }
@@ -0,0 +1,739 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * <p>A regular expression engine that never backtracks. The pattern is compiled to a Thompson NFA which is
+ * simulated over the input one code point at a time, so matching takes time proportional to the length of the
+ * input multiplied by the size of the compiled pattern, whatever the pattern and input look like.</p>
+ *
+ * <p>The syntax is the subset of {@link java.util.regex.Pattern} that can be run this way: literals, escapes,
+ * {@code .}, character classes (including {@code \d \w \s} and their negations), groups, alternation and the
+ * greedy or reluctant quantifiers {@code * + ? {n} {n,} {n,m}}. {@code ^} and {@code $} are accepted at the
+ * start and end of the pattern, where they are redundant for a whole-input match. Backreferences, lookaround,
+ * boundary matchers, possessive quantifiers, atomic groups, inline flags, Unicode properties and nested or
+ * intersected classes are rejected with a {@link PatternSyntaxException}.</p>
+ */
+final class LinearPattern {
+    // Bounds the cost of a match: counted repetitions are expanded, so {n,m} can grow the program quickly
+    static final int MAX_INSTRUCTIONS = 10000;
+
+    private static final int CHAR = 0;
+    private static final int CLASS = 1;
+    private static final int ANY = 2;
+    private static final int SPLIT = 3;
+    private static final int JUMP = 4;
+    private static final int MATCH = 5;
+
+    private static final int MAX_CODE_POINT = Character.MAX_CODE_POINT;
+    private static final int[] DIGIT = { '0', '9' };
+    private static final int[] WORD = { '0', '9', 'A', 'Z', '_', '_', 'a', 'z' };
+    private static final int[] SPACE = { '\t', '\r', ' ', ' ' };
+
+    private final String regex;
+    private final int[] ops;
+    private final int[] args;
+    private final int[] alternatives;
+    private final int[][] classes;
+
+    private LinearPattern(String regex, Program program) {
+        this.regex = regex;
+        int n = program.size;
+        this.ops = Arrays.copyOf(program.ops, n);
+        this.args = Arrays.copyOf(program.args, n);
+        this.alternatives = Arrays.copyOf(program.alternatives, n);
+        this.classes = program.classes.toArray(new int[program.classes.size()][]);
+    }
+
+    /**
+     * Compiles a regular expression.
+     *
+     * @param regex the regular expression
+     * @return the compiled pattern
+     * @throws PatternSyntaxException if the expression is malformed or uses a construct this engine cannot run
+     *         in linear time
+     */
+    static LinearPattern compile(String regex) throws PatternSyntaxException {
+        Node node = new Parser(regex).parse();
+        Program program = new Program(regex);
+        node.emit(program);
+        program.emit(MATCH, 0, 0);
+        return new LinearPattern(regex, program);
+    }
+
+    @Override
+    public String toString() {
+        return regex;
+    }
+
+    /**
+     * Returns whether the whole of {@code input} matches this pattern, like {@link java.util.regex.Matcher#matches()}.
+     *
+     * @param input the text to match
+     * @return true if the pattern matches the entire input
+     */
+    boolean matches(CharSequence input) {
+        int n = ops.length;
+        int[] current = new int[n];
+        int[] next = new int[n];
+        int[] stack = new int[n];
+        int[] marks = new int[n];
+        int generation = 1;
+        int currentSize = addThread(current, 0, 0, stack, marks, generation);
+        for (int i = 0, len = input.length(); i < len; ) {
+            int c = Character.codePointAt(input, i);
+            i += Character.charCount(c);
+            generation++;
+            int nextSize = 0;
+            for (int t = 0; t < currentSize; t++) {
+                int pc = current[t];
+                if (consumes(pc, c)) {
+                    nextSize = addThread(next, nextSize, pc + 1, stack, marks, generation);
+                }
+            }
+            if (nextSize == 0) {
+                return false;
+            }
+            int[] swap = current;
+            current = next;
+            next = swap;
+            currentSize = nextSize;
+        }
+        for (int t = 0; t < currentSize; t++) {
+            if (ops[current[t]] == MATCH) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private boolean consumes(int pc, int c) {
+        switch (ops[pc]) {
+            case CHAR:
+                return args[pc] == c;
+            case ANY:
+                return !isLineTerminator(c);
+            case CLASS:
+                return inRanges(classes[args[pc]], c);
+            default:
+                return false;
+        }
+    }
+
+    // Follows jumps and splits from pc, adding every instruction that consumes input (or matches) to the list
+    private int addThread(int[] list, int size, int pc, int[] stack, int[] marks, int generation) {
+        int top = 0;
+        stack[top++] = pc;
+        while (top > 0) {
+            int at = stack[--top];
+            if (marks[at] == generation) {
+                continue;
+            }
+            marks[at] = generation;
+            switch (ops[at]) {
+                case JUMP:
+                    stack[top++] = args[at];
+                    break;
+                case SPLIT:
+                    stack[top++] = alternatives[at];
+                    stack[top++] = args[at];
+                    break;
+                default:
+                    list[size++] = at;
+            }
+        }
+        return size;
+    }
+
+    private static boolean isLineTerminator(int c) {
+        return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
+    }
+
+    private static boolean inRanges(int[] ranges, int c) {
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (c < ranges[i]) {
+                return false;
+            }
+            if (c <= ranges[i + 1]) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static final class Program {
+        private final String regex;
+        private int[] ops = new int[16];
+        private int[] args = new int[16];
+        private int[] alternatives = new int[16];
+        private final List<int[]> classes = new ArrayList<int[]>();
+        private int size;
+
+        Program(String regex) {
+            this.regex = regex;
+        }
+
+        int emit(int op, int arg, int alternative) {
+            if (size == MAX_INSTRUCTIONS) {
+                throw new PatternSyntaxException("Pattern too large for the linear-time engine (more than "
+                        + MAX_INSTRUCTIONS + " instructions once repetitions are expanded)", regex, -1);
+            }
+            if (size == ops.length) {
+                ops = Arrays.copyOf(ops, size * 2);
+                args = Arrays.copyOf(args, size * 2);
+                alternatives = Arrays.copyOf(alternatives, size * 2);
+            }
+            ops[size] = op;
+            args[size] = arg;
+            alternatives[size] = alternative;
+            return size++;
+        }
+
+        int emitClass(int[] ranges) {
+            classes.add(ranges);
+            return emit(CLASS, classes.size() - 1, 0);
+        }
+
+        void patch(int pc, int arg, int alternative) {
+            args[pc] = arg;
+            alternatives[pc] = alternative;
+        }
+    }
+
+    private abstract static class Node {
+        abstract void emit(Program program);
+    }
+
+    private static final class Literal extends Node {
+        private final int codePoint;
+
+        Literal(int codePoint) {
+            this.codePoint = codePoint;
+        }
+
+        @Override
+        void emit(Program program) {
+            program.emit(CHAR, codePoint, 0);
+        }
+    }
+
+    private static final class CharClass extends Node {
+        private final int[] ranges;
+
+        CharClass(int[] ranges) {
+            this.ranges = ranges;
+        }
+
+        @Override
+        void emit(Program program) {
+            program.emitClass(ranges);
+        }
+    }
+
+    private static final class AnyChar extends Node {
+        @Override
+        void emit(Program program) {
+            program.emit(ANY, 0, 0);
+        }
+    }
+
+    private static final class Concat extends Node {
+        private final List<Node> nodes;
+
+        Concat(List<Node> nodes) {
+            this.nodes = nodes;
+        }
+
+        @Override
+        void emit(Program program) {
+            for (Node node : nodes) {
+                node.emit(program);
+            }
+        }
+    }
+
+    private static final class Alternation extends Node {
+        private final List<Node> choices;
+
+        Alternation(List<Node> choices) {
+            this.choices = choices;
+        }
+
+        @Override
+        void emit(Program program) {
+            List<Integer> jumps = new ArrayList<Integer>();
+            for (int i = 0; i < choices.size() - 1; i++) {
+                int split = program.emit(SPLIT, 0, 0);
+                choices.get(i).emit(program);
+                jumps.add(program.emit(JUMP, 0, 0));
+                program.patch(split, split + 1, program.size);
+            }
+            choices.get(choices.size() - 1).emit(program);
+            for (int jump : jumps) {
+                program.patch(jump, program.size, 0);
+            }
+        }
+    }
+
+    private static final class Repetition extends Node {
+        private final Node node;
+        private final int min;
+        private final int max;
+
+        // max < 0 means unbounded
+        Repetition(Node node, int min, int max) {
+            this.node = node;
+            this.min = min;
+            this.max = max;
+        }
+
+        @Override
+        void emit(Program program) {
+            for (int i = 0; i < min; i++) {
+                node.emit(program);
+            }
+            if (max < 0) {
+                int split = program.emit(SPLIT, 0, 0);
+                node.emit(program);
+                program.emit(JUMP, split, 0);
+                program.patch(split, split + 1, program.size);
+                return;
+            }
+            List<Integer> splits = new ArrayList<Integer>();
+            for (int i = min; i < max; i++) {
+                splits.add(program.emit(SPLIT, 0, 0));
+                node.emit(program);
+            }
+            for (int split : splits) {
+                program.patch(split, split + 1, program.size);
+            }
+        }
+    }
+
+    private static final class Parser {
+        private final String regex;
+        private int pos;
+
+        Parser(String regex) {
+            this.regex = regex;
+        }
+
+        Node parse() {
+            Node node = parseAlternation();
+            if (pos < regex.length()) {
+                throw error("Unmatched closing ')'", pos);
+            }
+            return node;
+        }
+
+        private Node parseAlternation() {
+            List<Node> choices = new ArrayList<Node>();
+            choices.add(parseConcat());
+            while (pos < regex.length() && regex.charAt(pos) == '|') {
+                pos++;
+                choices.add(parseConcat());
+            }
+            return choices.size() == 1 ? choices.get(0) : new Alternation(choices);
+        }
+
+        private Node parseConcat() {
+            List<Node> nodes = new ArrayList<Node>();
+            while (pos < regex.length() && regex.charAt(pos) != '|' && regex.charAt(pos) != ')') {
+                nodes.add(parseQuantified());
+            }
+            return new Concat(nodes);
+        }
+
+        private Node parseQuantified() {
+            Node atom = parseAtom();
+            if (pos >= regex.length()) {
+                return atom;
+            }
+            int min;
+            int max;
+            char c = regex.charAt(pos);
+            if (c == '*') {
+                min = 0;
+                max = -1;
+                pos++;
+            } else if (c == '+') {
+                min = 1;
+                max = -1;
+                pos++;
+            } else if (c == '?') {
+                min = 0;
+                max = 1;
+                pos++;
+            } else if (c == '{') {
+                int open = pos++;
+                min = parseNumber(open);
+                max = min;
+                if (pos < regex.length() && regex.charAt(pos) == ',') {
+                    pos++;
+                    max = pos < regex.length() && regex.charAt(pos) == '}' ? -1 : parseNumber(open);
+                }
+                if (pos >= regex.length() || regex.charAt(pos) != '}') {
+                    throw error("Unclosed counted closure", open);
+                }
+                pos++;
+                if (max >= 0 && max < min) {
+                    throw error("Illegal repetition range", open);
+                }
+            } else {
+                return atom;
+            }
+            if (pos < regex.length() && regex.charAt(pos) == '+') {
+                throw unsupported("possessive quantifiers", pos);
+            }
+            if (pos < regex.length() && regex.charAt(pos) == '?') {
+                // Reluctant quantifiers accept the same inputs as greedy ones when the whole input must match
+                pos++;
+            }
+            return new Repetition(atom, min, max);
+        }
+
+        private int parseNumber(int open) {
+            int start = pos;
+            while (pos < regex.length() && Character.isDigit(regex.charAt(pos))) {
+                pos++;
+            }
+            if (start == pos || pos - start > 6) {
+                throw error("Illegal repetition", open);
+            }
+            return Integer.parseInt(regex.substring(start, pos));
+        }
+
+        private Node parseAtom() {
+            int start = pos;
+            char c = regex.charAt(pos++);
+            switch (c) {
+                case '(':
+                    return parseGroup(start);
+                case '[':
+                    return new CharClass(parseClass(start));
+                case '.':
+                    return new AnyChar();
+                case '^':
+                    if (start != 0) {
+                        throw unsupported("'^' other than at the start of the pattern", start);
+                    }
+                    return new Concat(new ArrayList<Node>());
+                case '$':
+                    if (pos != regex.length()) {
+                        throw unsupported("'$' other than at the end of the pattern", start);
+                    }
+                    return new Concat(new ArrayList<Node>());
+                case '\\':
+                    return parseEscape(start);
+                case '*':
+                case '+':
+                case '?':
+                    throw error("Dangling meta character '" + c + "'", start);
+                case '{':
+                    throw error("Illegal repetition", start);
+                default:
+                    pos = start;
+                    int codePoint = regex.codePointAt(pos);
+                    pos += Character.charCount(codePoint);
+                    return new Literal(codePoint);
+            }
+        }
+
+        private Node parseGroup(int start) {
+            if (regex.startsWith("?", pos)) {
+                if (regex.startsWith("?:", pos)) {
+                    pos += 2;
+                } else if (regex.startsWith("?<", pos) && pos + 2 < regex.length()
+                        && Character.isLetter(regex.charAt(pos + 2))) {
+                    int close = regex.indexOf('>', pos);
+                    if (close < 0) {
+                        throw error("Named capturing group is missing trailing '>'", start);
+                    }
+                    pos = close + 1;
+                } else if (regex.startsWith("?=", pos) || regex.startsWith("?!", pos)
+                        || regex.startsWith("?<=", pos) || regex.startsWith("?<!", pos)) {
+                    throw unsupported("lookaround", start);
+                } else if (regex.startsWith("?>", pos)) {
+                    throw unsupported("atomic groups", start);
+                } else {
+                    throw unsupported("inline flags", start);
+                }
+            }
+            Node node = parseAlternation();
+            if (pos >= regex.length() || regex.charAt(pos) != ')') {
+                throw error("Unclosed group", start);
+            }
+            pos++;
+            return node;
+        }
+
+        private Node parseEscape(int start) {
+            if (pos >= regex.length()) {
+                throw error("Unexpected internal error", start);
+            }
+            char c = regex.charAt(pos);
+            if (c == 'Q') {
+                int end = regex.indexOf("\\E", pos + 1);
+                String quoted = regex.substring(pos + 1, end < 0 ? regex.length() : end);
+                pos = end < 0 ? regex.length() : end + 2;
+                List<Node> nodes = new ArrayList<Node>();
+                for (int i = 0; i < quoted.length(); ) {
+                    int codePoint = quoted.codePointAt(i);
+                    nodes.add(new Literal(codePoint));
+                    i += Character.charCount(codePoint);
+                }
+                return new Concat(nodes);
+            }
+            int[] ranges = parseClassEscape();
+            if (ranges != null) {
+                return new CharClass(ranges);
+            }
+            return new Literal(parseCharEscape(start));
+        }
+
+        // Returns the ranges of \d, \w, \s or their negations, or null if the escape is not one of those
+        private int[] parseClassEscape() {
+            int[] ranges;
+            switch (regex.charAt(pos)) {
+                case 'd':
+                case 'D':
+                    ranges = DIGIT;
+                    break;
+                case 'w':
+                case 'W':
+                    ranges = WORD;
+                    break;
+                case 's':
+                case 'S':
+                    ranges = SPACE;
+                    break;
+                default:
+                    return null;
+            }
+            boolean negated = Character.isUpperCase(regex.charAt(pos++));
+            return negated ? complement(ranges) : ranges;
+        }
+
+        private int parseCharEscape(int start) {
+            char c = regex.charAt(pos++);
+            switch (c) {
+                case 't':
+                    return '\t';
+                case 'n':
+                    return '\n';
+                case 'r':
+                    return '\r';
+                case 'f':
+                    return '\f';
+                case 'a':
+                    return '\u0007';
+                case 'e':
+                    return '\u001B';
+                case 'x':
+                    if (regex.startsWith("{", pos)) {
+                        int close = regex.indexOf('}', pos);
+                        if (close < 0) {
+                            throw error("Unclosed hexadecimal escape sequence", start);
+                        }
+                        int value = parseHex(pos + 1, close, start);
+                        pos = close + 1;
+                        return value;
+                    }
+                    pos += 2;
+                    return parseHex(pos - 2, pos, start);
+                case 'u':
+                    pos += 4;
+                    return parseHex(pos - 4, pos, start);
+                case '0':
+                    int octalStart = pos;
+                    while (pos < regex.length() && pos - octalStart < 3 && regex.charAt(pos) >= '0'
+                            && regex.charAt(pos) <= '7') {
+                        pos++;
+                    }
+                    if (pos == octalStart) {
+                        throw error("Illegal octal escape sequence", start);
+                    }
+                    return Integer.parseInt(regex.substring(octalStart, pos), 8);
+                case 'b':
+                case 'B':
+                case 'A':
+                case 'G':
+                case 'z':
+                case 'Z':
+                    throw unsupported("boundary matcher \\" + c, start);
+                case 'p':
+                case 'P':
+                    throw unsupported("Unicode property classes", start);
+                case 'k':
+                    throw unsupported("backreferences", start);
+                default:
+                    if (c >= '1' && c <= '9') {
+                        throw unsupported("backreferences", start);
+                    }
+                    if (Character.isLetterOrDigit(c)) {
+                        throw unsupported("escape sequence \\" + c, start);
+                    }
+                    return c;
+            }
+        }
+
+        private int parseHex(int from, int to, int start) {
+            if (to > regex.length() || from >= to) {
+                throw error("Illegal hexadecimal escape sequence", start);
+            }
+            try {
+                int value = Integer.parseInt(regex.substring(from, to), 16);
+                if (value > MAX_CODE_POINT) {
+                    throw error("Hexadecimal codepoint is too big", start);
+                }
+                return value;
+            } catch (NumberFormatException e) {
+                throw error("Illegal hexadecimal escape sequence", start);
+            }
+        }
+
+        private int[] parseClass(int start) {
+            boolean negated = regex.startsWith("^", pos);
+            if (negated) {
+                pos++;
+            }
+            List<int[]> parts = new ArrayList<int[]>();
+            boolean first = true;
+            while (true) {
+                if (pos >= regex.length()) {
+                    throw error("Unclosed character class", start);
+                }
+                char c = regex.charAt(pos);
+                if (c == ']' && !first) {
+                    pos++;
+                    break;
+                }
+                first = false;
+                if (c == '[') {
+                    throw unsupported("nested character classes", pos);
+                }
+                if (c == '&' && regex.startsWith("&&", pos)) {
+                    throw unsupported("character class intersections", pos);
+                }
+                int low;
+                if (c == '\\') {
+                    int escape = pos++;
+                    if (pos >= regex.length()) {
+                        throw error("Unclosed character class", start);
+                    }
+                    int[] ranges = parseClassEscape();
+                    if (ranges != null) {
+                        parts.add(ranges);
+                        continue;
+                    }
+                    if (regex.charAt(pos) == 'Q') {
+                        throw unsupported("\\Q inside character classes", escape);
+                    }
+                    low = parseCharEscape(escape);
+                } else {
+                    low = regex.codePointAt(pos);
+                    pos += Character.charCount(low);
+                }
+                int high = low;
+                if (regex.startsWith("-", pos) && pos + 1 < regex.length() && regex.charAt(pos + 1) != ']') {
+                    int dash = pos++;
+                    char h = regex.charAt(pos);
+                    if (h == '[') {
+                        throw unsupported("nested character classes", pos);
+                    }
+                    if (h == '\\') {
+                        int escape = pos++;
+                        if (pos < regex.length() && parseClassEscapePeek()) {
+                            throw error("Illegal character range", dash);
+                        }
+                        high = parseCharEscape(escape);
+                    } else {
+                        high = regex.codePointAt(pos);
+                        pos += Character.charCount(high);
+                    }
+                    if (high < low) {
+                        throw error("Illegal character range", dash);
+                    }
+                }
+                parts.add(new int[] { low, high });
+            }
+            int[] ranges = union(parts);
+            return negated ? complement(ranges) : ranges;
+        }
+
+        private boolean parseClassEscapePeek() {
+            return "dDwWsS".indexOf(regex.charAt(pos)) >= 0;
+        }
+
+        private PatternSyntaxException error(String description, int index) {
+            return new PatternSyntaxException(description, regex, index);
+        }
+
+        private PatternSyntaxException unsupported(String construct, int index) {
+            return new PatternSyntaxException("Not supported by the linear-time engine: " + construct, regex, index);
+        }
+    }
+
+    private static int[] union(List<int[]> parts) {
+        List<int[]> ranges = new ArrayList<int[]>();
+        for (int[] part : parts) {
+            for (int i = 0; i < part.length; i += 2) {
+                ranges.add(new int[] { part[i], part[i + 1] });
+            }
+        }
+        Collections.sort(ranges, new Comparator<int[]>() {
+            @Override
+            public int compare(int[] a, int[] b) {
+                return a[0] < b[0] ? -1 : a[0] == b[0] ? 0 : 1;
+            }
+        });
+        int[] merged = new int[ranges.size() * 2];
+        int n = 0;
+        for (int[] range : ranges) {
+            if (n > 0 && range[0] <= merged[n - 1] + 1) {
+                merged[n - 1] = Math.max(merged[n - 1], range[1]);
+            } else {
+                merged[n++] = range[0];
+                merged[n++] = range[1];
+            }
+        }
+        return Arrays.copyOf(merged, n);
+    }
+
+    private static int[] complement(int[] ranges) {
+        int[] result = new int[ranges.length + 2];
+        int n = 0;
+        int next = 0;
+        for (int i = 0; i < ranges.length; i += 2) {
+            if (ranges[i] > next) {
+                result[n++] = next;
+                result[n++] = ranges[i] - 1;
+            }
+            next = ranges[i + 1] + 1;
+        }
+        if (next <= MAX_CODE_POINT) {
+            result[n++] = next;
+            result[n++] = MAX_CODE_POINT;
+        }
+        return Arrays.copyOf(result, n);
+    }
+}
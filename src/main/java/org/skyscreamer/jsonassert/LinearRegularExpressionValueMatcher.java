@@ -0,0 +1,132 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * <p>A JSONassert value matcher that matches actual value to regular expression,
+ * like {@link RegularExpressionValueMatcher}, but using an engine that never
+ * backtracks. Matching a value takes time proportional to the length of the
+ * value times the size of the pattern, so a badly written expected pattern
+ * cannot stall a comparison on long actual strings.</p>
+ *
+ * <p>Only the subset of {@link java.util.regex.Pattern} syntax that can be run
+ * in linear time is accepted: literals, escapes, '.', character classes,
+ * groups, alternation and quantifiers. Patterns using backreferences,
+ * lookaround, boundary matchers, possessive quantifiers, atomic groups, inline
+ * flags or Unicode properties are rejected, by the constructor for a constant
+ * pattern and with a {@link ValueMatcherException} for a dynamic one.</p>
+ *
+ * <p>If non-null regular expression passed to constructor, then all actual
+ * values will be compared against this constant pattern, ignoring any expected
+ * value passed to equal method. If null regular expression passed to
+ * constructor, then expected value passed to equals method will be used to
+ * dynamically specify regular expression pattern that actual value must
+ * match.</p>
+ */
+public class LinearRegularExpressionValueMatcher<T> implements ValueMatcher<T>, CharSequenceValueMatcher {
+
+	private final LinearPattern expectedPattern;
+	private final PatternCache patternCache;
+
+	/**
+	 * Create LinearRegularExpressionValueMatcher in which the pattern the
+	 * actual value must match with be specified dynamically from the expected
+	 * string passed to this matcher in the equals method. Compiled patterns
+	 * are kept in the {@link PatternCache#shared() shared} pattern cache.
+	 */
+	public LinearRegularExpressionValueMatcher() {
+		this(null);
+	}
+
+	/**
+	 * Create LinearRegularExpressionValueMatcher with specified pattern. If
+	 * pattern is not null, it must be a valid regular expression that defines
+	 * a constant expected pattern that every actual value must match (in this
+	 * case the expected value passed to equal method will be ignored). If
+	 * pattern is null, the pattern the actual value must match with be
+	 * specified dynamically from the expected string passed to this matcher in
+	 * the equals method.
+	 *
+	 * @param pattern
+	 *            if non null, regular expression pattern which all actual
+	 *            values this matcher is applied to must match. If null, this
+	 *            matcher will apply pattern specified dynamically via the
+	 *            expected parameter to the equal method.
+	 * @throws IllegalArgumentException
+	 *             if pattern is non-null and either not a valid regular
+	 *             expression or not supported by the linear-time engine.
+	 */
+	public LinearRegularExpressionValueMatcher(String pattern) throws IllegalArgumentException {
+		this(pattern, PatternCache.shared());
+	}
+
+	/**
+	 * Create LinearRegularExpressionValueMatcher with specified pattern, as
+	 * {@link #LinearRegularExpressionValueMatcher(String)} does, keeping
+	 * dynamically specified patterns in the specified cache so that patterns
+	 * that repeat are only compiled once.
+	 *
+	 * @param pattern
+	 *            if non null, regular expression pattern which all actual
+	 *            values this matcher is applied to must match. If null, this
+	 *            matcher will apply pattern specified dynamically via the
+	 *            expected parameter to the equal method.
+	 * @param patternCache
+	 *            cache of compiled dynamic patterns
+	 * @throws IllegalArgumentException
+	 *             if pattern is non-null and either not a valid regular
+	 *             expression or not supported by the linear-time engine.
+	 */
+	public LinearRegularExpressionValueMatcher(String pattern, PatternCache patternCache) throws IllegalArgumentException {
+		assert patternCache != null : "patternCache null";
+		try {
+			expectedPattern = pattern == null ? null : LinearPattern.compile(pattern);
+		}
+		catch (PatternSyntaxException e) {
+			throw new IllegalArgumentException("Constant expected pattern invalid: " + e.getMessage(), e);
+		}
+		this.patternCache = patternCache;
+	}
+
+	@Override
+	public boolean equal(T actual, T expected) {
+		return equalCharSequence(actual.toString(), expected.toString());
+	}
+
+	@Override
+	public boolean equalCharSequence(CharSequence actual, CharSequence expected) {
+		try {
+			LinearPattern pattern = isStaticPattern() ? expectedPattern : patternCache
+					.compileLinear(expected.toString());
+			if (!pattern.matches(actual)) {
+				throw new ValueMatcherException(getPatternType() + " expected pattern did not match value", pattern.toString(), actual.toString());
+			}
+		}
+		catch (PatternSyntaxException e) {
+			throw new ValueMatcherException(getPatternType() + " expected pattern invalid: " + e.getMessage(), e, expected.toString(), actual.toString());
+		}
+		return true;
+	}
+
+	private boolean isStaticPattern() {
+		return expectedPattern != null;
+	}
+
+	private String getPatternType() {
+		return isStaticPattern()? "Constant": "Dynamic";
+	}
+}
@@ -0,0 +1,218 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.json.JSONString;
+
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.getKeys;
+
+/**
+ * A matcher written inline in an expected JSON document as a string of the form {@code "${name}"} or
+ * {@code "${name:argument}"}. Directives are recognised once, when the expected document is parsed with
+ * {@link JSONParser#parseJSONWithDirectives(String)}, and each one replaces the string node it was written in.
+ * Comparators then match the actual value found at that node against the directive directly, with no path lookup.
+ *
+ * <p>The following directives are supported:</p>
+ * <ul>
+ * <li>{@code ${any}}: any value, including null</li>
+ * <li>{@code ${regex:PATTERN}}: a value whose string form matches the regular expression PATTERN</li>
+ * <li>{@code ${number}}: any number</li>
+ * <li>{@code ${number:VALUE}}: a number equal to VALUE</li>
+ * <li>{@code ${number:VALUE~TOLERANCE}}: a number within TOLERANCE of VALUE</li>
+ * <li>{@code ${uuid}} or {@code ${uuid:VERSION}}: a UUID string, optionally of the given version</li>
+ * <li>{@code ${timestamp}}: an ISO-8601 date-time string with an offset</li>
+ * </ul>
+ *
+ * <p>A string that should be compared literally but starts with {@code ${} can be written with the dollar sign
+ * doubled, e.g. {@code "$${literal}"} expects the value {@code "${literal}"}.</p>
+ */
+public final class MatcherDirective implements JSONString {
+    private static final String PREFIX = "${";
+    private static final String SUFFIX = "}";
+    private static final String ESCAPED_PREFIX = "$" + PREFIX;
+
+    private static final ValueMatcher<Object> ANY = new ValueMatcher<Object>() {
+        @Override
+        public boolean equal(Object actual, Object expected) {
+            return true;
+        }
+    };
+
+    private static final ValueMatcher<Object> ANY_NUMBER = new ValueMatcher<Object>() {
+        @Override
+        public boolean equal(Object actual, Object expected) {
+            return actual instanceof Number;
+        }
+    };
+
+    private final String source;
+    private final ValueMatcher<Object> matcher;
+    private final Object expected;
+
+    private MatcherDirective(String source, ValueMatcher<Object> matcher, Object expected) {
+        this.source = source;
+        this.matcher = matcher;
+        this.expected = expected;
+    }
+
+    /**
+     * Whether {@code s} is written as a directive, i.e. starts with <code>${</code> and ends with <code>}</code>.
+     *
+     * @param s the string to inspect
+     * @return true if s is a directive
+     */
+    public static boolean isDirective(String s) {
+        return s.startsWith(PREFIX) && s.endsWith(SUFFIX) && s.length() >= PREFIX.length() + SUFFIX.length();
+    }
+
+    /**
+     * Compiles a single directive.
+     *
+     * @param directive the directive, e.g. <code>${regex:^[0-9]+$}</code>
+     * @return the compiled directive
+     * @throws IllegalArgumentException if the directive is unknown or its argument invalid
+     */
+    public static MatcherDirective compile(String directive) throws IllegalArgumentException {
+        if (!isDirective(directive)) {
+            throw new IllegalArgumentException("Not a directive: " + directive);
+        }
+        String body = directive.substring(PREFIX.length(), directive.length() - SUFFIX.length());
+        int colon = body.indexOf(':');
+        String name = colon < 0 ? body : body.substring(0, colon);
+        String argument = colon < 0 ? null : body.substring(colon + 1);
+        try {
+            if (name.equals("any") && argument == null) {
+                return new MatcherDirective(directive, ANY, null);
+            }
+            if (name.equals("regex") && argument != null) {
+                return new MatcherDirective(directive, new RegularExpressionValueMatcher<Object>(argument), argument);
+            }
+            if (name.equals("number")) {
+                if (argument == null) {
+                    return new MatcherDirective(directive, ANY_NUMBER, null);
+                }
+                int tilde = argument.indexOf('~');
+                double value = Double.parseDouble(tilde < 0 ? argument : argument.substring(0, tilde));
+                double tolerance = tilde < 0 ? 0 : Double.parseDouble(argument.substring(tilde + 1));
+                return new MatcherDirective(directive, ToleranceValueMatcher.absolute(tolerance), value);
+            }
+            if (name.equals("uuid")) {
+                return new MatcherDirective(directive,
+                        argument == null ? new UuidValueMatcher() : new UuidValueMatcher(Integer.parseInt(argument)),
+                        null);
+            }
+            if (name.equals("timestamp") && argument == null) {
+                return new MatcherDirective(directive, new IsoDateTimeValueMatcher(), null);
+            }
+        }
+        catch (IllegalArgumentException e) {
+            throw new IllegalArgumentException("Invalid argument in directive " + directive + ": " + e.getMessage(), e);
+        }
+        throw new IllegalArgumentException("Unknown directive: " + directive);
+    }
+
+    /**
+     * Replaces every directive string in an expected JSON document by its compiled {@link MatcherDirective}, and
+     * unescapes strings written with a doubled dollar sign. Objects and arrays are updated in place.
+     *
+     * @param expected a JSONObject, JSONArray or single value
+     * @return expected, or its compiled replacement if it is itself a directive string
+     * @throws JSONException JSON parsing error
+     * @throws IllegalArgumentException if a directive is unknown or its argument invalid
+     */
+    public static Object compileDirectives(Object expected) throws JSONException {
+        if (expected instanceof JSONObject) {
+            JSONObject object = (JSONObject) expected;
+            for (String key : getKeys(object)) {
+                Object value = object.get(key);
+                Object compiled = compileDirectives(value);
+                if (compiled != value) {
+                    object.put(key, compiled);
+                }
+            }
+        } else if (expected instanceof JSONArray) {
+            JSONArray array = (JSONArray) expected;
+            for (int i = 0; i < array.length(); ++i) {
+                Object value = array.get(i);
+                Object compiled = compileDirectives(value);
+                if (compiled != value) {
+                    array.put(i, compiled);
+                }
+            }
+        } else if (expected instanceof String) {
+            String s = (String) expected;
+            if (s.startsWith(ESCAPED_PREFIX)) {
+                return s.substring(1);
+            }
+            if (isDirective(s)) {
+                return compile(s);
+            }
+        }
+        return expected;
+    }
+
+    /**
+     * Whether {@code actual} satisfies this directive.
+     *
+     * @param actual the actual JSON value
+     * @return true if actual matches
+     */
+    public boolean matches(Object actual) {
+        try {
+            return matcher.equal(actual, expected);
+        }
+        catch (ValueMatcherException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Matches {@code actual} against this directive, passing any failure to {@code result}.
+     *
+     * @param prefix the path of the value
+     * @param actual the actual JSON value
+     * @param result the result to report a mismatch to
+     */
+    public void compare(String prefix, Object actual, JSONCompareResult result) {
+        try {
+            if (!matcher.equal(actual, expected)) {
+                result.fail(prefix, this, actual);
+            }
+        }
+        catch (ValueMatcherException e) {
+            result.fail(prefix, e);
+        }
+    }
+
+    /**
+     * @return the directive as written in the expected document
+     */
+    public String getSource() {
+        return source;
+    }
+
+    @Override
+    public String toJSONString() {
+        return JSONObject.quote(source);
+    }
+
+    @Override
+    public String toString() {
+        return source;
+    }
+}
@@ -0,0 +1,231 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+
+package org.skyscreamer.jsonassert;
+
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * The paths of recorded failures, stored as one node per path segment that points to the node of its parent path. A
+ * path is cut before each {@code .} and {@code [}, so {@code items[3].price} is stored as the segments {@code items},
+ * {@code [3]} and {@code .price}. Paths share the nodes of every prefix already stored, whatever order they arrive in:
+ * nodes that have children are kept in a hash table keyed by their parent and segment, and the last path stored is
+ * remembered so that a repeated path gets the same node. Named segments share one string; array indices are kept as
+ * ints. Rendering a node concatenates the segments from the root and always gives back the original path. Not
+ * thread-safe.
+ */
+final class PathTree {
+    private final Node root = new NamedNode(null, 0, "");
+    private final Map<String, String> names = new HashMap<String, String>();
+    // Nodes with children, by open addressing on their hash
+    private Node[] table = new Node[16];
+    private int size;
+    private Node lastLeaf;
+
+    /**
+     * Returns a node rendering as {@code path}, sharing the nodes of the prefixes it has in common with the paths
+     * stored before it.
+     *
+     * @param path the path to store
+     * @return the node rendering as path
+     */
+    Node intern(String path) {
+        Node node = root;
+        int start = 0;
+        for (int i = 1; i <= path.length(); i++) {
+            if (i == path.length() || path.charAt(i) == '.' || path.charAt(i) == '[') {
+                node = i == path.length() ? leaf(node, path, start, i) : child(node, path, start, i);
+                start = i;
+            }
+        }
+        return node;
+    }
+
+    private Node child(Node parent, String path, int start, int end) {
+        int index = parseIndex(path, start, end);
+        int hash = hash(parent, path, start, end, index);
+        Node child = find(parent, path, start, end, hash);
+        if (child == null) {
+            child = newNode(parent, hash, path, start, end, index);
+            insert(child);
+        }
+        return child;
+    }
+
+    // Leaves are not added to the table, as most are never looked up again
+    private Node leaf(Node parent, String path, int start, int end) {
+        if (lastLeaf != null && lastLeaf.parent == parent && lastLeaf.matches(path, start, end)) {
+            return lastLeaf;
+        }
+        int index = parseIndex(path, start, end);
+        int hash = hash(parent, path, start, end, index);
+        Node leaf = find(parent, path, start, end, hash);
+        if (leaf == null) {
+            leaf = newNode(parent, hash, path, start, end, index);
+        }
+        lastLeaf = leaf;
+        return leaf;
+    }
+
+    private Node find(Node parent, String path, int start, int end, int hash) {
+        int mask = table.length - 1;
+        for (int i = spread(hash) & mask; table[i] != null; i = (i + 1) & mask) {
+            Node node = table[i];
+            if (node.hash == hash && node.parent == parent && node.matches(path, start, end)) {
+                return node;
+            }
+        }
+        return null;
+    }
+
+    private void insert(Node node) {
+        if (++size * 4 > table.length * 3) {
+            Node[] old = table;
+            table = new Node[old.length * 2];
+            for (Node n : old) {
+                if (n != null) {
+                    put(n);
+                }
+            }
+        }
+        put(node);
+    }
+
+    private void put(Node node) {
+        int mask = table.length - 1;
+        int i = spread(node.hash) & mask;
+        while (table[i] != null) {
+            i = (i + 1) & mask;
+        }
+        table[i] = node;
+    }
+
+    private static int spread(int hash) {
+        return hash ^ (hash >>> 16);
+    }
+
+    private static int hash(Node parent, String path, int start, int end, int index) {
+        int hash = index;
+        if (index < 0) {
+            hash = 0;
+            for (int i = start; i < end; i++) {
+                hash = 31 * hash + path.charAt(i);
+            }
+        }
+        return 31 * parent.hash + hash;
+    }
+
+    private Node newNode(Node parent, int hash, String path, int start, int end, int index) {
+        if (index >= 0) {
+            return new IndexNode(parent, hash, index);
+        }
+        String name = path.substring(start, end);
+        String shared = names.get(name);
+        if (shared == null) {
+            names.put(name, name);
+            shared = name;
+        }
+        return new NamedNode(parent, hash, shared);
+    }
+
+    // The index of a segment such as [12] that renders back the same, otherwise -1
+    private static int parseIndex(String path, int start, int end) {
+        int digits = end - start - 2;
+        if (digits < 1 || digits > 9 || path.charAt(start) != '[' || path.charAt(end - 1) != ']'
+                || (digits > 1 && path.charAt(start + 1) == '0')) {
+            return -1;
+        }
+        int index = 0;
+        for (int i = start + 1; i < end - 1; i++) {
+            char c = path.charAt(i);
+            if (c < '0' || c > '9') {
+                return -1;
+            }
+            index = index * 10 + (c - '0');
+        }
+        return index;
+    }
+
+    /**
+     * A path in the tree.
+     */
+    abstract static class Node {
+        final Node parent;
+        // Hash of the parent and segment, which fits in the padding of both kinds of node
+        final int hash;
+
+        Node(Node parent, int hash) {
+            this.parent = parent;
+            this.hash = hash;
+        }
+
+        abstract boolean matches(String path, int start, int end);
+
+        abstract void appendSegment(StringBuilder path);
+
+        private void appendTo(StringBuilder path) {
+            if (parent != null) {
+                parent.appendTo(path);
+            }
+            appendSegment(path);
+        }
+
+        @Override
+        public String toString() {
+            StringBuilder path = new StringBuilder();
+            appendTo(path);
+            return path.toString();
+        }
+    }
+
+    private static final class NamedNode extends Node {
+        private final String name;
+
+        NamedNode(Node parent, int hash, String name) {
+            super(parent, hash);
+            this.name = name;
+        }
+
+        @Override
+        boolean matches(String path, int start, int end) {
+            return name.length() == end - start && path.regionMatches(start, name, 0, name.length());
+        }
+
+        @Override
+        void appendSegment(StringBuilder path) {
+            path.append(name);
+        }
+    }
+
+    private static final class IndexNode extends Node {
+        private final int index;
+
+        IndexNode(Node parent, int hash, int index) {
+            super(parent, hash);
+            this.index = index;
+        }
+
+        @Override
+        boolean matches(String path, int start, int end) {
+            return parseIndex(path, start, end) == index;
+        }
+
+        @Override
+        void appendSegment(StringBuilder path) {
+            path.append('[').append(index).append(']');
+        }
+    }
+}
@@ -0,0 +1,199 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+/**
+ * A bounded, thread-safe cache of compiled regular expressions. When full, the least recently used pattern is
+ * evicted. Used by {@link RegularExpressionValueMatcher} and {@link LinearRegularExpressionValueMatcher} so that a
+ * dynamic pattern repeated across many values, such as every element of a large array, is only compiled once.
+ * Patterns compiled for the two matchers are cached separately, but count towards the same maximum size.
+ */
+public final class PatternCache {
+    /**
+     * Number of patterns kept by the shared cache unless reconfigured with {@link #setMaximumSize(int)}.
+     */
+    public static final int DEFAULT_MAXIMUM_SIZE = 256;
+
+    private static final PatternCache SHARED = new PatternCache(DEFAULT_MAXIMUM_SIZE);
+
+    // Keyed by the regex for java.util.regex patterns and by a LinearKey for linear-time ones
+    private final LinkedHashMap<Object, Object> patterns = new LinkedHashMap<Object, Object>(16, 0.75f, true);
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+    private int maximumSize;
+
+    /**
+     * Create a PatternCache holding at most {@code maximumSize} patterns.
+     *
+     * @param maximumSize maximum number of compiled patterns kept, zero disables caching
+     * @throws IllegalArgumentException if maximumSize is negative
+     */
+    public PatternCache(int maximumSize) {
+        setMaximumSize(maximumSize);
+    }
+
+    /**
+     * The cache shared by all {@link RegularExpressionValueMatcher}s not given a cache of their own.
+     *
+     * @return the shared cache
+     */
+    public static PatternCache shared() {
+        return SHARED;
+    }
+
+    /**
+     * Returns the compiled form of {@code regex}, compiling and caching it if needed.
+     *
+     * @param regex the regular expression
+     * @return the compiled pattern
+     * @throws PatternSyntaxException if regex is not a valid regular expression
+     */
+    public Pattern compile(String regex) throws PatternSyntaxException {
+        return (Pattern) lookUp(regex, regex);
+    }
+
+    /**
+     * Returns the linear-time compiled form of {@code regex}, compiling and caching it if needed.
+     *
+     * @param regex the regular expression
+     * @return the compiled pattern
+     * @throws PatternSyntaxException if regex is not a valid regular expression or is not supported by the
+     *             linear-time engine
+     */
+    LinearPattern compileLinear(String regex) throws PatternSyntaxException {
+        return (LinearPattern) lookUp(new LinearKey(regex), regex);
+    }
+
+    private Object lookUp(Object key, String regex) {
+        Object pattern;
+        synchronized (patterns) {
+            pattern = patterns.get(key);
+        }
+        if (pattern != null) {
+            hits.incrementAndGet();
+            return pattern;
+        }
+        misses.incrementAndGet();
+        // Compile outside the lock; two threads racing on the same regex just compile it twice
+        pattern = key instanceof LinearKey ? LinearPattern.compile(regex) : Pattern.compile(regex);
+        synchronized (patterns) {
+            if (maximumSize > 0) {
+                patterns.put(key, pattern);
+                trim();
+            }
+        }
+        return pattern;
+    }
+
+    /**
+     * Changes the maximum number of patterns kept, evicting the least recently used ones if needed.
+     *
+     * @param maximumSize maximum number of compiled patterns kept, zero disables caching
+     * @throws IllegalArgumentException if maximumSize is negative
+     */
+    public void setMaximumSize(int maximumSize) {
+        if (maximumSize < 0) {
+            throw new IllegalArgumentException("Maximum size negative: " + maximumSize);
+        }
+        synchronized (patterns) {
+            this.maximumSize = maximumSize;
+            trim();
+        }
+    }
+
+    /**
+     * @return the maximum number of patterns kept
+     */
+    public int getMaximumSize() {
+        synchronized (patterns) {
+            return maximumSize;
+        }
+    }
+
+    /**
+     * @return the number of patterns currently cached
+     */
+    public int size() {
+        synchronized (patterns) {
+            return patterns.size();
+        }
+    }
+
+    /**
+     * @return the number of lookups answered from the cache
+     */
+    public long getHitCount() {
+        return hits.get();
+    }
+
+    /**
+     * @return the number of lookups that had to compile their pattern
+     */
+    public long getMissCount() {
+        return misses.get();
+    }
+
+    /**
+     * @return the fraction of lookups answered from the cache, or 0 if there were none
+     */
+    public double getHitRate() {
+        long hitCount = hits.get();
+        long total = hitCount + misses.get();
+        return total == 0 ? 0.0 : (double) hitCount / total;
+    }
+
+    /**
+     * Removes all cached patterns and resets the hit and miss counts.
+     */
+    public void clear() {
+        synchronized (patterns) {
+            patterns.clear();
+        }
+        hits.set(0);
+        misses.set(0);
+    }
+
+    private void trim() {
+        Iterator<Object> eldest = patterns.keySet().iterator();
+        while (patterns.size() > maximumSize) {
+            eldest.next();
+            eldest.remove();
+        }
+    }
+
+    private static final class LinearKey {
+        private final String regex;
+
+        LinearKey(String regex) {
+            this.regex = regex;
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            return o instanceof LinearKey && ((LinearKey) o).regex.equals(regex);
+        }
+
+        @Override
+        public int hashCode() {
+            return ~regex.hashCode();
+        }
+    }
+}
@@ -30,14 +30,16 @@ import org.skyscreamer.jsonassert.ValueMatcher;
  * @author Duncan Mackinder
  * 
  */
-public class RegularExpressionValueMatcher<T> implements ValueMatcher<T> {
+public class RegularExpressionValueMatcher<T> implements ValueMatcher<T>, CharSequenceValueMatcher {
 
 	private final Pattern expectedPattern;
+	private final PatternCache patternCache;
 
 	/**
 	 * Create RegularExpressionValueMatcher in which the pattern the actual
 	 * value must match with be specified dynamically from the expected string
-	 * passed to this matcher in the equals method.
+	 * passed to this matcher in the equals method. Compiled patterns are kept
+	 * in the {@link PatternCache#shared() shared} pattern cache.
 	 */
 	public RegularExpressionValueMatcher() {
 		this(null);
@@ -61,27 +63,52 @@ public class RegularExpressionValueMatcher<T> implements ValueMatcher<T> {
 	 *             if pattern is non-null and not a valid regular expression.
 	 */
 	public RegularExpressionValueMatcher(String pattern) throws IllegalArgumentException {
+		this(pattern, PatternCache.shared());
+	}
+
+	/**
+	 * Create RegularExpressionValueMatcher with specified pattern, as
+	 * {@link #RegularExpressionValueMatcher(String)} does, keeping dynamically
+	 * specified patterns in the specified cache so that patterns that repeat
+	 * are only compiled once.
+	 * 
+	 * @param pattern
+	 *            if non null, regular expression pattern which all actual
+	 *            values this matcher is applied to must match. If null, this
+	 *            matcher will apply pattern specified dynamically via the
+	 *            expected parameter to the equal method.
+	 * @param patternCache
+	 *            cache of compiled dynamic patterns
+	 * @throws IllegalArgumentException
+	 *             if pattern is non-null and not a valid regular expression.
+	 */
+	public RegularExpressionValueMatcher(String pattern, PatternCache patternCache) throws IllegalArgumentException {
+		assert patternCache != null : "patternCache null";
 		try {
 			expectedPattern = pattern == null ? null : Pattern.compile(pattern);
 		}
 		catch (PatternSyntaxException e) {
 			throw new IllegalArgumentException("Constant expected pattern invalid: " + e.getMessage(), e);
 		}
+		this.patternCache = patternCache;
 	}
 
 	@Override
 	public boolean equal(T actual, T expected) {
-		String actualString = actual.toString();
-		String expectedString = expected.toString();
+		return equalCharSequence(actual.toString(), expected.toString());
+	}
+
+	@Override
+	public boolean equalCharSequence(CharSequence actual, CharSequence expected) {
 		try {
-			Pattern pattern = isStaticPattern() ? expectedPattern : Pattern
-					.compile(expectedString);
-			if (!pattern.matcher(actualString).matches()) {
-				throw new ValueMatcherException(getPatternType() + " expected pattern did not match value", pattern.toString(), actualString);
+			Pattern pattern = isStaticPattern() ? expectedPattern : patternCache
+					.compile(expected.toString());
+			if (!pattern.matcher(actual).matches()) {
+				throw new ValueMatcherException(getPatternType() + " expected pattern did not match value", pattern.toString(), actual.toString());
 			}
 		}
 		catch (PatternSyntaxException e) {
-			throw new ValueMatcherException(getPatternType() + " expected pattern invalid: " + e.getMessage(), e, expectedString, actualString);
+			throw new ValueMatcherException(getPatternType() + " expected pattern invalid: " + e.getMessage(), e, expected.toString(), actual.toString());
 		}
 		return true;
 	}
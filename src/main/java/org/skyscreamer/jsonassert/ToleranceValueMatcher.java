@@ -0,0 +1,166 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+/**
+ * <p>A JSONassert value matcher that accepts numbers within a tolerance of the
+ * expected number, instead of requiring them to be exactly equal. Three
+ * tolerance policies are available:</p>
+ * 
+ * <ul>
+ * <li>{@link #absolute(double)}: the values may differ by at most a fixed
+ * amount</li>
+ * <li>{@link #relative(double)}: the values may differ by at most a fraction
+ * of the larger of their magnitudes</li>
+ * <li>{@link #ulps(long)}: at most a given number of representable doubles
+ * may lie between the values</li>
+ * </ul>
+ * 
+ * <p>Numbers are compared as primitive doubles through
+ * {@link DoubleValueMatcher}, so applying a tolerance to every number in a
+ * large document, e.g. with</p>
+ * 
+ * <code>new CustomComparator(JSONCompareMode.STRICT, new Customization("**.price", ToleranceValueMatcher.absolute(0.005)))</code>
+ * 
+ * <p>allocates nothing per value. Values that are not both numbers must be
+ * equal.</p>
+ */
+public final class ToleranceValueMatcher implements ValueMatcher<Object>, DoubleValueMatcher {
+
+	private static final int ABSOLUTE = 0;
+	private static final int RELATIVE = 1;
+	private static final int ULPS = 2;
+
+	private final int policy;
+	private final double tolerance;
+	private final long maxUlps;
+
+	private ToleranceValueMatcher(int policy, double tolerance, long maxUlps) {
+		this.policy = policy;
+		this.tolerance = tolerance;
+		this.maxUlps = maxUlps;
+	}
+
+	/**
+	 * Create a matcher accepting numbers that differ from the expected number
+	 * by at most {@code tolerance}.
+	 * 
+	 * @param tolerance
+	 *            largest accepted absolute difference
+	 * @return a new ToleranceValueMatcher
+	 * @throws IllegalArgumentException
+	 *             if tolerance is negative or NaN
+	 */
+	public static ToleranceValueMatcher absolute(double tolerance) {
+		checkTolerance(tolerance);
+		return new ToleranceValueMatcher(ABSOLUTE, tolerance, 0);
+	}
+
+	/**
+	 * Create a matcher accepting numbers that differ from the expected number
+	 * by at most {@code tolerance} times the larger of their magnitudes, e.g.
+	 * 0.01 accepts a difference of 1%.
+	 * 
+	 * @param tolerance
+	 *            largest accepted relative difference
+	 * @return a new ToleranceValueMatcher
+	 * @throws IllegalArgumentException
+	 *             if tolerance is negative or NaN
+	 */
+	public static ToleranceValueMatcher relative(double tolerance) {
+		checkTolerance(tolerance);
+		return new ToleranceValueMatcher(RELATIVE, tolerance, 0);
+	}
+
+	/**
+	 * Create a matcher accepting numbers whose double representation is at
+	 * most {@code maxUlps} units in the last place away from the expected
+	 * number's, i.e. with fewer than {@code maxUlps} doubles between them.
+	 * 
+	 * @param maxUlps
+	 *            largest accepted distance in units in the last place
+	 * @return a new ToleranceValueMatcher
+	 * @throws IllegalArgumentException
+	 *             if maxUlps is negative
+	 */
+	public static ToleranceValueMatcher ulps(long maxUlps) {
+		if (maxUlps < 0) {
+			throw new IllegalArgumentException("Tolerance negative: " + maxUlps);
+		}
+		return new ToleranceValueMatcher(ULPS, 0, maxUlps);
+	}
+
+	private static void checkTolerance(double tolerance) {
+		if (!(tolerance >= 0)) {
+			throw new IllegalArgumentException("Tolerance negative or NaN: " + tolerance);
+		}
+	}
+
+	@Override
+	public boolean equal(Object actual, Object expected) {
+		if (actual instanceof Number && expected instanceof Number) {
+			return equalDouble(((Number) actual).doubleValue(), ((Number) expected).doubleValue());
+		}
+		return actual == null ? expected == null : actual.equals(expected);
+	}
+
+	@Override
+	public boolean equalDouble(double actual, double expected) {
+		if (actual == expected) {
+			return true;
+		}
+		switch (policy) {
+		case ABSOLUTE:
+			return Math.abs(actual - expected) <= tolerance;
+		case RELATIVE:
+			return Math.abs(actual - expected) <= tolerance * Math.max(Math.abs(actual), Math.abs(expected));
+		default:
+			return ulpDistance(actual, expected) <= maxUlps;
+		}
+	}
+
+	// Distance between two doubles counted in representable values, Long.MAX_VALUE if either is NaN
+	private static long ulpDistance(double a, double b) {
+		if (Double.isNaN(a) || Double.isNaN(b)) {
+			return Long.MAX_VALUE;
+		}
+		long x = orderedBits(a);
+		long y = orderedBits(b);
+		long distance = x - y;
+		// Opposite signs can overflow, in which case the values are as far apart as can be
+		if (((x ^ y) & (x ^ distance)) < 0 || distance == Long.MIN_VALUE) {
+			return Long.MAX_VALUE;
+		}
+		return Math.abs(distance);
+	}
+
+	// Maps doubles to longs ordered the same way, with -0.0 and 0.0 both mapped to 0
+	private static long orderedBits(double d) {
+		long bits = Double.doubleToRawLongBits(d);
+		return bits < 0 ? Long.MIN_VALUE - bits : bits;
+	}
+
+	@Override
+	public String toString() {
+		switch (policy) {
+		case ABSOLUTE:
+			return "within " + tolerance;
+		case RELATIVE:
+			return "within " + tolerance + " relative";
+		default:
+			return "within " + maxUlps + " ulps";
+		}
+	}
+}
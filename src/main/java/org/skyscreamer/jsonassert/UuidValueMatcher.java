@@ -0,0 +1,112 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+/**
+ * <p>A JSONassert value matcher that accepts any UUID in its canonical string
+ * form of 32 hexadecimal digits grouped 8-4-4-4-12, e.g.
+ * {@code 123e4567-e89b-12d3-a456-426614174000}, in either case. A version may
+ * be required, in which case the version digit must match. The expected value
+ * is ignored, so it can be any placeholder.</p>
+ * 
+ * <p>Validation is written by hand and allocates nothing for values that
+ * match.</p>
+ */
+public class UuidValueMatcher implements ValueMatcher<Object>, CharSequenceValueMatcher {
+
+	private static final int ANY_VERSION = -1;
+
+	// Hexadecimal digits, looked up rather than tested by range to avoid a mispredicted branch per character
+	private static final boolean[] HEX_DIGIT = new boolean[128];
+
+	static {
+		for (char c = '0'; c <= '9'; c++) {
+			HEX_DIGIT[c] = true;
+		}
+		for (char c = 'a'; c <= 'f'; c++) {
+			HEX_DIGIT[c] = true;
+			HEX_DIGIT[c - 'a' + 'A'] = true;
+		}
+	}
+
+	private final int version;
+
+	/**
+	 * Create UuidValueMatcher accepting UUIDs of any version.
+	 */
+	public UuidValueMatcher() {
+		this.version = ANY_VERSION;
+	}
+
+	/**
+	 * Create UuidValueMatcher accepting only UUIDs of the specified version,
+	 * e.g. 4 for random UUIDs.
+	 * 
+	 * @param version
+	 *            required UUID version, 0 to 15
+	 * @throws IllegalArgumentException
+	 *             if version out of range
+	 */
+	public UuidValueMatcher(int version) throws IllegalArgumentException {
+		if (version < 0 || version > 15) {
+			throw new IllegalArgumentException("UUID version out of range: " + version);
+		}
+		this.version = version;
+	}
+
+	@Override
+	public boolean equal(Object actual, Object expected) {
+		if (!(actual instanceof CharSequence)) {
+			throw new ValueMatcherException("Value is not a UUID string", describeExpected(), String.valueOf(actual));
+		}
+		return equalCharSequence((CharSequence) actual, null);
+	}
+
+	@Override
+	public boolean equalCharSequence(CharSequence actual, CharSequence expected) {
+		if (!isValid(actual) || (version != ANY_VERSION && Character.digit(actual.charAt(14), 16) != version)) {
+			throw new ValueMatcherException("Value is not a " + describeExpected(), describeExpected(), actual.toString());
+		}
+		return true;
+	}
+
+	/**
+	 * Check whether a value is a UUID in canonical string form.
+	 * 
+	 * @param s
+	 *            value to check
+	 * @return true if s is a valid UUID
+	 */
+	public static boolean isValid(CharSequence s) {
+		if (s.length() != 36) {
+			return false;
+		}
+		for (int i = 0; i < 36; i++) {
+			char c = s.charAt(i);
+			if (i == 8 || i == 13 || i == 18 || i == 23) {
+				if (c != '-') {
+					return false;
+				}
+			} else if (c >= 128 || !HEX_DIGIT[c]) {
+				return false;
+			}
+		}
+		return true;
+	}
+
+	private String describeExpected() {
+		return version == ANY_VERSION ? "UUID" : "version " + version + " UUID";
+	}
+}
@@ -18,6 +18,10 @@ import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
 import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.MatcherDirective;
+import org.skyscreamer.jsonassert.jfr.ComparisonEvents;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetrics;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetricsRegistry;
 
 import java.util.*;
 
@@ -60,7 +64,7 @@ public abstract class AbstractComparator implements JSONComparator {
     protected void checkJsonObjectKeysActualInExpected(String prefix, JSONObject expected, JSONObject actual, JSONCompareResult result) {
         Set<String> actualKeys = getKeys(actual);
         for (String key : actualKeys) {
-            if (!expected.has(key)) {
+            if (!expected.has(key) && !isIgnored(qualify(prefix, key))) {
                 result.unexpected(prefix, key);
             }
         }
@@ -73,12 +77,23 @@ public abstract class AbstractComparator implements JSONComparator {
             if (actual.has(key)) {
                 Object actualValue = actual.get(key);
                 compareValues(qualify(prefix, key), expectedValue, actualValue, result);
-            } else {
+            } else if (!isIgnored(qualify(prefix, key))) {
                 result.missing(prefix, key);
             }
         }
     }
 
+    /**
+     * Whether a field missing from the actual object, or not expected in it, is left out of the comparison rather
+     * than reported. Only consulted for fields present on one side.
+     *
+     * @param path the field's path
+     * @return true to skip the field, false by default
+     */
+    protected boolean isIgnored(String path) {
+        return false;
+    }
+
     protected void compareJSONArrayOfJsonObjects(String key, JSONArray expected, JSONArray actual, JSONCompareResult result) throws JSONException {
         String uniqueKey = findUniqueKey(expected);
         if (uniqueKey == null || !isUsableAsUniqueKey(uniqueKey, actual)) {
@@ -86,6 +101,8 @@ public abstract class AbstractComparator implements JSONComparator {
             recursivelyCompareJSONArray(key, expected, actual, result);
             return;
         }
+        ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+        long start = metrics == null ? 0L : System.nanoTime();
         Map<Object, JSONObject> expectedValueMap = arrayOfJsonObjectToMap(expected, uniqueKey);
         Map<Object, JSONObject> actualValueMap = arrayOfJsonObjectToMap(actual, uniqueKey);
         for (Object id : expectedValueMap.keySet()) {
@@ -102,9 +119,12 @@ public abstract class AbstractComparator implements JSONComparator {
                 result.unexpected(formatUniqueKey(key, uniqueKey, id), actualValueMap.get(id));
             }
         }
+        recordArrayComparison(metrics, ArrayComparisonStrategy.UNIQUE_KEY, expected, start);
     }
 
     protected void compareJSONArrayOfSimpleValues(String key, JSONArray expected, JSONArray actual, JSONCompareResult result) throws JSONException {
+        ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+        long start = metrics == null ? 0L : System.nanoTime();
         Map<Object, Integer> expectedCount = JSONCompareUtil.getCardinalityMap(jsonArrayToList(expected));
         Map<Object, Integer> actualCount = JSONCompareUtil.getCardinalityMap(jsonArrayToList(actual));
         for (Object o : expectedCount.keySet()) {
@@ -120,14 +140,18 @@ public abstract class AbstractComparator implements JSONComparator {
                 result.unexpected(key + "[]", o);
             }
         }
+        recordArrayComparison(metrics, ArrayComparisonStrategy.SIMPLE_VALUE_CARDINALITY, expected, start);
     }
 
     protected void compareJSONArrayWithStrictOrder(String key, JSONArray expected, JSONArray actual, JSONCompareResult result) throws JSONException {
+        ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+        long start = metrics == null ? 0L : System.nanoTime();
         for (int i = 0; i < expected.length(); ++i) {
             Object expectedValue = expected.get(i);
             Object actualValue = actual.get(i);
             compareValues(key + "[" + i + "]", expectedValue, actualValue, result);
         }
+        recordArrayComparison(metrics, ArrayComparisonStrategy.STRICT_ORDER, expected, start);
     }
 
     // This is expensive (O(n^2) -- yuck), but may be the only resort for some cases with loose array ordering, and no
@@ -136,13 +160,29 @@ public abstract class AbstractComparator implements JSONComparator {
     // easy way to uniquely identify each element.
     protected void recursivelyCompareJSONArray(String key, JSONArray expected, JSONArray actual,
                                                JSONCompareResult result) throws JSONException {
+        ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+        SlowPathDetector detector = SlowPathDetector.installed();
+        Object event = ComparisonEvents.get().beginArrayMatch();
+        long start = metrics == null && detector == null ? 0L : System.nanoTime();
+        boolean allMatched = true;
         Set<Integer> matched = new HashSet<Integer>();
         for (int i = 0; i < expected.length(); ++i) {
             Object expectedElement = expected.get(i);
             boolean matchFound = false;
             for (int j = 0; j < actual.length(); ++j) {
                 Object actualElement = actual.get(j);
-                if (matched.contains(j) || !actualElement.getClass().equals(expectedElement.getClass())) {
+                if (matched.contains(j)) {
+                    continue;
+                }
+                if (expectedElement instanceof MatcherDirective) {
+                    if (((MatcherDirective) expectedElement).matches(actualElement)) {
+                        matched.add(j);
+                        matchFound = true;
+                        break;
+                    }
+                    continue;
+                }
+                if (!actualElement.getClass().equals(expectedElement.getClass())) {
                     continue;
                 }
                 if (expectedElement instanceof JSONObject) {
@@ -165,8 +205,21 @@ public abstract class AbstractComparator implements JSONComparator {
             }
             if (!matchFound) {
                 result.fail(key + "[" + i + "] Could not find match for element " + expectedElement);
-                return;
+                allMatched = false;
+                break;
             }
         }
+        recordArrayComparison(metrics, ArrayComparisonStrategy.RECURSIVE_FALLBACK, expected, start);
+        if (detector != null) {
+            detector.check(key, expected, actual, System.nanoTime() - start);
+        }
+        ComparisonEvents.get().endArrayMatch(event, key, expected.length(), actual.length(), allMatched);
+    }
+
+    private static void recordArrayComparison(ComparisonMetrics metrics, ArrayComparisonStrategy strategy,
+                                              JSONArray expected, long start) {
+        if (metrics != null) {
+            metrics.arrayCompared(strategy, expected.length(), System.nanoTime() - start);
+        }
     }
 }
@@ -0,0 +1,40 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+/**
+ * The ways {@link AbstractComparator} can compare two arrays of the same length, from cheapest to most expensive.
+ */
+public enum ArrayComparisonStrategy {
+    /**
+     * Elements are compared pairwise by index, as in {@link org.skyscreamer.jsonassert.JSONCompareMode#STRICT}.
+     */
+    STRICT_ORDER,
+
+    /**
+     * Arrays of simple values are compared by the number of occurrences of each value.
+     */
+    SIMPLE_VALUE_CARDINALITY,
+
+    /**
+     * Arrays of objects are matched up by a key whose value is unique in both arrays, then compared pairwise.
+     */
+    UNIQUE_KEY,
+
+    /**
+     * Every expected element is searched for among the actual elements not matched yet, which is quadratic.
+     */
+    RECURSIVE_FALLBACK
+}
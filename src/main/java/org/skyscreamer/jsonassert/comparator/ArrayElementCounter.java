@@ -0,0 +1,146 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import java.io.IOException;
+import java.io.Reader;
+
+import org.json.JSONException;
+
+/**
+ * Counts the top-level elements of a JSON array read from a stream, skimming
+ * over element text without building any values. Elements are counted the way
+ * {@link org.json.JSONArray} would: an empty slot between two commas counts as
+ * a null element and a single trailing comma is ignored. Only as much
+ * structure is checked as is needed to find element boundaries, so malformed
+ * element values are not reported.
+ */
+final class ArrayElementCounter {
+
+	private static final int BUFFER_SIZE = 8192;
+
+	private final Reader reader;
+	private final char[] buffer = new char[BUFFER_SIZE];
+	private int position;
+	private int limit;
+
+	private ArrayElementCounter(Reader reader) {
+		this.reader = reader;
+	}
+
+	/**
+	 * Count the elements of the JSON array read from reader, stopping as soon
+	 * as more than max elements have been seen.
+	 * 
+	 * @param reader
+	 *            source of the JSON array text
+	 * @param max
+	 *            number of elements after which counting may stop
+	 * @return the number of elements in the array, or max + 1 if the array
+	 *         holds more than max elements
+	 * @throws IOException
+	 *             if reading fails
+	 * @throws JSONException
+	 *             if the text is not a JSON array
+	 */
+	static int count(Reader reader, int max) throws IOException, JSONException {
+		return new ArrayElementCounter(reader).count(max);
+	}
+
+	private int count(int max) throws IOException, JSONException {
+		if (nextClean() != '[') {
+			throw new JSONException("A JSONArray text must start with '['");
+		}
+		int c = nextClean();
+		if (c == ']') {
+			return 0;
+		}
+		int elements = 1;
+		int depth = 0;
+		while (true) {
+			if (elements > max) {
+				return elements;
+			}
+			switch (c) {
+			case -1:
+				throw new JSONException("Unterminated array");
+			case '"':
+			case '\'':
+				skipString((char) c);
+				break;
+			case '[':
+			case '{':
+				depth++;
+				break;
+			case '}':
+				depth--;
+				break;
+			case ']':
+				if (depth == 0) {
+					return elements;
+				}
+				depth--;
+				break;
+			case ',':
+				if (depth == 0) {
+					c = nextClean();
+					if (c == ']') {
+						return elements;
+					}
+					elements++;
+					continue;
+				}
+				break;
+			default:
+				break;
+			}
+			c = next();
+		}
+	}
+
+	private void skipString(char quote) throws IOException, JSONException {
+		while (true) {
+			int c = next();
+			if (c == -1) {
+				throw new JSONException("Unterminated string");
+			}
+			if (c == '\\') {
+				next();
+			} else if (c == quote) {
+				return;
+			}
+		}
+	}
+
+	private int nextClean() throws IOException {
+		int c;
+		do {
+			c = next();
+		} while (c != -1 && c <= ' ');
+		return c;
+	}
+
+	private int next() throws IOException {
+		if (position == limit) {
+			limit = reader.read(buffer, 0, BUFFER_SIZE);
+			position = 0;
+			if (limit <= 0) {
+				limit = 0;
+				return -1;
+			}
+		}
+		return buffer[position++];
+	}
+}
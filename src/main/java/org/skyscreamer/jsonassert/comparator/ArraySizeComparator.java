@@ -14,8 +14,6 @@
 
 package org.skyscreamer.jsonassert.comparator;
 
-import java.text.MessageFormat;
-
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.skyscreamer.jsonassert.JSONCompareMode;
@@ -44,6 +42,9 @@ import org.skyscreamer.jsonassert.JSONCompareResult;
  * JSONAssert.assertEquals("{a:[2,6]}", ARRAY_OF_JSONOBJECTS, new ArraySizeComparator(JSONCompareMode.LENIENT));
  * </code>
  * 
+ * <p>To check an array read from a stream without parsing its elements, see
+ * {@link ArraySizeExpectation}.</p>
+ * 
  * @author Duncan Mackinder
  * 
  */
@@ -70,52 +71,7 @@ public class ArraySizeComparator extends DefaultComparator {
 	@Override
 	public void compareJSONArray(String prefix, JSONArray expected,
 			JSONArray actual, JSONCompareResult result) throws JSONException {
-		String arrayPrefix = prefix + "[]";
-		if (expected.length() < 1 || expected.length() > 2) {
-			result.fail(MessageFormat
-					.format("{0}: invalid expectation: expected array should contain either 1 or 2 elements but contains {1} elements",
-							arrayPrefix, expected.length()));
-			return;
-		}
-		if (!(expected.get(0) instanceof Number)) {
-			result.fail(MessageFormat
-					.format("{0}: invalid expectation: {1}expected array size ''{2}'' not a number",
-							arrayPrefix, (expected.length() == 1? "": "minimum "), expected.get(0)));
-			return;
-		}
-		if ((expected.length() == 2 && !(expected.get(1) instanceof Number))) {
-			result.fail(MessageFormat
-					.format("{0}: invalid expectation: maximum expected array size ''{1}'' not a number",
-							arrayPrefix, expected.get(1)));
-			return;
-		}
-		int minExpectedLength = expected.getInt(0);
-		if (minExpectedLength < 0) {
-			result.fail(MessageFormat
-					.format("{0}: invalid expectation: minimum expected array size ''{1}'' negative",
-							arrayPrefix, minExpectedLength));
-			return;
-		}
-		int maxExpectedLength = expected.length() == 2 ? expected.getInt(1)
-				: minExpectedLength;
-		if (maxExpectedLength < minExpectedLength) {
-			result.fail(MessageFormat
-					.format("{0}: invalid expectation: maximum expected array size ''{1}'' less than minimum expected array size ''{2}''",
-							arrayPrefix, maxExpectedLength, minExpectedLength));
-			return;
-		}
-		if (actual.length() < minExpectedLength
-				|| actual.length() > maxExpectedLength) {
-			result.fail(
-					arrayPrefix,
-					MessageFormat.format(
-							"array size of {0}{1} elements",
-							minExpectedLength,
-							(expected.length() == 2 ? (" to " + maxExpectedLength)
-									: "")),
-					MessageFormat.format("{0} elements",
-							actual.length()));
-		}
+		ArraySizeExpectation.compile(expected).check(prefix + "[]", actual.length(), result);
 	}
 
 }
@@ -0,0 +1,179 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.text.MessageFormat;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+
+/**
+ * A compiled array size expectation, as used by {@link ArraySizeComparator}.
+ * The expectation is validated once, when compiled, and can then be checked
+ * against any number of actual arrays, either already parsed or read from a
+ * stream. When read from a stream the actual array elements are counted
+ * without being parsed, and counting stops as soon as the maximum expected
+ * size is exceeded.
+ * 
+ * <p>To verify that the array held in file items.json contains between 2 and
+ * 6 elements:</p>
+ * 
+ * <code>
+ * JSONCompareResult result = new JSONCompareResult();<br>
+ * ArraySizeExpectation.compile(new JSONArray("[2,6]")).check("items[]", new FileReader("items.json"), result);
+ * </code>
+ */
+public final class ArraySizeExpectation {
+
+	private final int minExpectedLength;
+	private final int maxExpectedLength;
+	private final boolean range;
+	private final String invalidReason;
+
+	private ArraySizeExpectation(int minExpectedLength, int maxExpectedLength, boolean range, String invalidReason) {
+		this.minExpectedLength = minExpectedLength;
+		this.maxExpectedLength = maxExpectedLength;
+		this.range = range;
+		this.invalidReason = invalidReason;
+	}
+
+	/**
+	 * Compile an expected array size. Expected array should consist of either
+	 * 1 or 2 integer values that define maximum and minimum valid lengths of
+	 * the actual array. If expected array contains a single integer value,
+	 * then the actual array must contain exactly that number of elements. An
+	 * invalid expectation does not cause an exception but fails every check
+	 * made against it.
+	 * 
+	 * @param expected
+	 *            array of 1 or 2 integer values
+	 * @return the compiled expectation
+	 * @throws JSONException
+	 *             if an element of expected cannot be read
+	 */
+	public static ArraySizeExpectation compile(JSONArray expected) throws JSONException {
+		if (expected.length() < 1 || expected.length() > 2) {
+			return invalid(MessageFormat
+					.format("invalid expectation: expected array should contain either 1 or 2 elements but contains {0} elements",
+							expected.length()));
+		}
+		if (!(expected.get(0) instanceof Number)) {
+			return invalid(MessageFormat
+					.format("invalid expectation: {0}expected array size ''{1}'' not a number",
+							(expected.length() == 1? "": "minimum "), expected.get(0)));
+		}
+		if ((expected.length() == 2 && !(expected.get(1) instanceof Number))) {
+			return invalid(MessageFormat
+					.format("invalid expectation: maximum expected array size ''{0}'' not a number",
+							expected.get(1)));
+		}
+		int minExpectedLength = expected.getInt(0);
+		if (minExpectedLength < 0) {
+			return invalid(MessageFormat
+					.format("invalid expectation: minimum expected array size ''{0}'' negative",
+							minExpectedLength));
+		}
+		int maxExpectedLength = expected.length() == 2 ? expected.getInt(1)
+				: minExpectedLength;
+		if (maxExpectedLength < minExpectedLength) {
+			return invalid(MessageFormat
+					.format("invalid expectation: maximum expected array size ''{0}'' less than minimum expected array size ''{1}''",
+							maxExpectedLength, minExpectedLength));
+		}
+		return new ArraySizeExpectation(minExpectedLength, maxExpectedLength, expected.length() == 2, null);
+	}
+
+	private static ArraySizeExpectation invalid(String reason) {
+		return new ArraySizeExpectation(0, 0, false, reason);
+	}
+
+	/**
+	 * @return true if the expectation was valid when compiled
+	 */
+	public boolean isValid() {
+		return invalidReason == null;
+	}
+
+	/**
+	 * @return minimum number of elements expected
+	 */
+	public int getMinimum() {
+		return minExpectedLength;
+	}
+
+	/**
+	 * @return maximum number of elements expected
+	 */
+	public int getMaximum() {
+		return maxExpectedLength;
+	}
+
+	/**
+	 * Check the length of an actual array against this expectation.
+	 * 
+	 * @param arrayPrefix
+	 *            path of the array, used in failure messages
+	 * @param actualLength
+	 *            number of elements in the actual array
+	 * @param result
+	 *            result to report failures to
+	 */
+	public void check(String arrayPrefix, int actualLength, JSONCompareResult result) {
+		if (!isValid()) {
+			result.fail(arrayPrefix + ": " + invalidReason);
+			return;
+		}
+		if (actualLength < minExpectedLength || actualLength > maxExpectedLength) {
+			result.fail(arrayPrefix, describeExpected(), actualLength + " elements");
+		}
+	}
+
+	/**
+	 * Check the length of an actual array read from a stream against this
+	 * expectation. Elements are counted without being parsed, and reading
+	 * stops once the maximum expected size has been exceeded.
+	 * 
+	 * @param arrayPrefix
+	 *            path of the array, used in failure messages
+	 * @param actual
+	 *            source of the actual JSON array text
+	 * @param result
+	 *            result to report failures to
+	 * @throws IOException
+	 *             if reading fails
+	 * @throws JSONException
+	 *             if the text is not a JSON array
+	 */
+	public void check(String arrayPrefix, Reader actual, JSONCompareResult result) throws IOException, JSONException {
+		if (!isValid()) {
+			result.fail(arrayPrefix + ": " + invalidReason);
+			return;
+		}
+		int actualLength = ArrayElementCounter.count(actual, maxExpectedLength);
+		if (actualLength > maxExpectedLength) {
+			result.fail(arrayPrefix, describeExpected(), "more than " + maxExpectedLength + " elements");
+		} else {
+			check(arrayPrefix, actualLength, result);
+		}
+	}
+
+	// Concatenated rather than formatted, which would group the digits of large sizes
+	private String describeExpected() {
+		return "array size of " + minExpectedLength + (range ? (" to " + maxExpectedLength) : "") + " elements";
+	}
+}
@@ -14,45 +14,243 @@
 
 package org.skyscreamer.jsonassert.comparator;
 
+import org.json.JSONArray;
 import org.json.JSONException;
+import org.json.JSONObject;
 import org.skyscreamer.jsonassert.Customization;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.MatcherDirective;
 import org.skyscreamer.jsonassert.ValueMatcherException;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetrics;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetricsRegistry;
+import org.skyscreamer.jsonassert.trace.ComparisonTracer;
 
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.indexFreePath;
 
 public class CustomComparator extends DefaultComparator {
 
+    // Upper bound on the number of index-free paths remembered by one comparator; the cache is cleared when full
+    private static final int MAX_CACHED_PATHS = 1024;
+    private static final Object NO_CUSTOMIZATION = new Object();
+
     private final Collection<Customization> customizations;
+    private final List<Customization> ignoring = new ArrayList<Customization>();
+    private final boolean ignoresPaths;
+    private final ConcurrentMap<String, Object> customizationByIndexFreePath;
+    // Null unless profiling
+    private final CustomizationProfile[] profiles;
+    private final Map<Customization, CustomizationProfile> profileByCustomization;
 
     public CustomComparator(JSONCompareMode mode,  Customization... customizations) {
+        this(mode, false, customizations);
+    }
+
+    /**
+     * Create a CustomComparator that, if {@code profile} is true, keeps a {@link CustomizationProfile} for each of
+     * its customizations, available from {@link #getCustomizationProfiles()}. Profiling takes two timestamps per
+     * value compared with a customization, so is best left off unless looking for a slow matcher.
+     *
+     * <p>Unless a customization names a specific array index, the customization found for an array element is
+     * cached under the element's path without indices, for up to 1024 such paths. When that many are cached the
+     * cache is cleared and refilled, so it keeps serving the paths of the part of the document being compared.</p>
+     *
+     * @param mode the mode to compare values without a customization in
+     * @param profile whether to count path matches, hits, matching time and failures per customization
+     * @param customizations the customizations, tried in order
+     */
+    public CustomComparator(JSONCompareMode mode, boolean profile, Customization... customizations) {
         super(mode);
         this.customizations = Arrays.asList(customizations);
+        boolean ignoresPaths = false;
+        for (Customization c : customizations) {
+            if (c.isIgnore()) {
+                ignoresPaths = true;
+                ignoring.add(c);
+            }
+        }
+        this.ignoresPaths = ignoresPaths;
+        this.customizationByIndexFreePath = anyDependsOnArrayIndex(this.customizations)
+                ? null : new ConcurrentHashMap<String, Object>();
+        if (profile) {
+            this.profiles = new CustomizationProfile[customizations.length];
+            this.profileByCustomization = new IdentityHashMap<Customization, CustomizationProfile>();
+            for (int i = 0; i < customizations.length; i++) {
+                CustomizationProfile p = profileByCustomization.get(customizations[i]);
+                if (p == null) {
+                    p = new CustomizationProfile(customizations[i]);
+                    profileByCustomization.put(customizations[i], p);
+                }
+                profiles[i] = p;
+            }
+        } else {
+            this.profiles = null;
+            this.profileByCustomization = null;
+        }
+    }
+
+    /**
+     * The profile of each customization, in the order they were given, if this comparator was created to profile.
+     * A customization given twice has a single profile.
+     *
+     * @return the profiles, empty if this comparator does not profile
+     */
+    public List<CustomizationProfile> getCustomizationProfiles() {
+        if (profiles == null) {
+            return Collections.emptyList();
+        }
+        List<CustomizationProfile> distinct = new ArrayList<CustomizationProfile>();
+        for (CustomizationProfile p : profiles) {
+            if (!distinct.contains(p)) {
+                distinct.add(p);
+            }
+        }
+        return Collections.unmodifiableList(distinct);
     }
 
     @Override
     public void compareValues(String prefix, Object expectedValue, Object actualValue, JSONCompareResult result) throws JSONException {
+        if (expectedValue instanceof MatcherDirective) {
+            // A directive is attached to its node, so it takes precedence without a customization lookup
+            super.compareValues(prefix, expectedValue, actualValue, result);
+            return;
+        }
         Customization customization = getCustomization(prefix);
         if (customization != null) {
-            try {
-    	        if (!customization.matches(prefix, actualValue, expectedValue, result)) {
-                    result.fail(prefix, expectedValue, actualValue);
-                }
+            if (customization.isIgnore()) {
+                return;
             }
-            catch (ValueMatcherException e) {
-                result.fail(prefix, e);
+            ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+            if (metrics != null) {
+                metrics.nodeCompared();
             }
-        } else {
+            if (profileByCustomization == null) {
+                matchCustomization(customization, prefix, expectedValue, actualValue, result);
+            } else {
+                int failures = result.getFailureCount();
+                long start = System.nanoTime();
+                matchCustomization(customization, prefix, expectedValue, actualValue, result);
+                profileByCustomization.get(customization).matched(System.nanoTime() - start,
+                        result.getFailureCount() - failures);
+            }
+        } else if (!isIgnoredSubtree(prefix, expectedValue, actualValue)) {
             super.compareValues(prefix, expectedValue, actualValue, result);
         }
     }
 
+    private static void matchCustomization(Customization customization, String prefix, Object expectedValue,
+                                           Object actualValue, JSONCompareResult result) {
+        ComparisonTracer tracer = ComparisonTracer.installed();
+        ComparisonTracer.Span span = tracer == null ? null : tracer.begin("match " + customization.getPath(), prefix, -1);
+        try {
+            if (!customization.matches(prefix, actualValue, expectedValue, result)) {
+                result.fail(prefix, expectedValue, actualValue);
+            }
+        }
+        catch (ValueMatcherException e) {
+            result.fail(prefix, e);
+        }
+        finally {
+            ComparisonTracer.end(span);
+        }
+    }
+
+    @Override
+    protected boolean isIgnored(String path) {
+        if (!ignoresPaths) {
+            return false;
+        }
+        Customization customization = getCustomization(path);
+        return customization != null && customization.isIgnore();
+    }
+
+    // An object or array whose descendants are all ignored is skipped as a whole, as long as its own type matches
+    private boolean isIgnoredSubtree(String path, Object expectedValue, Object actualValue) {
+        if (ignoring.isEmpty()
+                || !((expectedValue instanceof JSONObject && actualValue instanceof JSONObject)
+                    || (expectedValue instanceof JSONArray && actualValue instanceof JSONArray))) {
+            return false;
+        }
+        for (Customization c : ignoring) {
+            if (c.ignoresSubtree(path)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     private Customization getCustomization(String path) {
+        ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+        long start = metrics == null ? 0L : System.nanoTime();
+        Customization customization = lookUpCustomization(path);
+        if (metrics != null) {
+            metrics.customizationLookedUp(customization != null, System.nanoTime() - start);
+        }
+        if (profileByCustomization != null && customization != null) {
+            profileByCustomization.get(customization).hit();
+        }
+        return customization;
+    }
+
+    private Customization lookUpCustomization(String path) {
+        if (customizationByIndexFreePath == null) {
+            return findCustomization(path);
+        }
+        // Every element of an array resolves to the same customization, so look it up once per index-free path
+        String indexFreePath = indexFreePath(path);
+        if (indexFreePath == path) {
+            return findCustomization(path);
+        }
+        Object cached = customizationByIndexFreePath.get(indexFreePath);
+        if (cached == null) {
+            Customization customization = findCustomization(path);
+            cached = customization == null ? NO_CUSTOMIZATION : customization;
+            if (customizationByIndexFreePath.size() >= MAX_CACHED_PATHS) {
+                // Start over rather than stop caching, so documents with many path shapes keep the later ones
+                customizationByIndexFreePath.clear();
+            }
+            customizationByIndexFreePath.put(indexFreePath, cached);
+        }
+        return cached == NO_CUSTOMIZATION ? null : (Customization) cached;
+    }
+
+    private Customization findCustomization(String path) {
+        if (profiles != null) {
+            return findCustomizationProfiled(path);
+        }
         for (Customization c : customizations)
             if (c.appliesToPath(path))
                 return c;
         return null;
     }
+
+    private Customization findCustomizationProfiled(String path) {
+        int i = 0;
+        for (Customization c : customizations) {
+            profiles[i++].pathMatchAttempted();
+            if (c.appliesToPath(path)) {
+                return c;
+            }
+        }
+        return null;
+    }
+
+    private static boolean anyDependsOnArrayIndex(Collection<Customization> customizations) {
+        for (Customization c : customizations) {
+            if (c.dependsOnArrayIndex()) {
+                return true;
+            }
+        }
+        return false;
+    }
 }
@@ -0,0 +1,108 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import java.util.concurrent.atomic.LongAdder;
+
+import org.skyscreamer.jsonassert.Customization;
+
+/**
+ * Counters kept for one {@link Customization} of a profiling {@link CustomComparator}: how often its path was
+ * tried against the path of a value, how often it applied, and how long its matcher took and how many failures it
+ * produced. Counters accumulate over every comparison made with the comparator. See
+ * {@link CustomizationProfileReport} to format them.
+ */
+public final class CustomizationProfile {
+    private final Customization customization;
+    private final LongAdder pathMatchAttempts = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder matches = new LongAdder();
+    private final LongAdder matchNanos = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+
+    CustomizationProfile(Customization customization) {
+        this.customization = customization;
+    }
+
+    void pathMatchAttempted() {
+        pathMatchAttempts.increment();
+    }
+
+    void hit() {
+        hits.increment();
+    }
+
+    void matched(long nanos, int failureCount) {
+        matches.increment();
+        matchNanos.add(nanos);
+        failures.add(failureCount);
+    }
+
+    /**
+     * @return the customization profiled
+     */
+    public Customization getCustomization() {
+        return customization;
+    }
+
+    /**
+     * Number of times the customization's path was matched against the path of a value. Lookups answered from the
+     * comparator's cache of paths without array indices do not count.
+     *
+     * @return the number of path match attempts
+     */
+    public long getPathMatchAttempts() {
+        return pathMatchAttempts.sum();
+    }
+
+    /**
+     * @return the number of lookups that found this customization applies to a path
+     */
+    public long getHits() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of values the customization's matcher was called for
+     */
+    public long getMatches() {
+        return matches.sum();
+    }
+
+    /**
+     * @return the time spent in the customization's matcher, in nanoseconds
+     */
+    public long getMatchNanos() {
+        return matchNanos.sum();
+    }
+
+    /**
+     * @return the number of failures reported for values the customization's matcher was called for
+     */
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * Sets all counters back to zero.
+     */
+    public void reset() {
+        pathMatchAttempts.reset();
+        hits.reset();
+        matches.reset();
+        matchNanos.reset();
+        failures.reset();
+    }
+}
@@ -0,0 +1,85 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Formats {@link CustomizationProfile}s as a plain text table, most expensive customization first, e.g.
+ *
+ * <pre>
+ * path                 attempts       hits    matches   time (ms)   avg (us)   failures
+ * items[*].created          120        100        100      42.113    421.130          3
+ * **.id                     240         20         20       0.051      2.550          0
+ * </pre>
+ */
+public final class CustomizationProfileReport {
+    private CustomizationProfileReport() {
+    }
+
+    /**
+     * Formats the profiles of {@code comparator}.
+     *
+     * @param comparator a profiling comparator
+     * @return the report, with only a header if the comparator does not profile
+     */
+    public static String format(CustomComparator comparator) {
+        return format(comparator.getCustomizationProfiles());
+    }
+
+    /**
+     * Formats {@code profiles}, sorted by time spent in their matchers, then by path match attempts.
+     *
+     * @param profiles the profiles to format
+     * @return the report
+     */
+    public static String format(Collection<CustomizationProfile> profiles) {
+        List<CustomizationProfile> sorted = new ArrayList<CustomizationProfile>(profiles);
+        Collections.sort(sorted, new Comparator<CustomizationProfile>() {
+            @Override
+            public int compare(CustomizationProfile a, CustomizationProfile b) {
+                int byTime = Long.compare(b.getMatchNanos(), a.getMatchNanos());
+                return byTime != 0 ? byTime : Long.compare(b.getPathMatchAttempts(), a.getPathMatchAttempts());
+            }
+        });
+        int pathWidth = "path".length();
+        for (CustomizationProfile profile : sorted) {
+            pathWidth = Math.max(pathWidth, describe(profile).length());
+        }
+        String rowFormat = "%-" + pathWidth + "s %10s %10s %10s %11s %10s %10s%n";
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT, rowFormat,
+                "path", "attempts", "hits", "matches", "time (ms)", "avg (us)", "failures"));
+        for (CustomizationProfile profile : sorted) {
+            long matches = profile.getMatches();
+            sb.append(String.format(Locale.ROOT, rowFormat, describe(profile),
+                    profile.getPathMatchAttempts(), profile.getHits(), matches,
+                    String.format(Locale.ROOT, "%.3f", profile.getMatchNanos() / 1e6),
+                    String.format(Locale.ROOT, "%.3f", matches == 0 ? 0.0 : profile.getMatchNanos() / 1e3 / matches),
+                    profile.getFailures()));
+        }
+        return sb.toString();
+    }
+
+    private static String describe(CustomizationProfile profile) {
+        String path = profile.getCustomization().getPath();
+        return profile.getCustomization().isIgnore() ? path + " (ignored)" : path;
+    }
+}
@@ -19,6 +19,10 @@ import org.json.JSONException;
 import org.json.JSONObject;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.MatcherDirective;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetrics;
+import org.skyscreamer.jsonassert.metrics.ComparisonMetricsRegistry;
+import org.skyscreamer.jsonassert.trace.ComparisonTracer;
 
 import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.allJSONObjects;
 import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.allSimpleValues;
@@ -38,19 +42,32 @@ public class DefaultComparator extends AbstractComparator {
     @Override
     public void compareJSON(String prefix, JSONObject expected, JSONObject actual, JSONCompareResult result)
             throws JSONException {
-        // Check that actual contains all the expected values
-        checkJsonObjectKeysExpectedInActual(prefix, expected, actual, result);
+        ComparisonTracer tracer = ComparisonTracer.installed();
+        ComparisonTracer.Span span = tracer == null ? null : tracer.beginIfLarge("object", prefix, expected.length());
+        try {
+            // Check that actual contains all the expected values
+            checkJsonObjectKeysExpectedInActual(prefix, expected, actual, result);
 
-        // If strict, check for vice-versa
-        if (!mode.isExtensible()) {
-            checkJsonObjectKeysActualInExpected(prefix, expected, actual, result);
+            // If strict, check for vice-versa
+            if (!mode.isExtensible()) {
+                checkJsonObjectKeysActualInExpected(prefix, expected, actual, result);
+            }
+        }
+        finally {
+            ComparisonTracer.end(span);
         }
     }
 
     @Override
     public void compareValues(String prefix, Object expectedValue, Object actualValue, JSONCompareResult result)
             throws JSONException {
-        if (areNumbers(expectedValue, actualValue)) {
+        ComparisonMetrics metrics = ComparisonMetricsRegistry.installed();
+        if (metrics != null) {
+            metrics.nodeCompared();
+        }
+        if (expectedValue instanceof MatcherDirective) {
+            ((MatcherDirective) expectedValue).compare(prefix, actualValue, result);
+        } else if (areNumbers(expectedValue, actualValue)) {
             if (areNotSameDoubles(expectedValue, actualValue)) {
                 result.fail(prefix, expectedValue, actualValue);
             }
@@ -77,15 +94,49 @@ public class DefaultComparator extends AbstractComparator {
             return; // Nothing to compare
         }
 
+        ComparisonTracer tracer = ComparisonTracer.installed();
+        ComparisonTracer.Span span = tracer == null ? null : tracer.beginIfLarge("array", prefix, expected.length());
+        try {
+            switch (selectArrayStrategy(expected)) {
+            case STRICT_ORDER:
+                compareJSONArrayWithStrictOrder(prefix, expected, actual, result);
+                break;
+            case SIMPLE_VALUE_CARDINALITY:
+                compareJSONArrayOfSimpleValues(prefix, expected, actual, result);
+                break;
+            case UNIQUE_KEY:
+                compareJSONArrayOfJsonObjects(prefix, expected, actual, result);
+                break;
+            default:
+                // An expensive last resort
+                recursivelyCompareJSONArray(prefix, expected, actual, result);
+                break;
+            }
+        }
+        finally {
+            ComparisonTracer.end(span);
+        }
+    }
+
+    /**
+     * Chooses how {@link #compareJSONArray(String, JSONArray, JSONArray, JSONCompareResult)} compares a non-empty
+     * expected array to an actual array of the same length. Arrays of objects are given
+     * {@link ArrayComparisonStrategy#UNIQUE_KEY}, but still fall back to
+     * {@link ArrayComparisonStrategy#RECURSIVE_FALLBACK} if no field qualifies as unique key of both arrays.
+     *
+     * @param expected the expected array
+     * @return the strategy used to compare it
+     * @throws JSONException JSON parsing error
+     */
+    public ArrayComparisonStrategy selectArrayStrategy(JSONArray expected) throws JSONException {
         if (mode.hasStrictOrder()) {
-            compareJSONArrayWithStrictOrder(prefix, expected, actual, result);
+            return ArrayComparisonStrategy.STRICT_ORDER;
         } else if (allSimpleValues(expected)) {
-            compareJSONArrayOfSimpleValues(prefix, expected, actual, result);
+            return ArrayComparisonStrategy.SIMPLE_VALUE_CARDINALITY;
         } else if (allJSONObjects(expected)) {
-            compareJSONArrayOfJsonObjects(prefix, expected, actual, result);
+            return ArrayComparisonStrategy.UNIQUE_KEY;
         } else {
-            // An expensive last resort
-            recursivelyCompareJSONArray(prefix, expected, actual, result);
+            return ArrayComparisonStrategy.RECURSIVE_FALLBACK;
         }
     }
 
@@ -27,6 +27,7 @@ import java.util.TreeSet;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.json.JSONObject;
+import org.skyscreamer.jsonassert.MatcherDirective;
 
 /**
  * Utility class that contains Json manipulation methods.
@@ -144,13 +145,14 @@ public final class JSONCompareUtil {
     }
 
     /**
-     * Returns whether the given object is a simple value: not {@link JSONObject} and not {@link JSONArray}.
+     * Returns whether the given object is a simple value: not {@link JSONObject}, not {@link JSONArray} and not a
+     * {@link MatcherDirective}, which may match values that are not equal to it.
      *
      * @param o the object to inspect
      * @return true if {@code o} is a simple value
      */
     public static boolean isSimpleValue(Object o) {
-        return !(o instanceof JSONObject) && !(o instanceof JSONArray);
+        return !(o instanceof JSONObject) && !(o instanceof JSONArray) && !(o instanceof MatcherDirective);
     }
 
     /**
@@ -204,6 +206,37 @@ public final class JSONCompareUtil {
         return "".equals(prefix) ? key : prefix + "." + key;
     }
 
+    /**
+     * Removes the numeric array indices from a path, so that {@code items[3].prices[0]} becomes
+     * {@code items[].prices[]}. Paths of different elements of the same array share the same index-free path.
+     *
+     * @param path the path to normalize
+     * @return the path without array indices, or {@code path} itself if it contains none
+     */
+    public static String indexFreePath(String path) {
+        StringBuilder sb = null;
+        int copied = 0;
+        int open = path.indexOf('[');
+        while (open >= 0) {
+            int i = open + 1;
+            while (i < path.length() && Character.isDigit(path.charAt(i))) {
+                i++;
+            }
+            if (i > open + 1 && i < path.length() && path.charAt(i) == ']') {
+                if (sb == null) {
+                    sb = new StringBuilder(path.length());
+                }
+                sb.append(path, copied, open + 1);
+                copied = i;
+            }
+            open = path.indexOf('[', i);
+        }
+        if (sb == null) {
+            return path;
+        }
+        return sb.append(path, copied, path.length()).toString();
+    }
+
     public static String formatUniqueKey(String key, String uniqueKey, Object value) {
         return key + "[" + uniqueKey + "=" + value + "]";
     }
@@ -0,0 +1,47 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * {@link SlowPathListener} that logs each diagnostic to {@code java.util.logging}, by default as a warning of the
+ * {@code org.skyscreamer.jsonassert.comparator.SlowPathDetector} logger.
+ */
+public class LoggingSlowPathListener implements SlowPathListener {
+    private final Logger logger;
+    private final Level level;
+
+    public LoggingSlowPathListener() {
+        this(Logger.getLogger(SlowPathDetector.class.getName()), Level.WARNING);
+    }
+
+    /**
+     * @param logger the logger to log to
+     * @param level the level to log at
+     */
+    public LoggingSlowPathListener(Logger logger, Level level) {
+        this.logger = logger;
+        this.level = level;
+    }
+
+    @Override
+    public void onSlowPath(SlowPathDiagnostic diagnostic) {
+        if (logger.isLoggable(level)) {
+            logger.log(level, diagnostic.toString());
+        }
+    }
+}
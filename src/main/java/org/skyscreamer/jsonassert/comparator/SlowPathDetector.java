@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+
+/**
+ * Reports comparisons of arrays that fell back to matching elements one by one, which takes time quadratic in their
+ * size, once the arrays reach a size or the comparison a duration. Each report is a {@link SlowPathDiagnostic}
+ * naming the path of the arrays and why their elements could not be matched up by unique key, so that a field with
+ * unique values can be added to them. None is installed by default:
+ *
+ * <pre>
+ * SlowPathDetector.install(new SlowPathDetector(100, 50, TimeUnit.MILLISECONDS, new LoggingSlowPathListener()));
+ * </pre>
+ */
+public class SlowPathDetector {
+    private static volatile SlowPathDetector installed;
+
+    private final int minimumSize;
+    private final long minimumNanos;
+    private final SlowPathListener listener;
+
+    /**
+     * Create a SlowPathDetector reporting arrays of at least {@code minimumSize} elements, or that took at least
+     * {@code minimumDuration} to compare, whichever comes first.
+     *
+     * @param minimumSize number of elements from which to report, {@link Integer#MAX_VALUE} to only report by duration
+     * @param minimumDuration duration from which to report, {@link Long#MAX_VALUE} to only report by size
+     * @param unit unit of {@code minimumDuration}
+     * @param listener the listener to report to
+     * @throws IllegalArgumentException if a threshold is negative
+     */
+    public SlowPathDetector(int minimumSize, long minimumDuration, TimeUnit unit, SlowPathListener listener) {
+        if (minimumSize < 0 || minimumDuration < 0) {
+            throw new IllegalArgumentException("Negative threshold: " + minimumSize + " elements, "
+                    + minimumDuration + " " + unit);
+        }
+        this.minimumSize = minimumSize;
+        this.minimumNanos = unit.toNanos(minimumDuration);
+        this.listener = listener;
+    }
+
+    /**
+     * Makes all comparisons, in every thread, report to {@code detector} from now on.
+     *
+     * @param detector the detector to report to, or null to stop reporting
+     */
+    public static void install(SlowPathDetector detector) {
+        installed = detector;
+    }
+
+    /**
+     * Stops all comparisons reporting slow paths.
+     */
+    public static void uninstall() {
+        installed = null;
+    }
+
+    /**
+     * @return the installed detector, or null if none is installed
+     */
+    public static SlowPathDetector installed() {
+        return installed;
+    }
+
+    /**
+     * @return number of elements from which arrays are reported
+     */
+    public int getMinimumSize() {
+        return minimumSize;
+    }
+
+    /**
+     * @param unit the unit to return the duration in
+     * @return duration from which comparisons are reported
+     */
+    public long getMinimumDuration(TimeUnit unit) {
+        return unit.convert(minimumNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * Called once {@code expected} and {@code actual} have been compared element by element, reports them if past a
+     * threshold.
+     */
+    void check(String path, JSONArray expected, JSONArray actual, long elapsedNanos) throws JSONException {
+        if (expected.length() > 0 && (expected.length() >= minimumSize || elapsedNanos >= minimumNanos)) {
+            listener.onSlowPath(SlowPathDiagnostic.diagnose(path, expected, actual, elapsedNanos));
+        }
+    }
+}
@@ -0,0 +1,236 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.allJSONObjects;
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.findUniqueKey;
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.getKeys;
+import static org.skyscreamer.jsonassert.comparator.JSONCompareUtil.isSimpleValue;
+
+/**
+ * Describes a comparison of two arrays that fell back to
+ * {@link AbstractComparator#recursivelyCompareJSONArray(String, JSONArray, JSONArray,
+ * org.skyscreamer.jsonassert.JSONCompareResult)}, which searches for a match for every expected element and so takes
+ * time quadratic in the size of the arrays, together with the reason their elements could not be matched up by a
+ * unique key. Reported by a {@link SlowPathDetector}.
+ */
+public final class SlowPathDiagnostic {
+
+    /**
+     * Why the arrays could not be compared by unique key.
+     */
+    public enum Cause {
+        /**
+         * The expected elements are not all objects, so have no keys.
+         */
+        NOT_ALL_OBJECTS,
+
+        /**
+         * No field of the first expected element qualifies as unique key of the expected elements.
+         */
+        NO_UNIQUE_KEY,
+
+        /**
+         * A unique key of the expected elements does not qualify as unique key of the actual elements.
+         */
+        KEY_NOT_UNIQUE_IN_ACTUAL
+    }
+
+    /**
+     * Why a field does not qualify as unique key.
+     */
+    public enum KeyRejection {
+        /**
+         * An element is not an object.
+         */
+        NOT_AN_OBJECT("element not an object"),
+
+        /**
+         * An element does not have the field.
+         */
+        MISSING_FIELD("missing in some elements"),
+
+        /**
+         * The field of an element is an object, an array or a directive.
+         */
+        NON_SIMPLE_VALUE("not a simple value"),
+
+        /**
+         * Two elements have the same value for the field.
+         */
+        DUPLICATE_VALUES("duplicate values");
+
+        private final String description;
+
+        KeyRejection(String description) {
+            this.description = description;
+        }
+
+        @Override
+        public String toString() {
+            return description;
+        }
+    }
+
+    private final String path;
+    private final int expectedSize;
+    private final int actualSize;
+    private final long elapsedNanos;
+    private final Cause cause;
+    private final Map<String, KeyRejection> rejectedKeys;
+
+    SlowPathDiagnostic(String path, int expectedSize, int actualSize, long elapsedNanos, Cause cause,
+                       Map<String, KeyRejection> rejectedKeys) {
+        this.path = path;
+        this.expectedSize = expectedSize;
+        this.actualSize = actualSize;
+        this.elapsedNanos = elapsedNanos;
+        this.cause = cause;
+        this.rejectedKeys = Collections.unmodifiableMap(rejectedKeys);
+    }
+
+    /**
+     * Works out why {@code expected} and {@code actual} could not be compared by unique key.
+     */
+    static SlowPathDiagnostic diagnose(String path, JSONArray expected, JSONArray actual, long elapsedNanos)
+            throws JSONException {
+        Map<String, KeyRejection> rejectedKeys = new TreeMap<String, KeyRejection>();
+        Cause cause;
+        if (!allJSONObjects(expected)) {
+            cause = Cause.NOT_ALL_OBJECTS;
+        } else {
+            String uniqueKey = findUniqueKey(expected);
+            if (uniqueKey == null) {
+                cause = Cause.NO_UNIQUE_KEY;
+                for (String candidate : getKeys(expected.getJSONObject(0))) {
+                    rejectedKeys.put(candidate, whyNotUniqueKey(candidate, expected));
+                }
+            } else {
+                cause = Cause.KEY_NOT_UNIQUE_IN_ACTUAL;
+                rejectedKeys.put(uniqueKey, whyNotUniqueKey(uniqueKey, actual));
+            }
+        }
+        return new SlowPathDiagnostic(path, expected.length(), actual.length(), elapsedNanos, cause, rejectedKeys);
+    }
+
+    // Mirrors JSONCompareUtil.isUsableAsUniqueKey, which only answers yes or no
+    private static KeyRejection whyNotUniqueKey(String candidate, JSONArray array) throws JSONException {
+        Set<Object> seenValues = new HashSet<Object>();
+        for (int i = 0; i < array.length(); i++) {
+            Object item = array.get(i);
+            if (!(item instanceof JSONObject)) {
+                return KeyRejection.NOT_AN_OBJECT;
+            }
+            JSONObject o = (JSONObject) item;
+            if (!o.has(candidate)) {
+                return KeyRejection.MISSING_FIELD;
+            }
+            Object value = o.get(candidate);
+            if (!isSimpleValue(value)) {
+                return KeyRejection.NON_SIMPLE_VALUE;
+            }
+            if (!seenValues.add(value)) {
+                return KeyRejection.DUPLICATE_VALUES;
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return path of the arrays compared
+     */
+    public String getPath() {
+        return path;
+    }
+
+    /**
+     * @return number of expected elements
+     */
+    public int getExpectedSize() {
+        return expectedSize;
+    }
+
+    /**
+     * @return number of actual elements
+     */
+    public int getActualSize() {
+        return actualSize;
+    }
+
+    /**
+     * @return time spent comparing the arrays, in nanoseconds
+     */
+    public long getElapsedNanos() {
+        return elapsedNanos;
+    }
+
+    /**
+     * @return why the arrays could not be compared by unique key
+     */
+    public Cause getCause() {
+        return cause;
+    }
+
+    /**
+     * The fields considered as unique key, by name, with the reason each was rejected. For
+     * {@link Cause#NO_UNIQUE_KEY} these are the fields of the first expected element, for
+     * {@link Cause#KEY_NOT_UNIQUE_IN_ACTUAL} the unique key of the expected elements; for
+     * {@link Cause#NOT_ALL_OBJECTS} there are none.
+     *
+     * @return the rejected fields, sorted by name
+     */
+    public Map<String, KeyRejection> getRejectedKeys() {
+        return rejectedKeys;
+    }
+
+    @Override
+    public String toString() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(path.isEmpty() ? "[]" : path).append(": compared ").append(expectedSize)
+                .append(" elements by searching for a match for each, which took ")
+                .append(TimeUnit.NANOSECONDS.toMillis(elapsedNanos)).append(" ms; ");
+        switch (cause) {
+        case NOT_ALL_OBJECTS:
+            sb.append("expected elements are not all objects");
+            break;
+        case NO_UNIQUE_KEY:
+            sb.append("no field qualifies as unique key of the expected elements");
+            break;
+        default:
+            sb.append("unique key of the expected elements does not qualify for the actual elements");
+            break;
+        }
+        String separator = " (";
+        for (Map.Entry<String, KeyRejection> entry : rejectedKeys.entrySet()) {
+            sb.append(separator).append(entry.getKey()).append(": ").append(entry.getValue());
+            separator = ", ";
+        }
+        if (!rejectedKeys.isEmpty()) {
+            sb.append(')');
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,29 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+/**
+ * Receives the diagnostics of a {@link SlowPathDetector}.
+ */
+public interface SlowPathListener {
+
+    /**
+     * Called when arrays were compared element by element past one of the detector's thresholds. Called from the
+     * thread running the comparison.
+     *
+     * @param diagnostic what was compared, how long it took and why no unique key qualified
+     */
+    void onSlowPath(SlowPathDiagnostic diagnostic);
+}
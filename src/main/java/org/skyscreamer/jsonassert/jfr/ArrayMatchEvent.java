@@ -0,0 +1,41 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Threshold;
+
+@Name("org.skyscreamer.jsonassert.ArrayMatch")
+@Label("Match Array Elements")
+@Category("JSONassert")
+@Description("Arrays compared by searching for a match for every expected element, which is quadratic in their size")
+@Threshold("1 ms")
+final class ArrayMatchEvent extends Event {
+    @Label("Path")
+    String path;
+
+    @Label("Expected Size")
+    int expectedSize;
+
+    @Label("Actual Size")
+    int actualSize;
+
+    @Label("Matched")
+    boolean matched;
+}
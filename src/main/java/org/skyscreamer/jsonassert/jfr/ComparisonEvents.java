@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.jfr;
+
+/**
+ * Emits Java Flight Recorder events for parsing, comparing and matching arrays element by element, so that slow
+ * comparisons can be found in a recording without attaching a profiler. The events are named
+ * {@code org.skyscreamer.jsonassert.Parse}, {@code org.skyscreamer.jsonassert.Compare} and
+ * {@code org.skyscreamer.jsonassert.ArrayMatch}.
+ *
+ * <p>JSONassert runs on JVMs without Flight Recorder, so the event classes are only loaded if {@code jdk.jfr} is
+ * available; otherwise every method here does nothing. Each {@code begin} method returns a token, null if the event
+ * is not enabled in the running recordings, to be passed to the matching {@code end} method.</p>
+ */
+public abstract class ComparisonEvents {
+    private static final ComparisonEvents INSTANCE = load();
+
+    ComparisonEvents() {}
+
+    /**
+     * @return the events of this JVM, which do nothing if Flight Recorder is not available
+     */
+    public static ComparisonEvents get() {
+        return INSTANCE;
+    }
+
+    /**
+     * @return true if this JVM supports Flight Recorder events
+     */
+    public static boolean isAvailable() {
+        return !(INSTANCE instanceof Unavailable);
+    }
+
+    /**
+     * @return a token for {@link #endParse(Object, int)}, or null
+     */
+    public abstract Object beginParse();
+
+    /**
+     * @param token the token returned by {@link #beginParse()}
+     * @param characters length of the string parsed
+     */
+    public abstract void endParse(Object token, int characters);
+
+    /**
+     * @return a token for {@link #endCompare(Object, String, boolean)}, or null
+     */
+    public abstract Object beginCompare();
+
+    /**
+     * @param token the token returned by {@link #beginCompare()}
+     * @param comparator class name of the comparator used
+     * @param passed whether the documents matched
+     */
+    public abstract void endCompare(Object token, String comparator, boolean passed);
+
+    /**
+     * @return a token for {@link #endArrayMatch(Object, String, int, int, boolean)}, or null
+     */
+    public abstract Object beginArrayMatch();
+
+    /**
+     * @param token the token returned by {@link #beginArrayMatch()}
+     * @param path path of the arrays matched
+     * @param expectedSize number of expected elements
+     * @param actualSize number of actual elements
+     * @param matched whether every expected element found a match
+     */
+    public abstract void endArrayMatch(Object token, String path, int expectedSize, int actualSize, boolean matched);
+
+    private static ComparisonEvents load() {
+        try {
+            Class.forName("jdk.jfr.Event");
+            return (ComparisonEvents) Class.forName("org.skyscreamer.jsonassert.jfr.FlightRecorderEvents")
+                    .getDeclaredConstructor().newInstance();
+        }
+        catch (Exception e) {
+            return new Unavailable();
+        }
+        catch (LinkageError e) {
+            return new Unavailable();
+        }
+    }
+
+    private static final class Unavailable extends ComparisonEvents {
+        @Override
+        public Object beginParse() {
+            return null;
+        }
+
+        @Override
+        public void endParse(Object token, int characters) {
+        }
+
+        @Override
+        public Object beginCompare() {
+            return null;
+        }
+
+        @Override
+        public void endCompare(Object token, String comparator, boolean passed) {
+        }
+
+        @Override
+        public Object beginArrayMatch() {
+            return null;
+        }
+
+        @Override
+        public void endArrayMatch(Object token, String path, int expectedSize, int actualSize, boolean matched) {
+        }
+    }
+}
@@ -0,0 +1,92 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.jfr;
+
+/**
+ * {@link ComparisonEvents} backed by Flight Recorder. Only loaded, reflectively, once {@code jdk.jfr} is known to be
+ * available.
+ */
+final class FlightRecorderEvents extends ComparisonEvents {
+
+    @Override
+    public Object beginParse() {
+        ParseEvent event = new ParseEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endParse(Object token, int characters) {
+        if (token != null) {
+            ParseEvent event = (ParseEvent) token;
+            event.end();
+            if (event.shouldCommit()) {
+                event.characters = characters;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public Object beginCompare() {
+        CompareEvent event = new CompareEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endCompare(Object token, String comparator, boolean passed) {
+        if (token != null) {
+            CompareEvent event = (CompareEvent) token;
+            event.end();
+            if (event.shouldCommit()) {
+                event.comparator = comparator;
+                event.passed = passed;
+                event.commit();
+            }
+        }
+    }
+
+    @Override
+    public Object beginArrayMatch() {
+        ArrayMatchEvent event = new ArrayMatchEvent();
+        if (!event.isEnabled()) {
+            return null;
+        }
+        event.begin();
+        return event;
+    }
+
+    @Override
+    public void endArrayMatch(Object token, String path, int expectedSize, int actualSize, boolean matched) {
+        if (token != null) {
+            ArrayMatchEvent event = (ArrayMatchEvent) token;
+            event.end();
+            if (event.shouldCommit()) {
+                event.path = path;
+                event.expectedSize = expectedSize;
+                event.actualSize = actualSize;
+                event.matched = matched;
+                event.commit();
+            }
+        }
+    }
+}
@@ -0,0 +1,68 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.metrics;
+
+import org.skyscreamer.jsonassert.comparator.ArrayComparisonStrategy;
+
+/**
+ * Receives measurements taken while parsing and comparing JSON, once installed with
+ * {@link ComparisonMetricsRegistry#install(ComparisonMetrics)}. Implementations are called from every thread running
+ * a comparison, often once per node compared, so must be thread-safe and cheap.
+ * {@link InMemoryComparisonMetrics} is a ready-made implementation.
+ *
+ * All durations are in nanoseconds, and include the time spent in nested nodes: the time recorded for an array of
+ * arrays includes the time recorded for each of its elements.
+ */
+public interface ComparisonMetrics {
+
+    /**
+     * Called when a JSON string has been parsed.
+     *
+     * @param characters length of the string parsed
+     * @param nanos time spent parsing
+     */
+    void parsed(long characters, long nanos);
+
+    /**
+     * Called when {@link org.skyscreamer.jsonassert.JSONCompare} has completed a comparison of two JSON strings.
+     *
+     * @param passed whether the documents matched
+     * @param nanos time spent comparing, not including parsing
+     */
+    void compared(boolean passed, long nanos);
+
+    /**
+     * Called for each pair of values compared, whether simple values, objects or arrays.
+     */
+    void nodeCompared();
+
+    /**
+     * Called when two arrays of the same length have been compared.
+     *
+     * @param strategy the strategy used to compare them
+     * @param length number of elements in each array
+     * @param nanos time spent comparing them
+     */
+    void arrayCompared(ArrayComparisonStrategy strategy, int length, long nanos);
+
+    /**
+     * Called when a {@link org.skyscreamer.jsonassert.comparator.CustomComparator} has looked up the customization
+     * for a path.
+     *
+     * @param found whether a customization applies to the path
+     * @param nanos time spent looking it up
+     */
+    void customizationLookedUp(boolean found, long nanos);
+}
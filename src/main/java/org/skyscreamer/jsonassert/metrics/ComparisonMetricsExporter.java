@@ -0,0 +1,76 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.metrics;
+
+import java.lang.management.ManagementFactory;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Exports {@link ComparisonMetricsMXBean}s to the platform MBean server, so that comparison metrics can be watched
+ * with JConsole or any other JMX client while tests run:
+ *
+ * <pre>
+ * InMemoryComparisonMetrics metrics = new InMemoryComparisonMetrics();
+ * ComparisonMetricsRegistry.install(metrics);
+ * ComparisonMetricsExporter.export(metrics);
+ * </pre>
+ */
+public final class ComparisonMetricsExporter {
+    /**
+     * Object name metrics are exported under unless another is given.
+     */
+    public static final String DEFAULT_OBJECT_NAME = "org.skyscreamer.jsonassert:type=ComparisonMetrics";
+
+    private ComparisonMetricsExporter() {}
+
+    /**
+     * Registers {@code metrics} with the platform MBean server under {@link #DEFAULT_OBJECT_NAME}.
+     *
+     * @param metrics the metrics to export
+     * @return the name they were registered under
+     * @throws JMException if metrics are already registered under that name
+     */
+    public static ObjectName export(ComparisonMetricsMXBean metrics) throws JMException {
+        return export(metrics, new ObjectName(DEFAULT_OBJECT_NAME));
+    }
+
+    /**
+     * Registers {@code metrics} with the platform MBean server under {@code name}.
+     *
+     * @param metrics the metrics to export
+     * @param name the object name to register them under
+     * @return the name they were registered under
+     * @throws JMException if another MBean is already registered under that name
+     */
+    public static ObjectName export(ComparisonMetricsMXBean metrics, ObjectName name) throws JMException {
+        return ManagementFactory.getPlatformMBeanServer().registerMBean(metrics, name).getObjectName();
+    }
+
+    /**
+     * Removes metrics previously exported under {@code name}, if they are still registered.
+     *
+     * @param name the name returned by {@link #export(ComparisonMetricsMXBean, ObjectName)}
+     * @throws JMException if the MBean server refuses to unregister them
+     */
+    public static void unexport(ObjectName name) throws JMException {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        if (server.isRegistered(name)) {
+            server.unregisterMBean(name);
+        }
+    }
+}
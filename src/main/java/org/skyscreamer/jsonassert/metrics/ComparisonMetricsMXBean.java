@@ -0,0 +1,61 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.metrics;
+
+import java.util.Map;
+
+/**
+ * Management interface of {@link InMemoryComparisonMetrics}, as exported by {@link ComparisonMetricsExporter}.
+ * Durations are in nanoseconds.
+ */
+public interface ComparisonMetricsMXBean {
+
+    long getComparisons();
+
+    long getFailedComparisons();
+
+    long getComparisonNanos();
+
+    long getNodesCompared();
+
+    long getDocumentsParsed();
+
+    long getCharactersParsed();
+
+    long getParseNanos();
+
+    long getCustomizationLookups();
+
+    long getCustomizationsFound();
+
+    long getCustomizationLookupNanos();
+
+    /**
+     * @return number of array comparisons by {@link org.skyscreamer.jsonassert.comparator.ArrayComparisonStrategy}
+     *         name
+     */
+    Map<String, Long> getArrayComparisons();
+
+    /**
+     * @return time spent comparing arrays by {@link org.skyscreamer.jsonassert.comparator.ArrayComparisonStrategy}
+     *         name
+     */
+    Map<String, Long> getArrayComparisonNanos();
+
+    /**
+     * Sets all counts back to zero.
+     */
+    void reset();
+}
@@ -0,0 +1,48 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.metrics;
+
+/**
+ * Holds the {@link ComparisonMetrics} all comparisons report to. None is installed by default, in which case
+ * measuring costs a single read of a volatile field per measurement point, and no time is taken.
+ */
+public final class ComparisonMetricsRegistry {
+    private static volatile ComparisonMetrics installed;
+
+    private ComparisonMetricsRegistry() {}
+
+    /**
+     * Makes all comparisons, in every thread, report to {@code metrics} from now on.
+     *
+     * @param metrics the metrics to report to, or null to stop reporting
+     */
+    public static void install(ComparisonMetrics metrics) {
+        installed = metrics;
+    }
+
+    /**
+     * Stops all comparisons reporting metrics.
+     */
+    public static void uninstall() {
+        installed = null;
+    }
+
+    /**
+     * @return the installed metrics, or null if none is installed
+     */
+    public static ComparisonMetrics installed() {
+        return installed;
+    }
+}
@@ -0,0 +1,184 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+
+import org.skyscreamer.jsonassert.comparator.ArrayComparisonStrategy;
+
+/**
+ * {@link ComparisonMetrics} that keeps running totals in memory. Counts are kept in {@link LongAdder}s, so threads
+ * comparing in parallel do not contend on a shared counter. Totals read while comparisons are running may be
+ * slightly out of step with one another.
+ */
+public class InMemoryComparisonMetrics implements ComparisonMetrics, ComparisonMetricsMXBean {
+    private static final ArrayComparisonStrategy[] STRATEGIES = ArrayComparisonStrategy.values();
+
+    private final LongAdder comparisons = new LongAdder();
+    private final LongAdder failedComparisons = new LongAdder();
+    private final LongAdder comparisonNanos = new LongAdder();
+    private final LongAdder nodesCompared = new LongAdder();
+    private final LongAdder documentsParsed = new LongAdder();
+    private final LongAdder charactersParsed = new LongAdder();
+    private final LongAdder parseNanos = new LongAdder();
+    private final LongAdder customizationLookups = new LongAdder();
+    private final LongAdder customizationsFound = new LongAdder();
+    private final LongAdder customizationLookupNanos = new LongAdder();
+    private final LongAdder[] arrayComparisons = newAdders(STRATEGIES.length);
+    private final LongAdder[] arrayComparisonNanos = newAdders(STRATEGIES.length);
+
+    @Override
+    public void parsed(long characters, long nanos) {
+        documentsParsed.increment();
+        charactersParsed.add(characters);
+        parseNanos.add(nanos);
+    }
+
+    @Override
+    public void compared(boolean passed, long nanos) {
+        comparisons.increment();
+        if (!passed) {
+            failedComparisons.increment();
+        }
+        comparisonNanos.add(nanos);
+    }
+
+    @Override
+    public void nodeCompared() {
+        nodesCompared.increment();
+    }
+
+    @Override
+    public void arrayCompared(ArrayComparisonStrategy strategy, int length, long nanos) {
+        arrayComparisons[strategy.ordinal()].increment();
+        arrayComparisonNanos[strategy.ordinal()].add(nanos);
+    }
+
+    @Override
+    public void customizationLookedUp(boolean found, long nanos) {
+        customizationLookups.increment();
+        if (found) {
+            customizationsFound.increment();
+        }
+        customizationLookupNanos.add(nanos);
+    }
+
+    @Override
+    public long getComparisons() {
+        return comparisons.sum();
+    }
+
+    @Override
+    public long getFailedComparisons() {
+        return failedComparisons.sum();
+    }
+
+    @Override
+    public long getComparisonNanos() {
+        return comparisonNanos.sum();
+    }
+
+    @Override
+    public long getNodesCompared() {
+        return nodesCompared.sum();
+    }
+
+    @Override
+    public long getDocumentsParsed() {
+        return documentsParsed.sum();
+    }
+
+    @Override
+    public long getCharactersParsed() {
+        return charactersParsed.sum();
+    }
+
+    @Override
+    public long getParseNanos() {
+        return parseNanos.sum();
+    }
+
+    @Override
+    public long getCustomizationLookups() {
+        return customizationLookups.sum();
+    }
+
+    @Override
+    public long getCustomizationsFound() {
+        return customizationsFound.sum();
+    }
+
+    @Override
+    public long getCustomizationLookupNanos() {
+        return customizationLookupNanos.sum();
+    }
+
+    /**
+     * @param strategy an array comparison strategy
+     * @return number of array comparisons that used {@code strategy}
+     */
+    public long getArrayComparisons(ArrayComparisonStrategy strategy) {
+        return arrayComparisons[strategy.ordinal()].sum();
+    }
+
+    /**
+     * @param strategy an array comparison strategy
+     * @return time spent in array comparisons that used {@code strategy}
+     */
+    public long getArrayComparisonNanos(ArrayComparisonStrategy strategy) {
+        return arrayComparisonNanos[strategy.ordinal()].sum();
+    }
+
+    @Override
+    public Map<String, Long> getArrayComparisons() {
+        return byStrategy(arrayComparisons);
+    }
+
+    @Override
+    public Map<String, Long> getArrayComparisonNanos() {
+        return byStrategy(arrayComparisonNanos);
+    }
+
+    @Override
+    public void reset() {
+        for (LongAdder adder : new LongAdder[] { comparisons, failedComparisons, comparisonNanos, nodesCompared,
+                documentsParsed, charactersParsed, parseNanos, customizationLookups, customizationsFound,
+                customizationLookupNanos }) {
+            adder.reset();
+        }
+        for (int i = 0; i < STRATEGIES.length; i++) {
+            arrayComparisons[i].reset();
+            arrayComparisonNanos[i].reset();
+        }
+    }
+
+    private static Map<String, Long> byStrategy(LongAdder[] adders) {
+        Map<String, Long> sums = new LinkedHashMap<String, Long>();
+        for (ArrayComparisonStrategy strategy : STRATEGIES) {
+            sums.put(strategy.name(), adders[strategy.ordinal()].sum());
+        }
+        return sums;
+    }
+
+    private static LongAdder[] newAdders(int count) {
+        LongAdder[] adders = new LongAdder[count];
+        for (int i = 0; i < count; i++) {
+            adders[i] = new LongAdder();
+        }
+        return adders;
+    }
+}
@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.json.JSONObject;
+import org.skyscreamer.jsonassert.FieldComparisonFailure.Kind;
+
+/**
+ * Streams comparison failures as a JSON document of the form
+ *
+ * <pre>
+ * {"failures":[
+ * {"type":"failure","field":"a.b","expected":1,"actual":2},
+ * {"type":"missing","field":"a","expected":"c"},
+ * {"type":"unexpected","field":"a","actual":"d"},
+ * {"type":"message","message":"a.e[]: Expected 2 values but got 1"}
+ * ],"count":4,"passed":false}
+ * </pre>
+ *
+ * Expected and actual values are written as JSON values, objects and arrays included.
+ */
+public class JSONReportWriter extends ReportWriter {
+
+    /**
+     * @param out the stream to write the report to
+     */
+    public JSONReportWriter(OutputStream out) {
+        super(out);
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        out.write("{\"failures\":[");
+    }
+
+    @Override
+    protected void writeEntry(long index, Kind kind, String field, Object expected, Object actual)
+            throws IOException {
+        out.write(index == 0 ? "\n{\"type\":" : ",\n{\"type\":");
+        writeJSONString(typeName(kind));
+        if (kind == Kind.MESSAGE) {
+            out.write(",\"message\":");
+            writeJSONString(field);
+        } else {
+            out.write(",\"field\":");
+            writeJSONString(field);
+            if (kind != Kind.UNEXPECTED) {
+                out.write(",\"expected\":");
+                out.write(JSONObject.valueToString(expected));
+            }
+            if (kind != Kind.MISSING) {
+                out.write(",\"actual\":");
+                out.write(JSONObject.valueToString(actual));
+            }
+        }
+        out.write('}');
+    }
+
+    @Override
+    protected void writeFooter(long count) throws IOException {
+        out.write(count == 0 ? "]" : "\n]");
+        out.write(",\"count\":" + count + ",\"passed\":" + (count == 0) + "}\n");
+    }
+}
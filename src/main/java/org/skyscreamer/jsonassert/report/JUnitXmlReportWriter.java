@@ -0,0 +1,106 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.skyscreamer.jsonassert.FieldComparisonFailure.Kind;
+
+/**
+ * Streams comparison failures as a JUnit XML test suite, with one failing test case per failure, named after the
+ * field that failed, so that CI servers can display them like test failures. If there are no failures the suite
+ * holds a single passing test case. The suite element has no {@code tests} or {@code failures} counts, since those
+ * are only known once the last failure has been written.
+ */
+public class JUnitXmlReportWriter extends ReportWriter {
+    private final String suiteName;
+
+    /**
+     * @param out the stream to write the report to
+     * @param suiteName name of the test suite, also used as class name of its test cases
+     */
+    public JUnitXmlReportWriter(OutputStream out, String suiteName) {
+        super(out);
+        this.suiteName = suiteName;
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        out.write("<?xml version=\"1.0\" encoding=\"UTF-8\"?>\n<testsuite name=\"");
+        writeEscaped(suiteName);
+        out.write("\">\n");
+    }
+
+    @Override
+    protected void writeEntry(long index, Kind kind, String field, Object expected, Object actual)
+            throws IOException {
+        String description = describeEntry(kind, field, expected, actual);
+        out.write("  <testcase classname=\"");
+        writeEscaped(suiteName);
+        out.write("\" name=\"");
+        writeEscaped(field);
+        out.write("\">\n    <failure type=\"");
+        out.write(typeName(kind));
+        out.write("\" message=\"");
+        writeEscaped(description);
+        out.write("\">");
+        writeEscaped(description);
+        out.write("</failure>\n  </testcase>\n");
+    }
+
+    @Override
+    protected void writeFooter(long count) throws IOException {
+        if (count == 0) {
+            out.write("  <testcase classname=\"");
+            writeEscaped(suiteName);
+            out.write("\" name=\"comparison\"/>\n");
+        }
+        out.write("</testsuite>\n");
+    }
+
+    // Escapes markup characters, and replaces characters XML 1.0 cannot represent
+    private void writeEscaped(String s) throws IOException {
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+            case '&':
+                out.write("&amp;");
+                break;
+            case '<':
+                out.write("&lt;");
+                break;
+            case '>':
+                out.write("&gt;");
+                break;
+            case '"':
+                out.write("&quot;");
+                break;
+            case '\n':
+                out.write("&#10;");
+                break;
+            case '\r':
+                out.write("&#13;");
+                break;
+            case '\t':
+                out.write("&#9;");
+                break;
+            default:
+                out.write(c < 0x20 || c == 0xFFFE || c == 0xFFFF ? '\uFFFD' : c);
+                break;
+            }
+        }
+    }
+}
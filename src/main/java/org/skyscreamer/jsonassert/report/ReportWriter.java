@@ -0,0 +1,206 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.report;
+
+import java.io.BufferedWriter;
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+
+import org.json.JSONObject;
+import org.skyscreamer.jsonassert.ComparisonListener;
+import org.skyscreamer.jsonassert.FieldComparisonFailure;
+import org.skyscreamer.jsonassert.FieldComparisonFailure.Kind;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+
+/**
+ * Base class for writers that stream comparison failures to an {@link OutputStream} in a structured format, one
+ * entry at a time, without building the whole report in memory. A writer is a {@link ComparisonListener}, so it can
+ * be passed to {@link org.skyscreamer.jsonassert.JSONCompare#compareJSON(String, String,
+ * org.skyscreamer.jsonassert.JSONCompareMode, ComparisonListener)} to write failures as they are found, or be given
+ * an already collected {@link JSONCompareResult} with {@link #write(JSONCompareResult)}. Call {@link #finish()} or
+ * {@link #close()} once all failures have been written to complete the report.
+ *
+ * <p>Output is UTF-8. Write errors while receiving failures are thrown as {@link UncheckedIOException}.</p>
+ */
+public abstract class ReportWriter implements ComparisonListener, Closeable {
+    /**
+     * The report output.
+     */
+    protected final Writer out;
+    private boolean started;
+    private boolean finished;
+    private long count;
+
+    /**
+     * @param out the stream to write the report to
+     */
+    protected ReportWriter(OutputStream out) {
+        this.out = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void onFailure(String field, Object expected, Object actual) {
+        entry(Kind.FAILURE, field, expected, actual);
+    }
+
+    @Override
+    public void onMissing(String field, Object expected) {
+        entry(Kind.MISSING, field, expected, null);
+    }
+
+    @Override
+    public void onUnexpected(String field, Object actual) {
+        entry(Kind.UNEXPECTED, field, null, actual);
+    }
+
+    @Override
+    public void onMessage(String message) {
+        entry(Kind.MESSAGE, message, null, null);
+    }
+
+    /**
+     * Writes every failure recorded in {@code result}, in the order they were reported.
+     *
+     * @param result the result to write
+     * @return this writer
+     */
+    public ReportWriter write(JSONCompareResult result) {
+        result.report(this);
+        return this;
+    }
+
+    /**
+     * @return the number of entries written so far
+     */
+    public long getCount() {
+        return count;
+    }
+
+    /**
+     * Completes the report and flushes it, without closing the underlying stream. Further failures cannot be
+     * written.
+     *
+     * @throws IOException if writing fails
+     */
+    public void finish() throws IOException {
+        start();
+        if (!finished) {
+            finished = true;
+            writeFooter(count);
+        }
+        out.flush();
+    }
+
+    /**
+     * Completes the report and closes the underlying stream.
+     *
+     * @throws IOException if writing fails
+     */
+    @Override
+    public void close() throws IOException {
+        try {
+            finish();
+        }
+        finally {
+            out.close();
+        }
+    }
+
+    private void entry(Kind kind, String field, Object expected, Object actual) {
+        if (finished) {
+            throw new IllegalStateException("Report already finished");
+        }
+        try {
+            start();
+            writeEntry(count++, kind, field, expected, actual);
+        }
+        catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private void start() throws IOException {
+        if (!started) {
+            started = true;
+            writeHeader();
+        }
+    }
+
+    /**
+     * Writes whatever precedes the first entry.
+     *
+     * @throws IOException if writing fails
+     */
+    protected abstract void writeHeader() throws IOException;
+
+    /**
+     * Writes one entry.
+     *
+     * @param index number of entries written before this one
+     * @param kind kind of failure
+     * @param field path of the field, or the message for {@link Kind#MESSAGE} entries
+     * @param expected expected value, null for unexpected and message entries
+     * @param actual actual value, null for missing and message entries
+     * @throws IOException if writing fails
+     */
+    protected abstract void writeEntry(long index, Kind kind, String field, Object expected, Object actual)
+            throws IOException;
+
+    /**
+     * Writes whatever follows the last entry.
+     *
+     * @param count number of entries written
+     * @throws IOException if writing fails
+     */
+    protected abstract void writeFooter(long count) throws IOException;
+
+    /**
+     * Describes an entry the way {@link JSONCompareResult#getMessage()} does.
+     *
+     * @param kind kind of failure
+     * @param field path of the field, or the message
+     * @param expected expected value
+     * @param actual actual value
+     * @return the description
+     * @see FieldComparisonFailure#describe(Kind, String, Object, Object)
+     */
+    protected static String describeEntry(Kind kind, String field, Object expected, Object actual) {
+        return FieldComparisonFailure.describe(kind, field, expected, actual);
+    }
+
+    /**
+     * @param kind kind of failure
+     * @return the name entries of that kind are typed with in reports, e.g. {@code missing}
+     */
+    protected static String typeName(Kind kind) {
+        return kind.name().toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Writes {@code s} as a quoted JSON string.
+     *
+     * @param s the string
+     * @throws IOException if writing fails
+     */
+    protected void writeJSONString(String s) throws IOException {
+        JSONObject.quote(s, out);
+    }
+}
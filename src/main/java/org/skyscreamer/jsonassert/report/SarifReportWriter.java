@@ -0,0 +1,96 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.report;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+import org.skyscreamer.jsonassert.FieldComparisonFailure.Kind;
+
+/**
+ * Streams comparison failures as a SARIF 2.1.0 log with a single run, so that code scanning tools can display them.
+ * Each failure becomes a result whose logical location is the path of the field that failed, with one rule per kind
+ * of failure. If an artifact URI is given, e.g. the file holding the actual JSON, results are also located in it.
+ */
+public class SarifReportWriter extends ReportWriter {
+    private static final String TOOL_NAME = "JSONassert";
+
+    private final String artifactUri;
+
+    /**
+     * @param out the stream to write the report to
+     */
+    public SarifReportWriter(OutputStream out) {
+        this(out, null);
+    }
+
+    /**
+     * @param out the stream to write the report to
+     * @param artifactUri URI of the document compared, or null
+     */
+    public SarifReportWriter(OutputStream out, String artifactUri) {
+        super(out);
+        this.artifactUri = artifactUri;
+    }
+
+    @Override
+    protected void writeHeader() throws IOException {
+        out.write("{\"$schema\":\"https://json.schemastore.org/sarif-2.1.0.json\",\"version\":\"2.1.0\",\"runs\":[{");
+        out.write("\"tool\":{\"driver\":{\"name\":\"" + TOOL_NAME + "\",\"rules\":[");
+        writeRule(Kind.FAILURE, "Actual value does not match expected value");
+        out.write(',');
+        writeRule(Kind.MISSING, "Expected value missing");
+        out.write(',');
+        writeRule(Kind.UNEXPECTED, "Unexpected value");
+        out.write(',');
+        writeRule(Kind.MESSAGE, "Values differ");
+        out.write("]}},\"results\":[");
+    }
+
+    private void writeRule(Kind kind, String description) throws IOException {
+        out.write("{\"id\":");
+        writeJSONString(typeName(kind));
+        out.write(",\"shortDescription\":{\"text\":");
+        writeJSONString(description);
+        out.write("}}");
+    }
+
+    @Override
+    protected void writeEntry(long index, Kind kind, String field, Object expected, Object actual)
+            throws IOException {
+        out.write(index == 0 ? "\n{\"ruleId\":" : ",\n{\"ruleId\":");
+        writeJSONString(typeName(kind));
+        out.write(",\"level\":\"error\",\"message\":{\"text\":");
+        writeJSONString(describeEntry(kind, field, expected, actual));
+        out.write("}");
+        if (kind != Kind.MESSAGE) {
+            out.write(",\"locations\":[{");
+            if (artifactUri != null) {
+                out.write("\"physicalLocation\":{\"artifactLocation\":{\"uri\":");
+                writeJSONString(artifactUri);
+                out.write("}},");
+            }
+            out.write("\"logicalLocations\":[{\"fullyQualifiedName\":");
+            writeJSONString(field);
+            out.write(",\"kind\":\"member\"}]}]");
+        }
+        out.write('}');
+    }
+
+    @Override
+    protected void writeFooter(long count) throws IOException {
+        out.write(count == 0 ? "]}]}\n" : "\n]}]}\n");
+    }
+}
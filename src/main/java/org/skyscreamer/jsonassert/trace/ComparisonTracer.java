@@ -0,0 +1,229 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.trace;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.util.Locale;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.json.JSONObject;
+
+/**
+ * Records a span for each step of a comparison, parsing, top-level comparisons, objects and arrays of at least a
+ * minimum size and customization matcher calls, and writes them in the Chrome trace event format, which
+ * {@code chrome://tracing} and the Perfetto UI open. Nested steps appear nested, one track per thread.
+ *
+ * <p>Tracing is opt-in: install a tracer, run the comparisons, then write it out.</p>
+ *
+ * <pre>
+ * ComparisonTracer tracer = new ComparisonTracer();
+ * ComparisonTracer.install(tracer);
+ * JSONAssert.assertEquals(expected, actual, false);
+ * ComparisonTracer.uninstall();
+ * tracer.writeTo(writer);
+ * </pre>
+ *
+ * <p>A tracer holds at most a fixed number of spans; spans begun once it is full are dropped and counted, so that
+ * tracing a huge comparison cannot exhaust memory.</p>
+ */
+public final class ComparisonTracer {
+    /**
+     * Number of spans kept unless another capacity is given.
+     */
+    public static final int DEFAULT_CAPACITY = 100000;
+
+    /**
+     * Number of keys or elements from which objects and arrays are traced unless another minimum is given.
+     */
+    public static final int DEFAULT_MINIMUM_SIZE = 16;
+
+    private static volatile ComparisonTracer installed;
+
+    private final AtomicReferenceArray<Span> spans;
+    private final AtomicInteger next = new AtomicInteger();
+    private final AtomicInteger dropped = new AtomicInteger();
+    private final int minimumSize;
+    private final long origin = System.nanoTime();
+
+    public ComparisonTracer() {
+        this(DEFAULT_CAPACITY, DEFAULT_MINIMUM_SIZE);
+    }
+
+    /**
+     * @param capacity maximum number of spans kept
+     * @param minimumSize number of keys or elements from which objects and arrays are traced
+     * @throws IllegalArgumentException if capacity or minimumSize is negative
+     */
+    public ComparisonTracer(int capacity, int minimumSize) {
+        if (capacity < 0 || minimumSize < 0) {
+            throw new IllegalArgumentException("Negative capacity or minimum size: " + capacity + ", " + minimumSize);
+        }
+        this.spans = new AtomicReferenceArray<Span>(capacity);
+        this.minimumSize = minimumSize;
+    }
+
+    /**
+     * Makes all comparisons, in every thread, record their spans in {@code tracer} from now on.
+     *
+     * @param tracer the tracer to record in, or null to stop tracing
+     */
+    public static void install(ComparisonTracer tracer) {
+        installed = tracer;
+    }
+
+    /**
+     * Stops all comparisons recording spans.
+     */
+    public static void uninstall() {
+        installed = null;
+    }
+
+    /**
+     * @return the installed tracer, or null if none is installed
+     */
+    public static ComparisonTracer installed() {
+        return installed;
+    }
+
+    /**
+     * Begins a span.
+     *
+     * @param name name of the step, e.g. {@code parse}
+     * @param path JSON path the step applies to, or null
+     * @param size size of the input of the step, or -1
+     * @return the span, to pass to {@link #end(Span)}, or null if the tracer is full
+     */
+    public Span begin(String name, String path, int size) {
+        int index;
+        do {
+            index = next.get();
+            if (index >= spans.length()) {
+                dropped.incrementAndGet();
+                return null;
+            }
+        } while (!next.compareAndSet(index, index + 1));
+        Span span = new Span(name, path, size, Thread.currentThread().getId(), System.nanoTime());
+        spans.set(index, span);
+        return span;
+    }
+
+    /**
+     * Begins a span for an object or array, if it is at least the minimum size.
+     *
+     * @param name name of the step, e.g. {@code array}
+     * @param path JSON path of the object or array
+     * @param size number of keys or elements
+     * @return the span, to pass to {@link #end(Span)}, or null if too small or the tracer is full
+     */
+    public Span beginIfLarge(String name, String path, int size) {
+        return size < minimumSize ? null : begin(name, path, size);
+    }
+
+    /**
+     * Ends {@code span}, unless it is null.
+     *
+     * @param span a span returned by {@link #begin(String, String, int)}, or null
+     */
+    public static void end(Span span) {
+        if (span != null) {
+            span.duration = System.nanoTime() - span.start;
+        }
+    }
+
+    /**
+     * @return the number of spans recorded
+     */
+    public int getSpanCount() {
+        return next.get();
+    }
+
+    /**
+     * @return the number of spans dropped because the tracer was full
+     */
+    public int getDroppedCount() {
+        return dropped.get();
+    }
+
+    /**
+     * Writes the spans ended so far as a Chrome trace event JSON document. Spans still open are left out.
+     *
+     * @param out the writer to write to
+     * @throws IOException if writing fails
+     */
+    public void writeTo(Writer out) throws IOException {
+        out.write("{\"displayTimeUnit\":\"ms\",\"traceEvents\":[");
+        String separator = "\n";
+        int count = getSpanCount();
+        int unfinished = 0;
+        for (int i = 0; i < count; i++) {
+            Span span = spans.get(i);
+            if (span == null || span.duration < 0) {
+                unfinished++;
+                continue;
+            }
+            out.write(separator);
+            separator = ",\n";
+            out.write("{\"ph\":\"X\",\"cat\":\"jsonassert\",\"pid\":1,\"tid\":");
+            out.write(Long.toString(span.threadId));
+            out.write(",\"name\":");
+            out.write(JSONObject.quote(span.name));
+            out.write(",\"ts\":");
+            out.write(micros(span.start - origin));
+            out.write(",\"dur\":");
+            out.write(micros(span.duration));
+            out.write(",\"args\":{");
+            if (span.path != null) {
+                out.write("\"path\":");
+                out.write(JSONObject.quote(span.path));
+            }
+            if (span.size >= 0) {
+                out.write(span.path != null ? ",\"size\":" : "\"size\":");
+                out.write(Integer.toString(span.size));
+            }
+            out.write("}}");
+        }
+        out.write("\n],\"otherData\":{\"droppedSpans\":" + getDroppedCount() + ",\"unfinishedSpans\":" + unfinished
+                + "}}\n");
+        out.flush();
+    }
+
+    private static String micros(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1000.0);
+    }
+
+    /**
+     * One step of a comparison, from {@link #begin(String, String, int)} to {@link #end(Span)}.
+     */
+    public static final class Span {
+        final String name;
+        final String path;
+        final int size;
+        final long threadId;
+        // System.nanoTime(), which may be negative
+        final long start;
+        // -1 until ended; never negative once ended, as System.nanoTime() does not go backwards
+        volatile long duration = -1;
+
+        Span(String name, String path, int size, long threadId, long start) {
+            this.name = name;
+            this.path = path;
+            this.size = size;
+            this.threadId = threadId;
+            this.start = start;
+        }
+    }
+}
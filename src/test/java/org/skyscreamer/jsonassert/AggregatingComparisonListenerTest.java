@@ -0,0 +1,77 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link AggregatingComparisonListener}.
+ */
+public class AggregatingComparisonListenerTest {
+
+    private static String items(int count, String currency) {
+        StringBuilder sb = new StringBuilder("{items:[");
+        for (int i = 0; i < count; i++) {
+            sb.append(i == 0 ? "" : ",").append("{id:").append(i).append(",currency:").append(currency).append('}');
+        }
+        return sb.append("]}").toString();
+    }
+
+    @Test
+    public void repeatedFailuresFormOneGroup() throws JSONException {
+        AggregatingComparisonListener listener = new AggregatingComparisonListener();
+        assertTrue(JSONCompare.compareJSON(items(10000, "USD"), items(10000, "EUR"), JSONCompareMode.STRICT, listener)
+                .failed());
+        List<AggregatingComparisonListener.FailureGroup> groups = listener.getGroups();
+        assertEquals(1, groups.size());
+        AggregatingComparisonListener.FailureGroup group = groups.get(0);
+        assertEquals(FieldComparisonFailure.Kind.FAILURE, group.getKind());
+        assertEquals("items[].currency", group.getPathTemplate());
+        assertEquals("USD", group.getExpected());
+        assertEquals("EUR", group.getActual());
+        assertEquals(10000, group.getCount());
+        assertEquals(AggregatingComparisonListener.DEFAULT_MAX_SAMPLES, group.getSampleFields().size());
+        assertEquals("items[0].currency", group.getSampleFields().get(0));
+        assertEquals("items[].currency\nExpected: USD\n     got: EUR\n10000 time(s), e.g. at items[0].currency, "
+                + "items[1].currency, items[2].currency\n", listener.getMessage());
+    }
+
+    @Test
+    public void differentSignaturesFormSeparateGroups() throws JSONException {
+        AggregatingComparisonListener listener = new AggregatingComparisonListener();
+        JSONCompare.compareJSON("[{a:1,b:2},{a:1,b:2},{a:1,b:2}]", "[{a:2,c:2},{a:3,c:2},{a:2,c:2}]",
+                JSONCompareMode.STRICT, listener);
+        assertEquals(4, listener.getGroups().size());
+        assertEquals(2, listener.getGroups().get(0).getCount());
+        assertEquals(FieldComparisonFailure.Kind.MISSING, listener.getGroups().get(1).getKind());
+        assertEquals(3, listener.getGroups().get(1).getCount());
+        assertEquals(9, listener.getFailureCount());
+    }
+
+    @Test
+    public void groupsBeyondLimitAreOnlyCounted() throws JSONException {
+        AggregatingComparisonListener listener = new AggregatingComparisonListener(1, 0);
+        JSONCompare.compareJSON("{a:1,b:2,c:3}", "{a:4,b:5,c:6}", JSONCompareMode.STRICT, listener);
+        assertEquals(1, listener.getGroups().size());
+        assertEquals(2, listener.getUngroupedCount());
+        assertTrue(listener.getMessage().endsWith(" ; 2 more failure(s) not grouped\n"));
+    }
+}
@@ -19,6 +19,7 @@ import static org.junit.Assert.assertTrue;
 import static org.junit.Assert.fail;
 
 import java.text.MessageFormat;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.json.JSONArray;
 import org.json.JSONException;
@@ -281,4 +282,115 @@ public class ArrayValueMatcherTest {
 		 Customization customization = new Customization("a", new ArrayValueMatcher<Object>(comparator, 1));
 		 JSONAssert.assertEquals("{a:9}", ARRAY_OF_JSONARRAYS, new CustomComparator(JSONCompareMode.LENIENT, customization));
 	}
+
+	@Test
+	public void elementPathsAreNotGroupedForLargeIndices() throws JSONException {
+		StringBuilder actual = new StringBuilder("{a:[");
+		for (int i = 0; i < 1001; i++) {
+			actual.append(i == 1000 ? 2 : 1).append(',');
+		}
+		actual.setCharAt(actual.length() - 1, ']');
+		actual.append('}');
+		doFailingMatchTest("a", new ArrayValueMatcher<Object>(comparator), "{a:[1]}", actual.toString(),
+				"a\\[1000\\]\\s*Expected:\\s*1\\s*got:\\s*2\\s*");
+	}
+
+	@Test
+	public void parallelComparisonReportsSameFailuresInSameOrder() throws JSONException {
+		StringBuilder actual = new StringBuilder("{a:[");
+		for (int i = 0; i < 5000; i++) {
+			actual.append("{id:").append(i).append(",type:").append(i % 997 == 0 ? "column" : "row").append("},");
+		}
+		actual.setCharAt(actual.length() - 1, ']');
+		actual.append('}');
+		JSONCompareResult sequential = JSONCompare.compareJSON("{a:[{type:row}]}", actual.toString(),
+				new CustomComparator(JSONCompareMode.LENIENT, new Customization("a", new ArrayValueMatcher<Object>(comparator))));
+		JSONCompareResult parallel = JSONCompare.compareJSON("{a:[{type:row}]}", actual.toString(),
+				new CustomComparator(JSONCompareMode.LENIENT, new Customization("a",
+						new ArrayValueMatcher<Object>(comparator, 0, Integer.MAX_VALUE, true))));
+		assertTrue(parallel.failed());
+		assertEquals(6, parallel.getFieldFailures().size());
+		assertEquals(sequential.getMessage(), parallel.getMessage());
+		for (int i = 0; i < sequential.getFieldFailures().size(); i++) {
+			assertEquals(sequential.getFieldFailures().get(i).getField(), parallel.getFieldFailures().get(i).getField());
+		}
+	}
+
+	@Test
+	public void parallelComparisonMatchesRepeatingExpectedElements() throws JSONException {
+		StringBuilder actual = new StringBuilder("{a:[");
+		for (int i = 0; i < 3000; i++) {
+			actual.append(i % 2 == 0 ? "white" : "grey").append(',');
+		}
+		actual.setCharAt(actual.length() - 1, ']');
+		actual.append('}');
+		doTest("a", new ArrayValueMatcher<Object>(comparator, 0, Integer.MAX_VALUE, true), "{a:[white,grey]}", actual.toString());
+	}
+
+	@Test
+	public void failedParallelChunkStopsTheOtherChunks() throws Exception {
+		final AtomicInteger compared = new AtomicInteger();
+		JSONComparator failingOnFirstElement = new DefaultComparator(JSONCompareMode.LENIENT) {
+			@Override
+			public void compareValues(String prefix, Object expectedValue, Object actualValue, JSONCompareResult result) {
+				if (prefix.equals("a[0]")) {
+					throw new IllegalStateException("first element");
+				}
+				compared.incrementAndGet();
+				try {
+					Thread.sleep(1);
+				}
+				catch (InterruptedException e) {
+					Thread.currentThread().interrupt();
+				}
+			}
+		};
+		StringBuilder actual = new StringBuilder("{a:[");
+		for (int i = 0; i < 4096; i++) {
+			actual.append(i).append(',');
+		}
+		actual.setCharAt(actual.length() - 1, ']');
+		actual.append('}');
+		try {
+			JSONCompare.compareJSON("{a:[0]}", actual.toString(), new CustomComparator(JSONCompareMode.LENIENT,
+					new Customization("a", new ArrayValueMatcher<Object>(failingOnFirstElement, 0, 4095, true))));
+			fail("Expected the first element's exception");
+		}
+		catch (IllegalStateException e) {
+			// Expected
+		}
+		Thread.sleep(200);
+		int afterFailure = compared.get();
+		Thread.sleep(200);
+		assertEquals(afterFailure, compared.get());
+		assertTrue(afterFailure < 4095);
+	}
+
+	@Test
+	public void parallelElementErrorIsHandledAsInSequentialComparison() throws JSONException {
+		JSONComparator failingOnOneElement = new DefaultComparator(JSONCompareMode.LENIENT) {
+			@Override
+			public void compareValues(String prefix, Object expectedValue, Object actualValue, JSONCompareResult result)
+					throws JSONException {
+				if (prefix.equals("a[2000]")) {
+					throw new JSONException("element 2000");
+				}
+				super.compareValues(prefix, expectedValue, actualValue, result);
+			}
+		};
+		StringBuilder actual = new StringBuilder("{a:[");
+		for (int i = 0; i < 4096; i++) {
+			actual.append("0,");
+		}
+		actual.setCharAt(actual.length() - 1, ']');
+		actual.append('}');
+		JSONCompareResult sequential = JSONCompare.compareJSON("{a:[0]}", actual.toString(), new CustomComparator(
+				JSONCompareMode.LENIENT, new Customization("a",
+						new ArrayValueMatcher<Object>(failingOnOneElement, 0, 4095, false))));
+		JSONCompareResult parallel = JSONCompare.compareJSON("{a:[0]}", actual.toString(), new CustomComparator(
+				JSONCompareMode.LENIENT, new Customization("a",
+						new ArrayValueMatcher<Object>(failingOnOneElement, 0, 4095, true))));
+		assertTrue(sequential.failed());
+		assertEquals(sequential.getMessage(), parallel.getMessage());
+	}
 }
@@ -0,0 +1,131 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link ComparisonListener} and streaming {@link JSONCompareResult}s.
+ */
+public class ComparisonListenerTest {
+
+    private static class EventList implements ComparisonListener {
+        final List<String> events = new ArrayList<String>();
+
+        public void onFailure(String field, Object expected, Object actual) {
+            events.add("failure " + field + " " + expected + " " + actual);
+        }
+
+        public void onMissing(String field, Object expected) {
+            events.add("missing " + field + " " + expected);
+        }
+
+        public void onUnexpected(String field, Object actual) {
+            events.add("unexpected " + field + " " + actual);
+        }
+
+        public void onMessage(String message) {
+            events.add("message " + message);
+        }
+    }
+
+    @Test
+    public void failuresAreStreamedInsteadOfCollected() throws JSONException {
+        EventList listener = new EventList();
+        JSONCompareResult result = JSONCompare.compareJSON("{a:1,b:[1,2],c:3}", "{a:2,b:[1],d:4}",
+                JSONCompareMode.STRICT, listener);
+        assertTrue(result.failed());
+        assertEquals("", result.getMessage());
+        assertTrue(result.getFieldFailures().isEmpty());
+        assertEquals(4, listener.events.size());
+        assertEquals("failure a 1 2", listener.events.get(0));
+        assertEquals("message b[]: Expected 2 values but got 1", listener.events.get(1));
+        assertEquals("missing  c", listener.events.get(2));
+        assertEquals("unexpected  d", listener.events.get(3));
+    }
+
+    @Test
+    public void passingComparisonReportsNothing() throws JSONException {
+        EventList listener = new EventList();
+        assertTrue(JSONCompare.compareJSON("[1,2]", "[2,1]", JSONCompareMode.LENIENT, listener).passed());
+        assertTrue(listener.events.isEmpty());
+    }
+
+    @Test
+    public void defaultResultCollectsLikeBefore() throws JSONException {
+        JSONCompareResult result = JSONCompare.compareJSON("{a:1,c:3}", "{a:2,d:4}", JSONCompareMode.STRICT);
+        assertEquals("a\nExpected: 1\n     got: 2\n ; \nExpected: c\n     but none found\n ; \nUnexpected: d\n",
+                result.getMessage());
+        assertEquals(1, result.getFieldFailures().size());
+        assertEquals(1, result.getFieldMissing().size());
+        assertEquals(1, result.getFieldUnexpected().size());
+    }
+
+    @Test
+    public void resultDoesNotExposeListenerCallbacks() {
+        assertFalse(ComparisonListener.class.isAssignableFrom(JSONCompareResult.class));
+    }
+
+    @Test
+    public void subclassOverridingFailIsToldOfEveryFailure() throws JSONException {
+        final List<String> messages = new ArrayList<String>();
+        JSONCompareResult result = new JSONCompareResult() {
+            @Override
+            public void fail(String message) {
+                messages.add(message);
+                super.fail(message);
+            }
+        };
+        new CustomComparator(JSONCompareMode.STRICT).compareJSON("", new JSONObject("{a:1,b:[1,2],c:3}"),
+                new JSONObject("{a:2,b:[1],d:4}"), result);
+        assertEquals(4, messages.size());
+        assertEquals("a\nExpected: 1\n     got: 2\n", messages.get(0));
+        assertEquals("b[]: Expected 2 values but got 1", messages.get(1));
+        assertEquals("\nExpected: c\n     but none found\n", messages.get(2));
+        assertEquals("\nUnexpected: d\n", messages.get(3));
+        assertTrue(result.failed());
+        assertEquals(4, result.getFailureCount());
+        assertEquals(1, result.getFieldFailures().size());
+        assertEquals(messages.get(0) + " ; " + messages.get(1) + " ; " + messages.get(2) + " ; " + messages.get(3),
+                result.getMessage());
+    }
+
+    @Test
+    public void parallelArrayMatcherStreamsFailuresInOrder() throws JSONException {
+        StringBuilder actual = new StringBuilder("{a:[");
+        for (int i = 0; i < 4000; i++) {
+            actual.append(i % 1000 == 999 ? 2 : 1).append(',');
+        }
+        actual.setCharAt(actual.length() - 1, ']');
+        actual.append('}');
+        EventList listener = new EventList();
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.LENIENT, new Customization("a",
+                new ArrayValueMatcher<Object>(new CustomComparator(JSONCompareMode.LENIENT), 0, 3999, true)));
+        assertTrue(JSONCompare.compareJSON("{a:[1]}", actual.toString(), comparator, listener).failed());
+        assertEquals(4, listener.events.size());
+        assertEquals("failure a[999] 1 2", listener.events.get(0));
+        assertEquals("failure a[3999] 1 2", listener.events.get(3));
+    }
+}
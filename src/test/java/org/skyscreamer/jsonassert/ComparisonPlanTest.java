@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.List;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.ComparisonPlan.Kind;
+import org.skyscreamer.jsonassert.comparator.ArrayComparisonStrategy;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link JSONCompare#explain(String, JSONCompareMode, Customization...)}.
+ */
+public class ComparisonPlanTest {
+
+    private static ComparisonPlan child(ComparisonPlan plan, String path) {
+        for (ComparisonPlan child : plan.getChildren()) {
+            if (child.getPath().equals(path)) {
+                return child;
+            }
+        }
+        throw new AssertionError("No plan for " + path + " in\n" + plan);
+    }
+
+    @Test
+    public void choosesArrayStrategies() throws JSONException {
+        ComparisonPlan plan = JSONCompare.explain(
+                "{ids:[3,1,2],users:[{id:1,n:a},{id:2,n:a}],pairs:[[1],[2]],tags:[{t:a},{t:a}],none:[]}",
+                JSONCompareMode.LENIENT);
+        assertEquals(Kind.OBJECT, plan.getKind());
+        assertEquals(5, plan.getSize());
+        assertEquals(ArrayComparisonStrategy.SIMPLE_VALUE_CARDINALITY, child(plan, "ids").getStrategy());
+        assertEquals(0, child(plan, "ids").getChildren().size());
+
+        ComparisonPlan users = child(plan, "users");
+        assertEquals(ArrayComparisonStrategy.UNIQUE_KEY, users.getStrategy());
+        assertEquals("id", users.getUniqueKey());
+        assertEquals(Kind.OBJECT, child(users, "users[id=2]").getKind());
+
+        assertEquals(ArrayComparisonStrategy.RECURSIVE_FALLBACK, child(plan, "pairs").getStrategy());
+        assertEquals(ArrayComparisonStrategy.RECURSIVE_FALLBACK, child(plan, "tags").getStrategy());
+        assertNull(child(plan, "tags").getUniqueKey());
+        assertNull(child(plan, "none").getStrategy());
+    }
+
+    @Test
+    public void strictModeComparesInOrder() throws JSONException {
+        ComparisonPlan plan = JSONCompare.explain("[{id:1},{id:2}]", JSONCompareMode.STRICT);
+        assertEquals(ArrayComparisonStrategy.STRICT_ORDER, plan.getStrategy());
+        assertEquals("[1]", plan.getChildren().get(1).getPath());
+        // Array length check, plus per element its key and its value
+        assertEquals(1 + 2 * 2, plan.getEstimatedCost());
+    }
+
+    @Test
+    public void estimatesQuadraticCostOfFallback() throws JSONException {
+        ComparisonPlan plan = JSONCompare.explain("[[1],[2],[3]]", JSONCompareMode.LENIENT);
+        // Each element costs a length check and hashing its one value; all 3 are tried for each of the 3 elements
+        assertEquals(1 + 3 * (3 * (1 + 2)), plan.getEstimatedCost());
+    }
+
+    @Test
+    public void attachesCustomizations() throws JSONException {
+        Customization any = new Customization("a.*.x", new RegularExpressionValueMatcher<Object>(".*"));
+        Customization ignored = Customization.ignore("meta.**");
+        ComparisonPlan plan = JSONCompare.explain("{a:{b:{x:1,y:2}},meta:{v:[1,2]}}", JSONCompareMode.LENIENT,
+                any, ignored);
+        ComparisonPlan b = child(child(plan, "a"), "a.b");
+        assertSame(any, child(b, "a.b.x").getCustomization());
+        assertNull(child(b, "a.b.y").getCustomization());
+        ComparisonPlan meta = child(plan, "meta");
+        assertEquals(Kind.IGNORED, meta.getKind());
+        assertEquals(0, meta.getEstimatedCost());
+    }
+
+    @Test
+    public void fallbackElementsMatchCustomizationsRelativeToTheElement() throws JSONException {
+        String expected = "{tags:[{t:\"1\"},{t:\"1\"}]}";
+        String actual = "{tags:[{t:\"2\"},{t:\"2\"}]}";
+        ValueMatcher<Object> anything = new RegularExpressionValueMatcher<Object>(".*");
+        Customization absolute = new Customization("tags[*].t", anything);
+        Customization relative = new Customization("t", anything);
+
+        ComparisonPlan tags = child(JSONCompare.explain(expected, JSONCompareMode.LENIENT, absolute), "tags");
+        assertEquals(ArrayComparisonStrategy.RECURSIVE_FALLBACK, tags.getStrategy());
+        assertNull(child(child(tags, "tags[0]"), "tags[0].t").getCustomization());
+        assertFalse(JSONCompare.compareJSON(expected, actual,
+                new CustomComparator(JSONCompareMode.LENIENT, absolute)).passed());
+
+        tags = child(JSONCompare.explain(expected, JSONCompareMode.LENIENT, relative), "tags");
+        assertSame(relative, child(child(tags, "tags[0]"), "tags[0].t").getCustomization());
+        assertTrue(JSONCompare.compareJSON(expected, actual,
+                new CustomComparator(JSONCompareMode.LENIENT, relative)).passed());
+    }
+
+    @Test
+    public void planRendersAsTree() throws JSONException {
+        String rendered = JSONCompare.explainWithDirectives("{a:[{id:1}],b:\"${any}\"}", JSONCompareMode.LENIENT)
+                .toString();
+        List<String> lines = Arrays.asList(rendered.split("\n"));
+        assertEquals("(root): OBJECT, 2 keys, cost 8", lines.get(0));
+        assertEquals("  a: ARRAY, 1 element, UNIQUE_KEY on id, cost 5", lines.get(1));
+        assertEquals("    a[id=1]: OBJECT, 1 key, cost 2", lines.get(2));
+        assertEquals("      a[id=1].id: VALUE, cost 1", lines.get(3));
+        assertEquals("  b: VALUE, directive ${any}, cost 1", lines.get(4));
+    }
+}
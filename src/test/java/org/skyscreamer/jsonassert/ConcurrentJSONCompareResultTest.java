@@ -0,0 +1,125 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link ConcurrentJSONCompareResult} and {@link JSONCompareResult#merge(JSONCompareResult)}.
+ */
+public class ConcurrentJSONCompareResultTest {
+
+    private static void report(JSONCompareResult result, int i) {
+        switch (i % 4) {
+        case 0:
+            result.fail("a[" + i + "]", i, -i);
+            break;
+        case 1:
+            result.missing("a[" + i + "]", "key" + i);
+            break;
+        case 2:
+            result.unexpected("a[" + i + "]", "key" + i);
+            break;
+        default:
+            result.fail("a[" + i + "]: message");
+            break;
+        }
+    }
+
+    @Test
+    public void mergeAppendsFailuresInOrder() {
+        JSONCompareResult first = new JSONCompareResult();
+        report(first, 0);
+        JSONCompareResult second = new JSONCompareResult();
+        report(second, 1);
+        report(second, 2);
+        report(second, 3);
+        JSONCompareResult sequential = new JSONCompareResult();
+        for (int i = 0; i < 4; i++) {
+            report(sequential, i);
+        }
+        first.merge(second);
+        assertEquals(sequential.getMessage(), first.getMessage());
+        assertEquals(1, first.getFieldMissing().size());
+        assertEquals("a[0]", first.getField());
+    }
+
+    @Test
+    public void mergingPassingResultKeepsPassing() {
+        assertTrue(new JSONCompareResult().merge(new JSONCompareResult()).passed());
+        JSONCompareResult streaming = new JSONCompareResult(new AggregatingComparisonListener());
+        streaming.fail("x");
+        assertFalse(new JSONCompareResult().merge(streaming).passed());
+    }
+
+    @Test
+    public void partitionsWrittenConcurrentlyMergeLikeSequentialRun() throws Exception {
+        JSONCompareResult sequential = new JSONCompareResult();
+        for (int i = 0; i < 4000; i++) {
+            report(sequential, i);
+        }
+        final ConcurrentJSONCompareResult concurrent = new ConcurrentJSONCompareResult();
+        List<Integer> chunks = new ArrayList<Integer>();
+        for (int start = 0; start < 4000; start += 100) {
+            chunks.add(start);
+        }
+        Collections.shuffle(chunks, new Random(42));
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<?>> futures = new ArrayList<Future<?>>();
+            for (final Integer start : chunks) {
+                futures.add(executor.submit(new Runnable() {
+                    public void run() {
+                        JSONCompareResult partition = concurrent.partition(start);
+                        for (int i = start; i < start + 100; i++) {
+                            report(partition, i);
+                        }
+                    }
+                }));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        }
+        finally {
+            executor.shutdown();
+        }
+        assertFalse(concurrent.passed());
+        JSONCompareResult merged = concurrent.toResult();
+        assertEquals(sequential.getMessage(), merged.getMessage());
+        assertEquals(sequential.getFieldFailures().size(), merged.getFieldFailures().size());
+        assertEquals(sequential.getFieldUnexpected().get(999).getField(), merged.getFieldUnexpected().get(999).getField());
+    }
+
+    @Test
+    public void noPartitionsMeansPassed() throws JSONException {
+        ConcurrentJSONCompareResult concurrent = new ConcurrentJSONCompareResult();
+        assertTrue(concurrent.passed());
+        assertTrue(concurrent.toResult().passed());
+    }
+}
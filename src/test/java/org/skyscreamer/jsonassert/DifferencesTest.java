@@ -0,0 +1,139 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+import org.skyscreamer.jsonassert.comparator.JSONComparator;
+
+/**
+ * Unit tests for {@link JSONCompare#differences(String, String, JSONComparator)}.
+ */
+public class DifferencesTest {
+
+    private static String arrayOf(int length, int value) {
+        StringBuilder sb = new StringBuilder("[");
+        for (int i = 0; i < length; i++) {
+            sb.append(i == 0 ? "" : ",").append(value);
+        }
+        return sb.append(']').toString();
+    }
+
+    @Test
+    public void streamsAllDifferencesInOrder() throws JSONException {
+        List<String> fields = JSONCompare.differences("{a:1,b:[1,2],c:3}", "{a:2,b:[1],d:4}", JSONCompareMode.STRICT)
+                .map(new Function<FieldComparisonFailure, String>() {
+                    public String apply(FieldComparisonFailure failure) {
+                        return failure.getField();
+                    }
+                }).collect(Collectors.<String>toList());
+        assertEquals(4, fields.size());
+        assertEquals("a", fields.get(0));
+        assertEquals("b[]: Expected 2 values but got 1", fields.get(1));
+    }
+
+    @Test
+    public void limitStopsComparisonEarly() throws JSONException {
+        final AtomicInteger compared = new AtomicInteger();
+        JSONComparator comparator = new CustomComparator(JSONCompareMode.STRICT, new Customization("[*]",
+                new ValueMatcher<Object>() {
+                    public boolean equal(Object o1, Object o2) {
+                        compared.incrementAndGet();
+                        return false;
+                    }
+                }));
+        Stream<FieldComparisonFailure> differences = JSONCompare.differences(arrayOf(100000, 1), arrayOf(100000, 2),
+                comparator);
+        try {
+            assertEquals(10, differences.limit(10).count());
+        }
+        finally {
+            differences.close();
+        }
+        assertTrue("compared " + compared.get(), compared.get() <= 12);
+    }
+
+    @Test
+    public void nothingIsComparedUntilAsked() throws JSONException {
+        final AtomicInteger compared = new AtomicInteger();
+        JSONComparator comparator = new CustomComparator(JSONCompareMode.STRICT, new Customization("[*]",
+                new ValueMatcher<Object>() {
+                    public boolean equal(Object o1, Object o2) {
+                        compared.incrementAndGet();
+                        return true;
+                    }
+                }));
+        Iterator<FieldComparisonFailure> differences = JSONCompare.differenceIterator("[1,2]", "[1,2]", comparator);
+        assertEquals(0, compared.get());
+        assertFalse(differences.hasNext());
+        assertEquals(2, compared.get());
+    }
+
+    @Test
+    public void missingAndUnexpectedHaveOneSide() throws JSONException {
+        Iterator<FieldComparisonFailure> differences = JSONCompare.differenceIterator("{a:1}", "{b:1}",
+                new CustomComparator(JSONCompareMode.STRICT));
+        FieldComparisonFailure missing = differences.next();
+        assertEquals(FieldComparisonFailure.Kind.MISSING, missing.getKind());
+        assertEquals("a", missing.getExpected());
+        assertNull(missing.getActual());
+        FieldComparisonFailure unexpected = differences.next();
+        assertEquals(FieldComparisonFailure.Kind.UNEXPECTED, unexpected.getKind());
+        assertNull(unexpected.getExpected());
+        assertEquals("b", unexpected.getActual());
+        assertFalse(differences.hasNext());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void comparatorExceptionIsRethrownToConsumer() throws JSONException {
+        Iterator<FieldComparisonFailure> differences = JSONCompare.differenceIterator("{a:[1]}", "{a:1}",
+                new CustomComparator(JSONCompareMode.STRICT, new Customization("a",
+                        new ArrayValueMatcher<Object>(new CustomComparator(JSONCompareMode.STRICT)))));
+        differences.hasNext();
+    }
+
+    @Test
+    public void messageFailuresHaveMessageKind() throws JSONException {
+        Iterator<FieldComparisonFailure> differences = JSONCompare.differenceIterator("[1,2]", "[1]",
+                new CustomComparator(JSONCompareMode.STRICT));
+        FieldComparisonFailure failure = differences.next();
+        assertEquals(FieldComparisonFailure.Kind.MESSAGE, failure.getKind());
+        assertEquals("[]: Expected 2 values but got 1", failure.getField());
+    }
+
+    @Test(expected = AssertionError.class, timeout = 10000)
+    public void comparatorErrorIsRethrownToConsumer() throws JSONException {
+        Iterator<FieldComparisonFailure> differences = JSONCompare.differenceIterator("{a:1}", "{a:2}",
+                new CustomComparator(JSONCompareMode.STRICT, new Customization("a", new ValueMatcher<Object>() {
+                    public boolean equal(Object o1, Object o2) {
+                        throw new AssertionError("matcher failed");
+                    }
+                })));
+        differences.hasNext();
+    }
+}
@@ -0,0 +1,153 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link GlobPathMatcher}, checked against the regular expression built by
+ * {@link Customization#buildPattern(String)}.
+ */
+public class GlobPathMatcherTest {
+
+    private static boolean regexMatches(String glob, String path) {
+        return Pattern.compile(Customization.buildPattern(glob), Pattern.DOTALL).matcher(path).matches();
+    }
+
+    private static void assertSameAsRegex(String glob, String path) {
+        GlobPathMatcher matcher = GlobPathMatcher.compile(glob);
+        assertNotNull(glob, matcher);
+        assertEquals("'" + glob + "' against '" + path + "'", regexMatches(glob, path), matcher.matches(path));
+    }
+
+    @Test
+    public void literalPathMatchesOnlyItself() {
+        GlobPathMatcher matcher = GlobPathMatcher.compile("outer.inner.value");
+        assertTrue(matcher.matches("outer.inner.value"));
+        assertFalse(matcher.matches("outer.inner.values"));
+        assertFalse(matcher.matches("outer.inner"));
+    }
+
+    @Test
+    public void singleStarDoesNotCrossDots() {
+        GlobPathMatcher matcher = GlobPathMatcher.compile("foo.*.baz");
+        assertTrue(matcher.matches("foo.bar1.baz"));
+        assertTrue(matcher.matches("foo.a[0].baz"));
+        assertFalse(matcher.matches("foo..baz"));
+        assertFalse(matcher.matches("foo.a.b.baz"));
+    }
+
+    @Test
+    public void doubleStarDotMayMatchNothing() {
+        GlobPathMatcher matcher = GlobPathMatcher.compile("**.baz");
+        assertTrue(matcher.matches("baz"));
+        assertTrue(matcher.matches("root.baz"));
+        assertTrue(matcher.matches("root.foo.bar.baz"));
+        assertFalse(matcher.matches("rootbaz"));
+    }
+
+    @Test
+    public void trailingWildcardsMatchRemainingSegments() {
+        assertTrue(GlobPathMatcher.compile("metadata.**").matches("metadata.a.b[3]"));
+        assertFalse(GlobPathMatcher.compile("metadata.**").matches("metadata"));
+        assertTrue(GlobPathMatcher.compile("a.*").matches("a.b"));
+        assertFalse(GlobPathMatcher.compile("a.*").matches("a.b.c"));
+        assertTrue(GlobPathMatcher.compile("**").matches("anything.at.all"));
+    }
+
+    @Test
+    public void hugePatternsAreLeftToRegularExpressions() {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < 40; i++) {
+            sb.append("*.");
+        }
+        sb.append("**");
+        assertNull(GlobPathMatcher.compile(sb.toString()));
+        StringBuilder path = new StringBuilder();
+        for (int i = 0; i < 41; i++) {
+            path.append("x.");
+        }
+        path.append("y");
+        assertTrue(new Customization(sb.toString(), new RegularExpressionValueMatcher<Object>()).appliesToPath(path.toString()));
+    }
+
+    @Test
+    public void detectsPatternsThatDependOnArrayIndices() {
+        assertFalse(GlobPathMatcher.dependsOnArrayIndex("items[*].price"));
+        assertFalse(GlobPathMatcher.dependsOnArrayIndex("**.price"));
+        assertTrue(GlobPathMatcher.dependsOnArrayIndex("items[0].price"));
+        assertTrue(GlobPathMatcher.dependsOnArrayIndex("items[***].price"));
+    }
+
+    @Test
+    public void agreesWithRegularExpressionOnKnownPatterns() {
+        String[] globs = { "a", "a.b", "*", "**", "**.", "***", "***.", "*.**", "**.*", "a.**.b", "**.b.**",
+                "a[*].b", "a.*.*", "*[0]", "a**b", "a*.*b", ".**" };
+        String[] paths = { "", "a", "b", "a.b", "a..b", "a.x.b", "a.x.y.b", "a[0].b", "a[12].b", "x.b.y", ".",
+                "..", "ab", "a.b.", "a\nb", "z[0]", "a.x", ".x" };
+        for (String glob : globs) {
+            for (String path : paths) {
+                assertSameAsRegex(glob, path);
+            }
+        }
+    }
+
+    @Test
+    public void agreesWithRegularExpressionOnRandomPatterns() {
+        Random random = new Random(20170319L);
+        String globAlphabet = "ab.*[]0";
+        String pathAlphabet = "ab.[]0\n";
+        for (int n = 0; n < 20000; n++) {
+            String glob = randomString(random, globAlphabet, 8);
+            String path = randomString(random, pathAlphabet, 10);
+            assertSameAsRegex(glob, path);
+        }
+    }
+
+    @Test
+    public void indexInvariantPatternsIgnoreIndexValues() {
+        Random random = new Random(20161030L);
+        String[] paths = { "a[0]", "a[0].b", "[7].a[0]", "a.b[3][4]", "b[1].a" };
+        for (int n = 0; n < 5000; n++) {
+            String glob = randomString(random, "ab.*[]", 8);
+            if (GlobPathMatcher.dependsOnArrayIndex(glob)) {
+                continue;
+            }
+            GlobPathMatcher matcher = GlobPathMatcher.compile(glob);
+            for (String path : paths) {
+                String otherPath = path.replaceAll("\\d", "12");
+                assertEquals(glob + " against " + path, matcher.matches(path), matcher.matches(otherPath));
+            }
+        }
+    }
+
+    private static String randomString(Random random, String alphabet, int maxLength) {
+        int length = random.nextInt(maxLength + 1);
+        StringBuilder sb = new StringBuilder(length);
+        for (int i = 0; i < length; i++) {
+            sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+        }
+        return sb.toString();
+    }
+}
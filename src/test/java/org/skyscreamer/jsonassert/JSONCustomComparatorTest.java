@@ -166,4 +166,68 @@ public class JSONCustomComparatorTest {
         assertTrue(result.getMessage(), result.passed());
         assertEquals(4, comparatorCallCount);
     }
+
+    @Test
+    public void whenSubtreeIsIgnoredThenItIsNotTraversed() throws JSONException {
+        JSONComparator jsonCmp = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("**.value", comparator), Customization.ignore("outer.**"));
+        JSONCompareResult result = compareJSON(deepExpected, "{\"outer\":{\"inner\":{\"value\":\"other\"},\"extra\":1}}", jsonCmp);
+        assertTrue(result.getMessage(), result.passed());
+        assertEquals(0, comparatorCallCount);
+    }
+
+    @Test
+    public void whenSubtreeIsIgnoredThenItsOwnTypeIsStillCompared() throws JSONException {
+        JSONComparator jsonCmp = new CustomComparator(JSONCompareMode.STRICT, Customization.ignore("outer.**"));
+        JSONCompareResult result = compareJSON(deepExpected, "{\"outer\":\"not an object\"}", jsonCmp);
+        assertTrue(result.failed());
+    }
+
+    @Test
+    public void whenPathIsIgnoredThenMissingAndUnexpectedKeysAreNotReported() throws JSONException {
+        JSONComparator jsonCmp = new CustomComparator(JSONCompareMode.STRICT,
+                Customization.ignore("first"), Customization.ignore("**.timestamp"));
+        JSONCompareResult result = compareJSON("{\"first\":\"expected\", \"second\":1, \"timestamp\":1}",
+                "{\"second\":1, \"nested\":{\"timestamp\":2}}", jsonCmp);
+        assertTrue(result.failed());
+        assertEquals(1, result.getFieldUnexpected().size());
+        assertEquals(0, result.getFieldMissing().size());
+        result = compareJSON("{\"first\":\"expected\", \"second\":1, \"timestamp\":1}",
+                "{\"second\":1, \"timestamp\":2}", jsonCmp);
+        assertTrue(result.getMessage(), result.passed());
+    }
+
+    @Test
+    public void whenMatcherIsSpecializedThenValuesArePassedUnboxed() throws JSONException {
+        final StringBuilder calls = new StringBuilder();
+        class RecordingMatcher implements ValueMatcher<Object>, LongValueMatcher, DoubleValueMatcher,
+                BooleanValueMatcher, CharSequenceValueMatcher {
+            public boolean equal(Object o1, Object o2) {
+                calls.append("object ");
+                return true;
+            }
+            public boolean equalLong(long actual, long expected) {
+                calls.append("long ");
+                return true;
+            }
+            public boolean equalDouble(double actual, double expected) {
+                calls.append("double ");
+                return true;
+            }
+            public boolean equalBoolean(boolean actual, boolean expected) {
+                calls.append("boolean ");
+                return true;
+            }
+            public boolean equalCharSequence(CharSequence actual, CharSequence expected) {
+                calls.append("string ");
+                return true;
+            }
+        }
+        JSONComparator jsonCmp = new CustomComparator(JSONCompareMode.STRICT_ORDER,
+                new Customization("a[*]", new RecordingMatcher()));
+        JSONCompareResult result = compareJSON("{a:[1,2.5,true,\"x\",1,null]}",
+                "{a:[2,3,false,\"y\",\"1\",null]}", jsonCmp);
+        assertTrue(result.getMessage(), result.passed());
+        assertEquals("long double boolean string object object ", calls.toString());
+    }
 }
@@ -0,0 +1,154 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
+
+import java.util.Random;
+import java.util.regex.Pattern;
+import java.util.regex.PatternSyntaxException;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link LinearRegularExpressionValueMatcher} and the {@link LinearPattern} engine behind it.
+ */
+public class LinearRegularExpressionValueMatcherTest {
+
+	private void doTest(String jsonPath, String regex, String expectedJSON, String actualJSON) throws JSONException {
+		JSONAssert.assertEquals(expectedJSON, actualJSON, new CustomComparator(JSONCompareMode.STRICT_ORDER,
+				new Customization(jsonPath, new LinearRegularExpressionValueMatcher<Object>(regex))));
+	}
+
+	@Test
+	public void constantRegexMatchesStringAttribute() throws JSONException {
+		doTest("a.b.c", ".*Is.*", "{a:{b:{c:x}}}", "{a:{b:{c:thisIsAString}}}");
+	}
+
+	@Test
+	public void dynamicRegexMatchesEveryArrayElement() throws JSONException {
+		doTest("a[*]", null, "{a:[\"\\\\d+\",\"\\\\d+\",\"[a-c]x\"]}", "{a:[1,22,bx]}");
+	}
+
+	@Test(expected = AssertionError.class)
+	public void failsWhenPatternDoesNotMatch() throws JSONException {
+		doTest("a", "v\\d", "{a:x}", "{a:vv}");
+	}
+
+	@Test
+	public void unsupportedConstantPatternIsRejected() {
+		String[] patterns = { "(a)\\1", "a(?=b)", "\\bword", "a*+", "(?i)a", "(?>a)", "\\p{Alpha}", "[a[b]]",
+				"[a-z&&[^e]]", "a^", "$a" };
+		for (String pattern : patterns) {
+			try {
+				new LinearRegularExpressionValueMatcher<Object>(pattern);
+				fail("Expected " + pattern + " to be rejected");
+			}
+			catch (IllegalArgumentException e) {
+				assertTrue(e.getMessage(), e.getMessage().contains("Not supported by the linear-time engine"));
+			}
+		}
+	}
+
+	@Test
+	public void unsupportedDynamicPatternFailsComparison() throws JSONException {
+		JSONCompareResult result = JSONCompare.compareJSON("{a:\"(x)\\\\1\"}", "{a:xx}", new CustomComparator(
+				JSONCompareMode.STRICT, new Customization("a", new LinearRegularExpressionValueMatcher<Object>())));
+		assertTrue(result.failed());
+		assertTrue(result.getMessage(), result.getMessage().contains("Dynamic expected pattern invalid"));
+	}
+
+	// A backtracking engine would not finish on even 30 characters; 10,000 take milliseconds here, well inside the limit
+	@Test(timeout = 10000)
+	public void catastrophicBacktrackingPatternRunsInLinearTime() {
+		StringBuilder sb = new StringBuilder();
+		for (int i = 0; i < 10000; i++) {
+			sb.append('a');
+		}
+		sb.append('!');
+		assertFalse(LinearPattern.compile("(a+)+b").matches(sb));
+		assertFalse(LinearPattern.compile("(a|aa)*c").matches(sb));
+		assertTrue(LinearPattern.compile("(a|aa)*!").matches(sb));
+	}
+
+	@Test
+	public void agreesWithJavaRegexOnKnownPatterns() {
+		String[] patterns = { "", "a", "a|b", "ab*c", "a+b?", "(ab)*", "(?:a|b){2,3}", "[a-c]+", "[^a]*",
+				"\\d{2}-\\d{2}", "\\w+@\\w+\\.com", "\\s*x\\s*", ".*", "a.c", "^abc$", "\\Qa.b\\E", "[\\d.]+",
+				"\\x41\\u0042", "a{0}", "a{2,}", "(?<name>a)b", "[-a]", "[a-]", "[]a]", "a*?b", "\\.", "\\t" };
+		String[] inputs = { "", "a", "b", "ab", "abc", "abbbc", "aab", "abab", "12-34", "joe@example.com",
+				"  x ", "a\nc", "axc", "a.b", "AB", "9.5", "-", "]", "aaa", "\t" };
+		for (String pattern : patterns) {
+			for (String input : inputs) {
+				assertSameAsJava(pattern, input);
+			}
+		}
+	}
+
+	@Test
+	public void agreesWithJavaRegexOnRandomPatterns() {
+		Random random = new Random(20131231L);
+		for (int n = 0; n < 5000; n++) {
+			String pattern = randomRegex(random, 3);
+			for (int k = 0; k < 10; k++) {
+				assertSameAsJava(pattern, randomString(random, "ab1 \n", 8));
+			}
+		}
+	}
+
+	private static void assertSameAsJava(String pattern, String input) {
+		boolean expected = Pattern.compile(pattern).matcher(input).matches();
+		try {
+			assertEquals("'" + pattern + "' against '" + input + "'", expected, LinearPattern.compile(pattern).matches(input));
+		}
+		catch (PatternSyntaxException e) {
+			fail(pattern + ": " + e.getMessage());
+		}
+	}
+
+	private static String randomRegex(Random random, int depth) {
+		String[] atoms = { "a", "b", "1", ".", "\\d", "\\s", "[ab]", "[^a]", "\\w", " " };
+		StringBuilder sb = new StringBuilder();
+		int terms = 1 + random.nextInt(3);
+		for (int i = 0; i < terms; i++) {
+			if (depth > 0 && random.nextInt(4) == 0) {
+				sb.append('(').append(randomRegex(random, depth - 1));
+				if (random.nextBoolean()) {
+					sb.append('|').append(randomRegex(random, depth - 1));
+				}
+				sb.append(')');
+			} else {
+				sb.append(atoms[random.nextInt(atoms.length)]);
+			}
+			String[] quantifiers = { "", "", "*", "+", "?", "{1,2}", "{2}", "*?" };
+			sb.append(quantifiers[random.nextInt(quantifiers.length)]);
+		}
+		return sb.toString();
+	}
+
+	private static String randomString(Random random, String alphabet, int maxLength) {
+		int length = random.nextInt(maxLength + 1);
+		StringBuilder sb = new StringBuilder(length);
+		for (int i = 0; i < length; i++) {
+			sb.append(alphabet.charAt(random.nextInt(alphabet.length())));
+		}
+		return sb.toString();
+	}
+}
@@ -0,0 +1,90 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+import static org.skyscreamer.jsonassert.JSONCompare.compareJSONWithDirectives;
+
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link MatcherDirective}.
+ */
+public class MatcherDirectiveTest {
+
+    @Test
+    public void directivesMatchValuesAtTheirNode() throws JSONException {
+        JSONCompareResult result = compareJSONWithDirectives(
+                "{id:\"${uuid}\",count:\"${regex:^[0-9]+$}\",price:\"${number:9.99~0.01}\",extra:\"${any}\","
+                        + "total:\"${number}\",at:\"${timestamp}\"}",
+                "{id:\"123e4567-e89b-12d3-a456-426614174000\",count:42,price:9.995,extra:null,total:3,"
+                        + "at:\"2013-12-31T23:59:59Z\"}",
+                JSONCompareMode.STRICT);
+        assertTrue(result.getMessage(), result.passed());
+    }
+
+    @Test
+    public void mismatchesAreReportedAgainstTheDirective() throws JSONException {
+        JSONCompareResult result = compareJSONWithDirectives("{a:\"${number:5}\",b:{c:\"${uuid}\"}}",
+                "{a:6,b:{c:x}}", JSONCompareMode.LENIENT);
+        assertEquals(2, result.getFieldFailures().size());
+        assertEquals("a", result.getFieldFailures().get(0).getField());
+        assertEquals("${number:5}", result.getFieldFailures().get(0).getExpected().toString());
+        assertTrue(result.getFieldFailures().get(1).getField().startsWith("b.c"));
+    }
+
+    @Test
+    public void directivesMatchArrayElementsInAnyOrder() throws JSONException {
+        assertTrue(compareJSONWithDirectives("[\"${regex:b.*}\",\"${number}\",\"a\"]", "[\"a\",7,\"bc\"]",
+                JSONCompareMode.LENIENT).passed());
+        assertTrue(compareJSONWithDirectives("[{id:\"${any}\",v:1},{id:2,v:\"${number}\"}]",
+                "[{id:2,v:5},{id:\"x\",v:1}]", JSONCompareMode.NON_EXTENSIBLE).passed());
+        assertTrue(compareJSONWithDirectives("[\"${number}\"]", "[\"7\"]", JSONCompareMode.LENIENT).failed());
+    }
+
+    @Test
+    public void directivesTakePrecedenceOverCustomizations() throws JSONException {
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("a", new RegularExpressionValueMatcher<Object>("never")));
+        assertTrue(compareJSONWithDirectives("{a:\"${any}\"}", "{a:1}", comparator).passed());
+    }
+
+    @Test
+    public void doubledDollarIsLiteral() throws JSONException {
+        assertTrue(compareJSONWithDirectives("{a:\"$${any}\"}", "{a:\"${any}\"}", JSONCompareMode.STRICT).passed());
+        assertTrue(compareJSONWithDirectives("{a:\"$${any}\"}", "{a:1}", JSONCompareMode.STRICT).failed());
+    }
+
+    @Test
+    public void compiledDocumentPrintsDirectivesAsWritten() throws JSONException {
+        Object expected = JSONParser.parseJSONWithDirectives("{a:\"${regex:\\\\d+}\"}");
+        assertTrue(((JSONObject) expected).get("a") instanceof MatcherDirective);
+        assertEquals("{\"a\":\"${regex:\\\\d+}\"}", expected.toString());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void unknownDirectiveIsRejected() throws JSONException {
+        JSONParser.parseJSONWithDirectives("{a:[\"${anything}\"]}");
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void invalidDirectiveArgumentIsRejected() throws JSONException {
+        JSONParser.parseJSONWithDirectives("{a:\"${number:five}\"}");
+    }
+}
@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+
+import org.json.JSONException;
+import org.junit.Test;
+
+/**
+ * Unit tests for {@link PathTree} and the compact failure storage of {@link JSONCompareResult}.
+ */
+public class PathTreeTest {
+
+    @Test
+    public void nodesRenderOriginalPaths() {
+        PathTree tree = new PathTree();
+        String[] paths = { "", "a", "a.b", "items[3].price", "[0]", ".x", "a..b", "a[", "a[id=1].b: message. more",
+                "x[1][2]", "a[007]", "a[-1]", "a[ 1]", "a[1234567890]", "a[]" };
+        for (String path : paths) {
+            assertEquals(path, tree.intern(path).toString());
+        }
+    }
+
+    @Test
+    public void equalConsecutivePathsShareOneNode() {
+        PathTree tree = new PathTree();
+        PathTree.Node node = tree.intern("items[3].price");
+        assertSame(node, tree.intern(new StringBuilder("items[3]").append(".price").toString()));
+    }
+
+    @Test
+    public void pathsShareTheirCommonPrefixWithThePreviousPath() {
+        PathTree tree = new PathTree();
+        PathTree.Node price = tree.intern("order.items[1].price");
+        PathTree.Node quantity = tree.intern("order.items[1].quantity");
+        assertSame(price.parent, quantity.parent);
+        PathTree.Node nextPrice = tree.intern("order.items[2].price");
+        assertSame(price.parent.parent, nextPrice.parent.parent);
+        assertNotSame(price.parent, nextPrice.parent);
+        assertEquals("order.items[2]", nextPrice.parent.toString());
+    }
+
+    @Test
+    public void pathsShareEveryStoredPrefix() {
+        PathTree tree = new PathTree();
+        PathTree.Node first = tree.intern("order.items[1].price");
+        tree.intern("customer.name");
+        tree.intern("order.total");
+        PathTree.Node again = tree.intern("order.items[1].quantity");
+        assertSame(first.parent, again.parent);
+        assertSame(first.parent, tree.intern("order.items[1]"));
+        assertEquals("order.items[1].quantity", again.toString());
+    }
+
+    @Test
+    public void manySiblingsRenderOriginalPaths() {
+        PathTree tree = new PathTree();
+        PathTree.Node[] nodes = new PathTree.Node[1000];
+        for (int i = 0; i < nodes.length; i++) {
+            nodes[i] = tree.intern("a[" + i + "].b");
+        }
+        for (int i = nodes.length - 1; i >= 0; i--) {
+            assertSame(nodes[i].parent, tree.intern("a[" + i + "].c").parent);
+            assertEquals("a[" + i + "].b", nodes[i].toString());
+        }
+    }
+
+    @Test
+    public void failuresRenderFieldsAndMessageOnDemand() throws JSONException {
+        JSONCompareResult result = JSONCompare.compareJSON("{a:{b:[1,2]},c:1}", "{a:{b:[1,3]},d:1}",
+                JSONCompareMode.STRICT);
+        assertEquals("a.b[1]", result.getFieldFailures().get(0).getField());
+        assertEquals("", result.getFieldMissing().get(0).getField());
+        assertEquals("a.b[1]\nExpected: 2\n     got: 3\n ; \nExpected: c\n     but none found\n ; \nUnexpected: d\n",
+                result.getMessage());
+        assertEquals(result.getMessage(), result.toString());
+    }
+
+    @Test
+    public void messageIsExtendedByLaterFailures() {
+        JSONCompareResult result = new JSONCompareResult();
+        result.fail("a[0]", 1, 2);
+        String message = result.getMessage();
+        result.fail("a[1]", 1, 2);
+        assertEquals(message + " ; a[1]\nExpected: 1\n     got: 2\n", result.getMessage());
+    }
+}
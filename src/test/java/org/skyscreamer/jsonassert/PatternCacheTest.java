@@ -0,0 +1,102 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
+import static org.junit.Assert.assertTrue;
+
+import java.util.regex.Pattern;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link PatternCache}.
+ */
+public class PatternCacheTest {
+
+    @Test
+    public void repeatedPatternIsCompiledOnce() {
+        PatternCache cache = new PatternCache(4);
+        Pattern first = cache.compile("\\d+");
+        assertSame(first, cache.compile("\\d+"));
+        assertEquals(1, cache.getHitCount());
+        assertEquals(1, cache.getMissCount());
+        assertEquals(0.5, cache.getHitRate(), 0.0);
+    }
+
+    @Test
+    public void leastRecentlyUsedPatternIsEvicted() {
+        PatternCache cache = new PatternCache(2);
+        Pattern a = cache.compile("a");
+        cache.compile("b");
+        cache.compile("a");
+        cache.compile("c");
+        assertEquals(2, cache.size());
+        assertSame(a, cache.compile("a"));
+        Pattern b = cache.compile("b");
+        assertEquals(4, cache.getMissCount());
+        cache.setMaximumSize(1);
+        assertEquals(1, cache.size());
+        assertSame(b, cache.compile("b"));
+    }
+
+    @Test
+    public void zeroSizeDisablesCaching() {
+        PatternCache cache = new PatternCache(0);
+        assertNotSame(cache.compile("a"), cache.compile("a"));
+        assertEquals(0, cache.size());
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeSizeIsRejected() {
+        new PatternCache(-1);
+    }
+
+    @Test
+    public void dynamicMatcherCompilesSharedPatternOncePerArray() throws JSONException {
+        PatternCache cache = new PatternCache(8);
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("a[*]", new RegularExpressionValueMatcher<Object>(null, cache)));
+        JSONAssert.assertEquals("{a:[\"\\\\d+\",\"\\\\d+\",\"\\\\d+\",\"\\\\d+\"]}", "{a:[1,2,3,4]}", comparator);
+        assertEquals(1, cache.getMissCount());
+        assertEquals(3, cache.getHitCount());
+        assertTrue(cache.getHitRate() > 0.7);
+    }
+
+    @Test
+    public void alternatingLinearPatternsAreEachCompiledOnce() throws JSONException {
+        PatternCache cache = new PatternCache(8);
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("a[*]", new LinearRegularExpressionValueMatcher<Object>(null, cache)));
+        JSONAssert.assertEquals("{a:[\"\\\\d+\",\"[a-z]+\",\"\\\\d+\",\"[a-z]+\",\"\\\\d+\",\"[a-z]+\"]}",
+                "{a:[1,x,2,y,3,z]}", comparator);
+        assertEquals(2, cache.getMissCount());
+        assertEquals(4, cache.getHitCount());
+    }
+
+    @Test
+    public void linearAndJavaPatternsAreCachedSeparately() {
+        PatternCache cache = new PatternCache(4);
+        Pattern pattern = cache.compile("a+");
+        LinearPattern linear = cache.compileLinear("a+");
+        assertEquals(2, cache.size());
+        assertSame(pattern, cache.compile("a+"));
+        assertSame(linear, cache.compileLinear("a+"));
+    }
+}
@@ -117,4 +117,19 @@ public class RegularExpressionValueMatcherTest {
     		Assert.assertTrue("Invalid exception message returned: "+ e.getMessage(), e.getMessage().startsWith(ARRAY_ELEMENT_PREFIX + ": Constant expected pattern did not match value"));
     	}
     }
+
+	@Test
+	public void subclassOverridingEqualIsCalledForStrings() throws JSONException {
+		final int[] calls = new int[1];
+		RegularExpressionValueMatcher<Object> matcher = new RegularExpressionValueMatcher<Object>("v.") {
+			@Override
+			public boolean equal(Object actual, Object expected) {
+				calls[0]++;
+				return "anything".equals(actual) || super.equal(actual, expected);
+			}
+		};
+		JSONAssert.assertEquals("{a:x,b:x}", "{a:v1,b:anything}", new CustomComparator(JSONCompareMode.STRICT,
+				new Customization("*", matcher)));
+		Assert.assertEquals(2, calls[0]);
+	}
 }
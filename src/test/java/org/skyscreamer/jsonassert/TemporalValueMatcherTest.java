@@ -0,0 +1,109 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.util.Random;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link IsoDateTimeValueMatcher}, {@link EpochRangeValueMatcher} and {@link UuidValueMatcher}.
+ */
+public class TemporalValueMatcherTest {
+
+	@Test
+	public void acceptsIsoOffsetDateTimes() {
+		String[] valid = { "2013-12-31T23:59:59Z", "2013-12-31T23:59Z", "2013-12-31T23:59:59.1+01:00",
+				"2012-02-29T00:00:00.123456789-05:30", "2000-02-29T12:00:00+18:00", "2013-01-01T00:00:00-01:00:30",
+				"2013-12-31T23:59:59+01" };
+		for (String s : valid) {
+			assertTrue(s, IsoDateTimeValueMatcher.isValid(s));
+		}
+		String[] invalid = { "", "2013-12-31", "2013-12-31T23:59:59", "2013-13-01T00:00Z", "2013-02-29T00:00Z",
+				"1900-02-29T00:00Z", "2013-12-31T24:00:00Z", "2013-12-31T23:60Z", "2013-12-31T23:59:60Z",
+				"2013-12-31T23:59:59.Z", "2013-12-31T23:59:59.1234567890Z", "2013-12-31 23:59:59Z",
+				"2013-12-31T23:59:59+19:00", "2013-12-31T23:59:59+0100", "2013-12-31T23:59:59ZZ", "2013-12-31T23:59:59+01:00:" };
+		for (String s : invalid) {
+			assertFalse(s, IsoDateTimeValueMatcher.isValid(s));
+		}
+	}
+
+	@Test
+	public void agreesWithDateTimeFormatterOnMutatedDateTimes() {
+		Random random = new Random(20131231L);
+		String alphabet = "0123456789-:T.Z+";
+		String[] seeds = { "2013-12-31T23:59:59.123+01:00", "2012-02-29T00:00Z", "2013-06-30T12:30:45-08:00" };
+		for (int n = 0; n < 20000; n++) {
+			StringBuilder sb = new StringBuilder(seeds[random.nextInt(seeds.length)]);
+			int mutations = 1 + random.nextInt(2);
+			for (int m = 0; m < mutations; m++) {
+				sb.setCharAt(random.nextInt(sb.length()), alphabet.charAt(random.nextInt(alphabet.length())));
+			}
+			String s = sb.toString();
+			boolean expected;
+			try {
+				DateTimeFormatter.ISO_OFFSET_DATE_TIME.parse(s);
+				expected = true;
+			}
+			catch (DateTimeParseException e) {
+				expected = false;
+			}
+			assertEquals(s, expected, IsoDateTimeValueMatcher.isValid(s));
+		}
+	}
+
+	@Test
+	public void acceptsCanonicalUuids() {
+		assertTrue(UuidValueMatcher.isValid("123e4567-e89b-12d3-a456-426614174000"));
+		assertTrue(UuidValueMatcher.isValid("123E4567-E89B-12D3-A456-426614174000"));
+		assertFalse(UuidValueMatcher.isValid("123e4567e89b12d3a456426614174000"));
+		assertFalse(UuidValueMatcher.isValid("123e4567-e89b-12d3-a456-42661417400g"));
+		assertFalse(UuidValueMatcher.isValid("123e4567-e89b-12d3-a456_426614174000"));
+	}
+
+	@Test(expected = ValueMatcherException.class)
+	public void rejectsUuidOfOtherVersion() {
+		new UuidValueMatcher(4).equalCharSequence("123e4567-e89b-12d3-a456-426614174000", "");
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void rejectsEmptyEpochRange() {
+		new EpochRangeValueMatcher(10, 9);
+	}
+
+	@Test
+	public void matchersApplyThroughCustomizations() throws JSONException {
+		CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+				Customization.customization("**.id", new UuidValueMatcher(1)),
+				Customization.customization("**.at", new IsoDateTimeValueMatcher()),
+				Customization.customization("**.epoch", new EpochRangeValueMatcher(1388448000L, 1388534399L)));
+		String expected = "{id:x,at:x,epoch:x,items:[{id:x,epoch:0}]}";
+		JSONAssert.assertEquals(expected, "{id:\"123e4567-e89b-12d3-a456-426614174000\",at:\"2013-12-31T23:59:59Z\","
+				+ "epoch:1388534399,items:[{id:\"00000000-0000-1000-8000-000000000000\",epoch:1388448000}]}", comparator);
+		JSONCompareResult result = JSONCompare.compareJSON(expected, "{id:\"123e4567-e89b-12d3-a456-426614174000\","
+				+ "at:\"2013-12-31\",epoch:1388534400,items:[{id:7,epoch:\"1388448000\"}]}", comparator);
+		assertEquals(4, result.getFieldFailures().size());
+		assertTrue(result.getFieldFailures().get(0).getField().startsWith("at: "));
+		assertEquals("timestamp from 1388448000 to 1388534399", result.getFieldFailures().get(1).getExpected());
+	}
+}
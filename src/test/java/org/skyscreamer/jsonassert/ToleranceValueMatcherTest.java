@@ -0,0 +1,83 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link ToleranceValueMatcher}.
+ */
+public class ToleranceValueMatcherTest {
+
+	@Test
+	public void absoluteToleranceBoundsDifference() {
+		ToleranceValueMatcher matcher = ToleranceValueMatcher.absolute(0.01);
+		assertTrue(matcher.equalDouble(1.005, 1.0));
+		assertTrue(matcher.equalDouble(-3, -3.0));
+		assertFalse(matcher.equalDouble(1.02, 1.0));
+		assertTrue(ToleranceValueMatcher.absolute(0).equalDouble(2.5, 2.5));
+	}
+
+	@Test
+	public void relativeToleranceScalesWithMagnitude() {
+		ToleranceValueMatcher matcher = ToleranceValueMatcher.relative(0.01);
+		assertTrue(matcher.equalDouble(1005000, 1000000));
+		assertFalse(matcher.equalDouble(1.02, 1.0));
+		assertFalse(matcher.equalDouble(0.0001, 0));
+		assertTrue(matcher.equalDouble(Double.POSITIVE_INFINITY, Double.POSITIVE_INFINITY));
+	}
+
+	@Test
+	public void ulpToleranceCountsRepresentableDoubles() {
+		ToleranceValueMatcher matcher = ToleranceValueMatcher.ulps(2);
+		assertTrue(matcher.equalDouble(0.1 + 0.2, 0.3));
+		assertTrue(matcher.equalDouble(Math.nextUp(Math.nextUp(1.0)), 1.0));
+		assertFalse(matcher.equalDouble(Math.nextUp(Math.nextUp(Math.nextUp(1.0))), 1.0));
+		assertTrue(matcher.equalDouble(Double.MIN_VALUE, -Double.MIN_VALUE));
+		assertTrue(matcher.equalDouble(-0.0, 0.0));
+		assertFalse(matcher.equalDouble(Double.MAX_VALUE, -Double.MAX_VALUE));
+		assertFalse(matcher.equalDouble(Double.NaN, Double.NaN));
+	}
+
+	@Test
+	public void nonNumbersMustBeEqual() {
+		ToleranceValueMatcher matcher = ToleranceValueMatcher.absolute(1);
+		assertTrue(matcher.equal("a", "a"));
+		assertFalse(matcher.equal("1", 1));
+		assertTrue(matcher.equal(Integer.valueOf(2), Double.valueOf(2.5)));
+	}
+
+	@Test(expected = IllegalArgumentException.class)
+	public void negativeToleranceIsRejected() {
+		ToleranceValueMatcher.relative(-0.1);
+	}
+
+	@Test
+	public void appliesToEveryNumberMatchingGlob() throws JSONException {
+		CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+				new Customization("**.price", ToleranceValueMatcher.absolute(0.005)));
+		JSONAssert.assertEquals("{items:[{price:9.99},{price:5}],total:{price:14.99}}",
+				"{items:[{price:9.994},{price:5.001}],total:{price:14.986}}", comparator);
+		JSONCompareResult result = JSONCompare.compareJSON("{items:[{price:9.99}]}", "{items:[{price:9.98}]}", comparator);
+		assertEquals(1, result.getFieldFailures().size());
+		assertEquals("items[0].price", result.getFieldFailures().get(0).getField());
+	}
+}
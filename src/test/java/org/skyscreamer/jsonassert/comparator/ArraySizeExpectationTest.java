@@ -0,0 +1,123 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.io.StringReader;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+
+/**
+ * Unit tests for {@link ArraySizeExpectation} and {@link ArrayElementCounter}.
+ */
+public class ArraySizeExpectationTest {
+
+	private static JSONCompareResult check(String expected, String actual) throws IOException, JSONException {
+		JSONCompareResult result = new JSONCompareResult();
+		ArraySizeExpectation.compile(new JSONArray(expected)).check("a[]", new StringReader(actual), result);
+		return result;
+	}
+
+	@Test
+	public void countsElementsLikeJSONArray() throws IOException, JSONException {
+		String[] arrays = { "[]", " [ ] ", "[1]", "[1,2,3]", "[1,]", "[,]", "[1,,2]", "[[1,2],{a:[3,4]},5]",
+				"[\"a,b]\",'c]\\'d',\"\\\"\"]", "[ {a:\"}\"} , [\"[\"] ]", "[null,true,x y]" };
+		for (String array : arrays) {
+			assertEquals(array, new JSONArray(array).length(),
+					ArrayElementCounter.count(new StringReader(array), Integer.MAX_VALUE));
+		}
+	}
+
+	@Test
+	public void stopsReadingOnceMaximumExceeded() throws IOException, JSONException {
+		final int[] read = new int[1];
+		Reader endless = new Reader() {
+			@Override
+			public int read(char[] cbuf, int off, int len) {
+				if (read[0]++ == 0) {
+					cbuf[off] = '[';
+					return 1;
+				}
+				for (int i = 0; i < len; i++) {
+					cbuf[off + i] = i % 2 == 0 ? '1' : ',';
+				}
+				return len;
+			}
+
+			@Override
+			public void close() {
+			}
+		};
+		assertEquals(11, ArrayElementCounter.count(endless, 10));
+		assertEquals(2, read[0]);
+	}
+
+	@Test
+	public void succeedsWhenSizeWithinExpectedRange() throws IOException, JSONException {
+		assertTrue(check("[2]", "[b,c]").passed());
+		assertTrue(check("[1,3]", "[b,c]").passed());
+	}
+
+	@Test
+	public void reportsSizeOutsideExpectedRange() throws IOException, JSONException {
+		JSONCompareResult tooShort = check("[3,4]", "[b,c]");
+		assertEquals("a[]\nExpected: array size of 3 to 4 elements\n     got: 2 elements\n", tooShort.getMessage());
+		JSONCompareResult tooLong = check("[1]", "[b,c,d]");
+		assertEquals("a[]\nExpected: array size of 1 elements\n     got: more than 1 elements\n", tooLong.getMessage());
+	}
+
+	@Test
+	public void largeSizesAreNotGrouped() throws IOException, JSONException {
+		StringBuilder actual = new StringBuilder("[");
+		for (int i = 0; i <= 1000; i++) {
+			actual.append("0,");
+		}
+		actual.setCharAt(actual.length() - 1, ']');
+		assertEquals("a[]\nExpected: array size of 1000 to 1000 elements\n     got: more than 1000 elements\n",
+				check("[1000,1000]", actual.toString()).getMessage());
+		assertEquals("a[]\nExpected: array size of 1002 to 2000 elements\n     got: 1001 elements\n",
+				check("[1002,2000]", actual.toString()).getMessage());
+	}
+
+	@Test
+	public void invalidExpectationIsReportedOnEveryCheck() throws IOException, JSONException {
+		ArraySizeExpectation expectation = ArraySizeExpectation.compile(new JSONArray("[4,2]"));
+		assertFalse(expectation.isValid());
+		for (int i = 0; i < 2; i++) {
+			JSONCompareResult result = new JSONCompareResult();
+			expectation.check("a[]", new StringReader("[1]"), result);
+			assertEquals("a[]: invalid expectation: maximum expected array size '2' less than minimum expected array size '4'",
+					result.getMessage());
+		}
+	}
+
+	@Test(expected = JSONException.class)
+	public void rejectsNonArray() throws IOException, JSONException {
+		check("[1]", "{a:1}");
+	}
+
+	@Test(expected = JSONException.class)
+	public void rejectsUnterminatedArray() throws IOException, JSONException {
+		check("[5]", "[1,2");
+	}
+}
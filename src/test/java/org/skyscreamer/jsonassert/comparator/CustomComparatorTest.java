@@ -18,9 +18,11 @@ import junit.framework.Assert;
 import org.json.JSONArray;
 import org.json.JSONException;
 import org.junit.Test;
+import org.skyscreamer.jsonassert.Customization;
 import org.skyscreamer.jsonassert.JSONCompare;
 import org.skyscreamer.jsonassert.JSONCompareMode;
 import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.RegularExpressionValueMatcher;
 
 /**
  * @author <a href="mailto:aiveeen@gmail.com">Ivan Zaytsev</a>
@@ -50,4 +52,39 @@ public class CustomComparatorTest {
         String message = compareResult.getMessage().replaceAll("\n", "");
         Assert.assertTrue(message, message.matches(".*id=5.*Expected.*id=6.*Unexpected.*id=7.*Unexpected.*"));
     }
+
+    @Test
+    public void testCustomizationAppliesToEveryArrayElement() throws Exception {
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("items[*].price", new RegularExpressionValueMatcher<Object>("\\d+")));
+        Assert.assertTrue(JSONCompare.compareJSON("{items:[{price:x},{price:x},{price:x}]}",
+                "{items:[{price:1},{price:2},{price:3}]}", comparator).passed());
+        Assert.assertTrue(JSONCompare.compareJSON("{items:[{price:x},{price:x},{price:x}]}",
+                "{items:[{price:1},{price:b},{price:3}]}", comparator).failed());
+    }
+
+    @Test
+    public void testIndexSpecificCustomizationOnlyAppliesToThatElement() throws Exception {
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("items[1].price", new RegularExpressionValueMatcher<Object>("\\d+")));
+        Assert.assertTrue(JSONCompare.compareJSON("{items:[{price:1},{price:x},{price:3}]}",
+                "{items:[{price:1},{price:2},{price:3}]}", comparator).passed());
+        Assert.assertTrue(JSONCompare.compareJSON("{items:[{price:1},{price:x},{price:x}]}",
+                "{items:[{price:1},{price:2},{price:3}]}", comparator).failed());
+    }
+
+    @Test
+    public void testCustomizationCacheKeepsWorkingPastItsCapacity() throws Exception {
+        StringBuilder json = new StringBuilder("{");
+        int keys = 2000;
+        for (int i = 0; i < keys; i++) {
+            json.append(i == 0 ? "" : ",").append("k").append(i).append(":[{a:1},{a:1}]");
+        }
+        json.append('}');
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT, true,
+                new Customization("x[*].a", new RegularExpressionValueMatcher<Object>("\\d+")));
+        Assert.assertTrue(JSONCompare.compareJSON(json.toString(), json.toString(), comparator).passed());
+        // Per key: k<i> itself, then k<i>[0] and k<i>[0].a miss; k<i>[1] and k<i>[1].a are answered from the cache
+        Assert.assertEquals(3L * keys, comparator.getCustomizationProfiles().get(0).getPathMatchAttempts());
+    }
 }
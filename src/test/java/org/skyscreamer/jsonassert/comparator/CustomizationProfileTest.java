@@ -0,0 +1,79 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.List;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.Customization;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.RegularExpressionValueMatcher;
+
+/**
+ * Unit tests for {@link CustomizationProfile} and {@link CustomizationProfileReport}.
+ */
+public class CustomizationProfileTest {
+
+    @Test
+    public void countsAttemptsHitsMatchesAndFailures() throws JSONException {
+        Customization digits = new Customization("items[*].id", new RegularExpressionValueMatcher<Object>("\\d+"));
+        Customization ignored = Customization.ignore("**.note");
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT, true, digits, ignored);
+        JSONCompare.compareJSON("{items:[{id:x,note:a},{id:x,note:b},{id:x,note:c}]}",
+                "{items:[{id:1,note:z},{id:2,note:y},{id:q,note:x}]}", comparator);
+
+        List<CustomizationProfile> profiles = comparator.getCustomizationProfiles();
+        assertEquals(2, profiles.size());
+        CustomizationProfile idProfile = profiles.get(0);
+        assertEquals(3, idProfile.getHits());
+        assertEquals(3, idProfile.getMatches());
+        assertEquals(1, idProfile.getFailures());
+        assertTrue(idProfile.getMatchNanos() > 0);
+        CustomizationProfile noteProfile = profiles.get(1);
+        assertEquals(3, noteProfile.getHits());
+        assertEquals(0, noteProfile.getMatches());
+        // The index-free path cache means each distinct path shape is only tried once per customization
+        assertTrue(idProfile.getPathMatchAttempts() < 10);
+        assertTrue(noteProfile.getPathMatchAttempts() <= idProfile.getPathMatchAttempts());
+    }
+
+    @Test
+    public void reportListsMostExpensiveFirst() throws JSONException {
+        Customization slow = new Customization("a", new RegularExpressionValueMatcher<Object>("(x+x+)+y"));
+        Customization fast = new Customization("b", new RegularExpressionValueMatcher<Object>("\\d"));
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT, true, fast, slow);
+        // Fails to match only after backtracking through every way of splitting the x's
+        JSONCompare.compareJSON("{a:x,b:x}", "{a:xxxxxxxxxxxxxxxxxz,b:1}", comparator);
+        String report = CustomizationProfileReport.format(comparator);
+        String[] lines = report.split("\n");
+        assertEquals(3, lines.length);
+        assertTrue(lines[0], lines[0].startsWith("path "));
+        assertTrue(lines[1], lines[1].startsWith("a "));
+        assertTrue(lines[2], lines[2].startsWith("b "));
+    }
+
+    @Test
+    public void comparatorWithoutProfilingHasNoProfiles() throws JSONException {
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("a", new RegularExpressionValueMatcher<Object>("\\d")));
+        JSONCompare.compareJSON("{a:x}", "{a:1}", comparator);
+        assertTrue(comparator.getCustomizationProfiles().isEmpty());
+    }
+}
@@ -51,4 +51,13 @@ public class JSONCompareUtilTest {
         Assert.assertEquals(NUM_D, cardinalityMap.get("D").intValue());
         Assert.assertEquals(NUM_E, cardinalityMap.get("E").intValue());
     }
+
+    @Test
+    public void testIndexFreePath() {
+        Assert.assertEquals("items[].prices[].amount", JSONCompareUtil.indexFreePath("items[3].prices[12].amount"));
+        Assert.assertEquals("[]", JSONCompareUtil.indexFreePath("[0]"));
+        Assert.assertEquals("a[id=1].b[]", JSONCompareUtil.indexFreePath("a[id=1].b[7]"));
+        String withoutIndex = "a.b[].c";
+        Assert.assertSame(withoutIndex, JSONCompareUtil.indexFreePath(withoutIndex));
+    }
 }
@@ -0,0 +1,128 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.comparator;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.comparator.SlowPathDiagnostic.Cause;
+import org.skyscreamer.jsonassert.comparator.SlowPathDiagnostic.KeyRejection;
+
+/**
+ * Unit tests for {@link SlowPathDetector}.
+ */
+public class SlowPathDetectorTest {
+    private final List<SlowPathDiagnostic> diagnostics = new ArrayList<SlowPathDiagnostic>();
+
+    private final SlowPathListener collector = new SlowPathListener() {
+        @Override
+        public void onSlowPath(SlowPathDiagnostic diagnostic) {
+            diagnostics.add(diagnostic);
+        }
+    };
+
+    @After
+    public void uninstall() {
+        SlowPathDetector.uninstall();
+    }
+
+    private void compareLeniently(String expected, String actual, int minimumSize) throws JSONException {
+        SlowPathDetector.install(new SlowPathDetector(minimumSize, Long.MAX_VALUE, TimeUnit.NANOSECONDS, collector));
+        JSONCompare.compareJSON(expected, actual, JSONCompareMode.LENIENT);
+    }
+
+    @Test
+    public void reportsWhyNoFieldQualifiesAsUniqueKey() throws JSONException {
+        compareLeniently("{items:[{id:1,tags:[a],name:x},{id:1,tags:[b]}]}",
+                "{items:[{id:1,tags:[b]},{id:1,tags:[a],name:x}]}", 2);
+        assertEquals(1, diagnostics.size());
+        SlowPathDiagnostic diagnostic = diagnostics.get(0);
+        assertEquals("items", diagnostic.getPath());
+        assertEquals(2, diagnostic.getExpectedSize());
+        assertEquals(Cause.NO_UNIQUE_KEY, diagnostic.getCause());
+        assertEquals(KeyRejection.DUPLICATE_VALUES, diagnostic.getRejectedKeys().get("id"));
+        assertEquals(KeyRejection.MISSING_FIELD, diagnostic.getRejectedKeys().get("name"));
+        assertEquals(KeyRejection.NON_SIMPLE_VALUE, diagnostic.getRejectedKeys().get("tags"));
+        assertTrue(diagnostic.toString(), diagnostic.toString().startsWith("items: compared 2 elements"));
+        assertTrue(diagnostic.toString(), diagnostic.toString().endsWith(
+                "(id: duplicate values, name: missing in some elements, tags: not a simple value)"));
+    }
+
+    @Test
+    public void reportsKeyNotUniqueInActual() throws JSONException {
+        compareLeniently("[{id:1},{id:2}]", "[{id:1},{id:1}]", 2);
+        assertEquals(Cause.KEY_NOT_UNIQUE_IN_ACTUAL, diagnostics.get(0).getCause());
+        assertEquals(KeyRejection.DUPLICATE_VALUES, diagnostics.get(0).getRejectedKeys().get("id"));
+    }
+
+    @Test
+    public void reportsMixedElements() throws JSONException {
+        compareLeniently("[{a:1},[2]]", "[[2],{a:1}]", 2);
+        assertEquals(Cause.NOT_ALL_OBJECTS, diagnostics.get(0).getCause());
+        assertTrue(diagnostics.get(0).getRejectedKeys().isEmpty());
+    }
+
+    @Test
+    public void smallFastArraysAreNotReported() throws JSONException {
+        compareLeniently("[{a:1},{a:1}]", "[{a:1},{a:1}]", 3);
+        compareLeniently("[{id:1},{id:2}]", "[{id:2},{id:1}]", 0);
+        assertTrue(diagnostics.isEmpty());
+    }
+
+    @Test
+    public void loggingListenerLogsDiagnostic() throws JSONException {
+        final List<LogRecord> records = new ArrayList<LogRecord>();
+        Logger logger = Logger.getAnonymousLogger();
+        logger.setUseParentHandlers(false);
+        logger.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                records.add(record);
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        SlowPathDetector.install(new SlowPathDetector(Integer.MAX_VALUE, 0, TimeUnit.MILLISECONDS,
+                new LoggingSlowPathListener(logger, Level.INFO)));
+        JSONCompare.compareJSON("{a:[{b:1},{b:1}]}", "{a:[{b:1},{b:1}]}", JSONCompareMode.LENIENT);
+        assertEquals(1, records.size());
+        assertEquals(Level.INFO, records.get(0).getLevel());
+        assertTrue(records.get(0).getMessage().startsWith("a: compared 2 elements"));
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void negativeThresholdIsRejected() {
+        new SlowPathDetector(-1, 0, TimeUnit.MILLISECONDS, collector);
+    }
+}
@@ -0,0 +1,426 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.corpus;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.StringWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import org.json.JSONObject;
+
+/**
+ * Generates pairs of expected and actual JSON documents for benchmarks and stress tests. The same seed and settings
+ * always give the same pair, and the expected document depends only on the seed and the shape settings, so pairs
+ * differing only in their differences or shuffling share their expected document.
+ *
+ * <p>Every document is an object. An object above the maximum depth holds an array under {@link #ARRAY_KEY} and an
+ * object under {@link #OBJECT_KEY}, one level deeper, and fills the rest of its width with simple values. An array
+ * above the maximum depth holds objects one level deeper; an array at the maximum depth holds numbers, and an object
+ * at the maximum depth holds only simple values. So a depth of 0 gives one flat object, and a depth of 1 with a width
+ * of 1 gives an object holding one array of numbers.</p>
+ *
+ * <p>With unique keys, every object in an array has a distinct number under {@link #ID_KEY}, which lenient
+ * comparisons match array elements by. Without them, array elements come in identical pairs, so no field has unique
+ * values and lenient comparisons fall back to comparing every pair of elements.</p>
+ *
+ * <p>Documents are written as they are generated. Only the actual side of a shuffled array is held in memory, to
+ * write its elements in another order.</p>
+ */
+public final class JSONCorpusGenerator {
+    /**
+     * Key of the nested array in objects above the maximum depth.
+     */
+    public static final String ARRAY_KEY = "items";
+
+    /**
+     * Key of the nested object in objects above the maximum depth.
+     */
+    public static final String OBJECT_KEY = "child";
+
+    /**
+     * Key of the unique number in the objects of arrays, when unique keys are on.
+     */
+    public static final String ID_KEY = "id";
+
+    private final long seed;
+    private int depth = 2;
+    private int width = 4;
+    private int arrayLength = 8;
+    private int keyCardinality = 16;
+    private boolean uniqueKeys = true;
+    private double differenceRate;
+    private boolean shuffled;
+
+    /**
+     * Create a JSONCorpusGenerator with a depth of 2, a width of 4, arrays of 8 elements, 16 key names, unique keys,
+     * no differences and no shuffling.
+     *
+     * @param seed seed all generated documents derive from
+     */
+    public JSONCorpusGenerator(long seed) {
+        this.seed = seed;
+    }
+
+    /**
+     * @param depth levels of nested objects and arrays below the root object
+     * @return this generator
+     * @throws IllegalArgumentException if depth is negative
+     */
+    public JSONCorpusGenerator withDepth(int depth) {
+        this.depth = requireNonNegative("Depth", depth);
+        return this;
+    }
+
+    /**
+     * @param width number of fields in every object, not counting {@link #ID_KEY}
+     * @return this generator
+     * @throws IllegalArgumentException if width is negative
+     */
+    public JSONCorpusGenerator withWidth(int width) {
+        this.width = requireNonNegative("Width", width);
+        return this;
+    }
+
+    /**
+     * @param arrayLength number of elements in every array
+     * @return this generator
+     * @throws IllegalArgumentException if arrayLength is negative
+     */
+    public JSONCorpusGenerator withArrayLength(int arrayLength) {
+        this.arrayLength = requireNonNegative("Array length", arrayLength);
+        return this;
+    }
+
+    /**
+     * Sets how many distinct names the simple fields of objects are drawn from. Each object picks its own run of
+     * names, so fewer names make paths repeat more across a document.
+     *
+     * @param keyCardinality number of distinct names for simple fields, at least the width
+     * @return this generator
+     * @throws IllegalArgumentException if keyCardinality is less than 1
+     */
+    public JSONCorpusGenerator withKeyCardinality(int keyCardinality) {
+        if (keyCardinality < 1) {
+            throw new IllegalArgumentException("Key cardinality less than 1: " + keyCardinality);
+        }
+        this.keyCardinality = keyCardinality;
+        return this;
+    }
+
+    /**
+     * @param uniqueKeys whether objects in arrays have a unique {@link #ID_KEY}, rather than coming in identical pairs
+     * @return this generator
+     */
+    public JSONCorpusGenerator withUniqueKeys(boolean uniqueKeys) {
+        this.uniqueKeys = uniqueKeys;
+        return this;
+    }
+
+    /**
+     * Sets the chance of each simple value in the actual document differing from the expected one. Differences keep
+     * the type of the value and never touch {@link #ID_KEY}, so each one is a single failed field in a comparison
+     * that does not reorder arrays.
+     *
+     * @param differenceRate chance from 0 to 1 of each simple value differing
+     * @return this generator
+     * @throws IllegalArgumentException if differenceRate is outside 0 to 1
+     */
+    public JSONCorpusGenerator withDifferenceRate(double differenceRate) {
+        if (!(differenceRate >= 0.0 && differenceRate <= 1.0)) {
+            throw new IllegalArgumentException("Difference rate outside 0 to 1: " + differenceRate);
+        }
+        this.differenceRate = differenceRate;
+        return this;
+    }
+
+    /**
+     * @param shuffled whether the elements of every array in the actual document are in a random order
+     * @return this generator
+     */
+    public JSONCorpusGenerator withShuffledArrays(boolean shuffled) {
+        this.shuffled = shuffled;
+        return this;
+    }
+
+    /**
+     * @return the number of simple values in each generated document, including {@link #ID_KEY}s
+     */
+    public long getValueCount() {
+        return objectValues(0, false);
+    }
+
+    private long objectValues(int level, boolean element) {
+        long values = element && uniqueKeys ? 1 : 0;
+        if (level == depth) {
+            return values + width;
+        }
+        return values + Math.max(0, width - 2) + (width > 0 ? arrayValues(level + 1) : 0)
+                + (width > 1 ? objectValues(level + 1, false) : 0);
+    }
+
+    private long arrayValues(int level) {
+        return level == depth ? arrayLength : arrayLength * objectValues(level + 1, true);
+    }
+
+    /**
+     * Generates a pair of documents in memory.
+     *
+     * @return the expected and actual documents
+     * @throws IllegalStateException if the key cardinality is less than the width
+     */
+    public Pair generate() {
+        StringWriter expected = new StringWriter();
+        StringWriter actual = new StringWriter();
+        try {
+            long differences = write(expected, actual);
+            return new Pair(expected.toString(), actual.toString(), differences);
+        }
+        catch (IOException e) {
+            throw new IllegalStateException(e);
+        }
+    }
+
+    /**
+     * Generates a pair of documents into two files, in UTF-8.
+     *
+     * @param expected file the expected document is written to
+     * @param actual file the actual document is written to
+     * @return the number of differences between the documents
+     * @throws IOException if either file cannot be written
+     * @throws IllegalStateException if the key cardinality is less than the width
+     */
+    public long write(File expected, File actual) throws IOException {
+        Writer expectedWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(expected), StandardCharsets.UTF_8));
+        try {
+            Writer actualWriter = new BufferedWriter(new OutputStreamWriter(new FileOutputStream(actual), StandardCharsets.UTF_8));
+            try {
+                return write(expectedWriter, actualWriter);
+            }
+            finally {
+                actualWriter.close();
+            }
+        }
+        finally {
+            expectedWriter.close();
+        }
+    }
+
+    /**
+     * Generates a pair of documents into two writers, which are neither flushed nor closed.
+     *
+     * @param expected writer the expected document is written to
+     * @param actual writer the actual document is written to
+     * @return the number of differences between the documents
+     * @throws IOException if either writer fails
+     * @throws IllegalStateException if the key cardinality is less than the width
+     */
+    public long write(Writer expected, Writer actual) throws IOException {
+        if (keyCardinality < width) {
+            throw new IllegalStateException("Key cardinality " + keyCardinality + " less than width " + width);
+        }
+        Generation generation = new Generation();
+        generation.writeObject(new Random(seed), expected, actual, 0, false);
+        return generation.differences;
+    }
+
+    private static int requireNonNegative(String name, int value) {
+        if (value < 0) {
+            throw new IllegalArgumentException(name + " negative: " + value);
+        }
+        return value;
+    }
+
+    /**
+     * State of writing one pair. The structure of the expected document is drawn from per-object randoms derived from
+     * the seed, and the differences and shuffling of the actual document from a separate one, so changing the latter
+     * leaves the expected document alone.
+     */
+    private final class Generation {
+        private final Random variation = new Random(~seed);
+        private long nextId;
+        private long differences;
+
+        void writeObject(Random structure, Writer expected, Writer actual, int level, boolean element) throws IOException {
+            write("{", expected, actual);
+            boolean first = true;
+            if (element && uniqueKeys) {
+                writeKey(ID_KEY, expected, actual);
+                write(Long.toString(nextId++), expected, actual);
+                first = false;
+            }
+            int simpleFields = width;
+            if (level < depth && width > 0) {
+                writeSeparator(first, expected, actual);
+                writeKey(ARRAY_KEY, expected, actual);
+                writeArray(structure.nextLong(), expected, actual, level + 1);
+                first = false;
+                simpleFields--;
+                if (width > 1) {
+                    write(",", expected, actual);
+                    writeKey(OBJECT_KEY, expected, actual);
+                    writeObject(new Random(structure.nextLong()), expected, actual, level + 1, false);
+                    simpleFields--;
+                }
+            }
+            int firstName = structure.nextInt(keyCardinality);
+            for (int i = 0; i < simpleFields; i++) {
+                writeSeparator(first, expected, actual);
+                writeKey("k" + (firstName + i) % keyCardinality, expected, actual);
+                writeSimpleValue(structure, expected, actual);
+                first = false;
+            }
+            write("}", expected, actual);
+        }
+
+        private void writeArray(long arraySeed, Writer expected, Writer actual, int level) throws IOException {
+            Random structure = new Random(arraySeed);
+            String[] actualElements = shuffled ? new String[arrayLength] : null;
+            long elementSeed = 0;
+            expected.write('[');
+            actual.write('[');
+            for (int i = 0; i < arrayLength; i++) {
+                if (i > 0) {
+                    expected.write(',');
+                }
+                Writer actualElement = actual;
+                if (shuffled) {
+                    actualElement = new StringWriter();
+                }
+                else if (i > 0) {
+                    actual.write(',');
+                }
+                if (level == depth) {
+                    int value = structure.nextInt(100);
+                    expected.write(Integer.toString(value));
+                    actualElement.write(Integer.toString(differs() ? value + 1 : value));
+                }
+                else {
+                    // Without unique keys, odd elements repeat the structure of the element before them
+                    if (uniqueKeys || i % 2 == 0) {
+                        elementSeed = structure.nextLong();
+                    }
+                    writeObject(new Random(elementSeed), expected, actualElement, level + 1, true);
+                }
+                if (shuffled) {
+                    actualElements[i] = actualElement.toString();
+                }
+            }
+            if (shuffled) {
+                for (int i = arrayLength - 1; i > 0; i--) {
+                    int j = variation.nextInt(i + 1);
+                    String swapped = actualElements[i];
+                    actualElements[i] = actualElements[j];
+                    actualElements[j] = swapped;
+                }
+                for (int i = 0; i < arrayLength; i++) {
+                    if (i > 0) {
+                        actual.write(',');
+                    }
+                    actual.write(actualElements[i]);
+                }
+            }
+            expected.write(']');
+            actual.write(']');
+        }
+
+        private void writeSimpleValue(Random structure, Writer expected, Writer actual) throws IOException {
+            boolean differs = differs();
+            switch (structure.nextInt(3)) {
+            case 0:
+                int number = structure.nextInt(1000);
+                expected.write(Integer.toString(number));
+                actual.write(Integer.toString(differs ? number + 1 : number));
+                break;
+            case 1:
+                String string = "v" + structure.nextInt(1000);
+                JSONObject.quote(string, expected);
+                JSONObject.quote(differs ? string + "~" : string, actual);
+                break;
+            default:
+                boolean bool = structure.nextBoolean();
+                expected.write(Boolean.toString(bool));
+                actual.write(Boolean.toString(differs != bool));
+                break;
+            }
+        }
+
+        private boolean differs() {
+            if (differenceRate > 0.0 && variation.nextDouble() < differenceRate) {
+                differences++;
+                return true;
+            }
+            return false;
+        }
+
+        private void writeSeparator(boolean first, Writer expected, Writer actual) throws IOException {
+            if (!first) {
+                write(",", expected, actual);
+            }
+        }
+
+        private void writeKey(String key, Writer expected, Writer actual) throws IOException {
+            JSONObject.quote(key, expected);
+            JSONObject.quote(key, actual);
+            write(":", expected, actual);
+        }
+
+        private void write(String s, Writer expected, Writer actual) throws IOException {
+            expected.write(s);
+            actual.write(s);
+        }
+    }
+
+    /**
+     * A generated pair of documents.
+     */
+    public static final class Pair {
+        private final String expected;
+        private final String actual;
+        private final long differenceCount;
+
+        Pair(String expected, String actual, long differenceCount) {
+            this.expected = expected;
+            this.actual = actual;
+            this.differenceCount = differenceCount;
+        }
+
+        /**
+         * @return the expected document
+         */
+        public String getExpected() {
+            return expected;
+        }
+
+        /**
+         * @return the actual document
+         */
+        public String getActual() {
+            return actual;
+        }
+
+        /**
+         * @return the number of simple values in the actual document that differ from the expected document
+         */
+        public long getDifferenceCount() {
+            return differenceCount;
+        }
+    }
+}
@@ -0,0 +1,161 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.corpus;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.File;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.Iterator;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.rules.TemporaryFolder;
+import org.skyscreamer.jsonassert.JSONAssert;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.skyscreamer.jsonassert.comparator.JSONCompareUtil;
+
+/**
+ * Unit tests for {@link JSONCorpusGenerator}, and comparisons of the large documents it generates.
+ */
+public class JSONCorpusGeneratorTest {
+    @Rule
+    public TemporaryFolder folder = new TemporaryFolder();
+
+    private static long countValues(Object value) throws JSONException {
+        if (value instanceof JSONObject) {
+            JSONObject object = (JSONObject) value;
+            long count = 0;
+            for (Iterator<String> keys = object.keys(); keys.hasNext(); ) {
+                count += countValues(object.get(keys.next()));
+            }
+            return count;
+        }
+        if (value instanceof JSONArray) {
+            JSONArray array = (JSONArray) value;
+            long count = 0;
+            for (int i = 0; i < array.length(); i++) {
+                count += countValues(array.get(i));
+            }
+            return count;
+        }
+        return 1;
+    }
+
+    @Test
+    public void sameSeedGivesSamePair() {
+        JSONCorpusGenerator.Pair first = new JSONCorpusGenerator(7).withDifferenceRate(0.2).withShuffledArrays(true).generate();
+        JSONCorpusGenerator.Pair second = new JSONCorpusGenerator(7).withDifferenceRate(0.2).withShuffledArrays(true).generate();
+        assertEquals(first.getExpected(), second.getExpected());
+        assertEquals(first.getActual(), second.getActual());
+        assertEquals(first.getDifferenceCount(), second.getDifferenceCount());
+        assertNotEquals(first.getExpected(), new JSONCorpusGenerator(8).generate().getExpected());
+    }
+
+    @Test
+    public void differencesAndShufflingLeaveExpectedDocumentAlone() {
+        JSONCorpusGenerator.Pair plain = new JSONCorpusGenerator(3).generate();
+        JSONCorpusGenerator.Pair varied = new JSONCorpusGenerator(3).withDifferenceRate(0.5).withShuffledArrays(true).generate();
+        assertEquals(plain.getExpected(), plain.getActual());
+        assertEquals(0, plain.getDifferenceCount());
+        assertEquals(plain.getExpected(), varied.getExpected());
+        assertNotEquals(varied.getExpected(), varied.getActual());
+    }
+
+    @Test
+    public void shapeFollowsSettings() throws JSONException {
+        JSONCorpusGenerator generator = new JSONCorpusGenerator(1).withDepth(3).withWidth(5).withArrayLength(4);
+        JSONObject document = new JSONObject(generator.generate().getExpected());
+        assertEquals(generator.getValueCount(), countValues(document));
+        assertEquals(5, document.length());
+        JSONArray items = document.getJSONArray(JSONCorpusGenerator.ARRAY_KEY);
+        assertEquals(4, items.length());
+        assertEquals(6, items.getJSONObject(0).length());
+        assertEquals(4, document.getJSONObject(JSONCorpusGenerator.OBJECT_KEY).getJSONArray(JSONCorpusGenerator.ARRAY_KEY).length());
+
+        JSONObject flat = new JSONObject(new JSONCorpusGenerator(1).withDepth(0).withWidth(3).withKeyCardinality(3).generate().getExpected());
+        assertEquals(3, flat.length());
+        assertTrue(flat.has("k0") && flat.has("k1") && flat.has("k2"));
+    }
+
+    @Test
+    public void arrayElementsHaveUniqueKeysOnlyWhenAsked() throws JSONException {
+        JSONCorpusGenerator generator = new JSONCorpusGenerator(5).withDepth(2).withWidth(1).withArrayLength(50);
+        JSONArray keyed = new JSONObject(generator.generate().getExpected()).getJSONArray(JSONCorpusGenerator.ARRAY_KEY);
+        assertEquals(JSONCorpusGenerator.ID_KEY, JSONCompareUtil.findUniqueKey(keyed));
+        JSONArray unkeyed = new JSONObject(generator.withUniqueKeys(false).generate().getExpected()).getJSONArray(JSONCorpusGenerator.ARRAY_KEY);
+        assertNull(JSONCompareUtil.findUniqueKey(unkeyed));
+        assertEquals(unkeyed.get(0).toString(), unkeyed.get(1).toString());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void keyCardinalityBelowWidthIsRejected() {
+        new JSONCorpusGenerator(1).withWidth(8).withKeyCardinality(4).generate();
+    }
+
+    @Test(expected = IllegalArgumentException.class)
+    public void differenceRateAboveOneIsRejected() {
+        new JSONCorpusGenerator(1).withDifferenceRate(1.5);
+    }
+
+    @Test
+    public void writesPairToFiles() throws Exception {
+        JSONCorpusGenerator generator = new JSONCorpusGenerator(11).withDifferenceRate(0.1);
+        File expected = folder.newFile("expected.json");
+        File actual = folder.newFile("actual.json");
+        long differences = generator.write(expected, actual);
+        JSONCorpusGenerator.Pair pair = generator.generate();
+        assertEquals(pair.getDifferenceCount(), differences);
+        assertEquals(pair.getExpected(), new String(Files.readAllBytes(expected.toPath()), StandardCharsets.UTF_8));
+        assertEquals(pair.getActual(), new String(Files.readAllBytes(actual.toPath()), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void largeDocumentReportsEveryDifference() throws JSONException {
+        JSONCorpusGenerator generator = new JSONCorpusGenerator(20131231L).withDepth(7).withWidth(6)
+                .withArrayLength(12).withDifferenceRate(0.001);
+        JSONCorpusGenerator.Pair pair = generator.generate();
+        assertTrue(generator.getValueCount() > 100000);
+        assertTrue(pair.getDifferenceCount() > 0);
+        JSONCompareResult result = JSONCompare.compareJSON(pair.getExpected(), pair.getActual(), JSONCompareMode.STRICT);
+        assertEquals(pair.getDifferenceCount(), result.getFailureCount());
+    }
+
+    @Test
+    public void largeShuffledDocumentMatchesByUniqueKey() throws JSONException {
+        JSONCorpusGenerator.Pair pair = new JSONCorpusGenerator(42).withDepth(3).withWidth(4).withArrayLength(200)
+                .withShuffledArrays(true).generate();
+        JSONAssert.assertEquals(pair.getExpected(), pair.getActual(), JSONCompareMode.LENIENT);
+        assertTrue(JSONCompare.compareJSON(pair.getExpected(), pair.getActual(), JSONCompareMode.STRICT).failed());
+    }
+
+    @Test
+    public void largeShuffledDocumentWithoutUniqueKeysMatchesLeniently() throws JSONException {
+        JSONCorpusGenerator.Pair pair = new JSONCorpusGenerator(42).withDepth(2).withWidth(3).withArrayLength(300)
+                .withUniqueKeys(false).withShuffledArrays(true).generate();
+        JSONAssert.assertEquals(pair.getExpected(), pair.getActual(), JSONCompareMode.LENIENT);
+        assertFalse(pair.getExpected().equals(pair.getActual()));
+    }
+}
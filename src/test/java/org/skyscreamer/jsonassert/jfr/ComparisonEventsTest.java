@@ -0,0 +1,56 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.jfr;
+
+import static org.junit.Assert.assertNull;
+import static org.junit.Assume.assumeFalse;
+import static org.junit.Assume.assumeTrue;
+
+import org.junit.Test;
+import org.junit.runner.JUnitCore;
+import org.junit.runner.Result;
+import org.junit.runner.notification.Failure;
+
+/**
+ * Unit tests for {@link ComparisonEvents}.
+ */
+public class ComparisonEventsTest {
+
+    @Test
+    public void unavailableEventsReturnNoToken() {
+        assumeFalse(ComparisonEvents.isAvailable());
+        assertNull(ComparisonEvents.get().beginParse());
+        assertNull(ComparisonEvents.get().beginCompare());
+        assertNull(ComparisonEvents.get().beginArrayMatch());
+    }
+
+    @Test
+    public void endingWithoutTokenDoesNothing() {
+        ComparisonEvents.get().endParse(null, 1);
+        ComparisonEvents.get().endCompare(null, "comparator", true);
+        ComparisonEvents.get().endArrayMatch(null, "a", 1, 1, true);
+    }
+
+    @Test
+    public void flightRecorderEvents() throws ClassNotFoundException {
+        assumeTrue(ComparisonEvents.isAvailable());
+        // Loaded by name, so that this class still loads on JVMs without jdk.jfr
+        Result result = JUnitCore.runClasses(Class.forName(ComparisonEventsTest.class.getPackage().getName()
+                + ".FlightRecorderEventsChecks"));
+        for (Failure failure : result.getFailures()) {
+            throw new AssertionError(failure.getTestHeader(), failure.getException());
+        }
+    }
+}
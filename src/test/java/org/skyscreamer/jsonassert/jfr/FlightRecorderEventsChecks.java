@@ -0,0 +1,101 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.jfr;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertNotNull;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import jdk.jfr.EventType;
+import jdk.jfr.Recording;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordingFile;
+
+import org.json.JSONException;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+
+/**
+ * Unit tests for {@link FlightRecorderEvents}, which need {@code jdk.jfr}. Not named as a test class, so that it is
+ * not loaded on JVMs without Flight Recorder; {@link ComparisonEventsTest} runs it by name where it is available.
+ */
+public class FlightRecorderEventsChecks {
+
+    @Test
+    public void eventsAreRecorded() throws IOException, JSONException {
+        List<RecordedEvent> events;
+        File file = File.createTempFile("jsonassert", ".jfr");
+        try {
+            Recording recording = new Recording();
+            try {
+                recording.enable("org.skyscreamer.jsonassert.Parse");
+                recording.enable("org.skyscreamer.jsonassert.Compare");
+                recording.enable("org.skyscreamer.jsonassert.ArrayMatch").withThreshold(Duration.ZERO);
+                recording.start();
+                JSONCompare.compareJSON("{a:[{b:1},{b:1},{b:2}]}", "{a:[{b:2},{b:1},{b:3}]}",
+                        JSONCompareMode.LENIENT);
+                recording.stop();
+                recording.dump(file.toPath());
+            }
+            finally {
+                recording.close();
+            }
+            events = RecordingFile.readAllEvents(file.toPath());
+        }
+        finally {
+            file.delete();
+        }
+        Map<String, RecordedEvent> byName = new HashMap<String, RecordedEvent>();
+        for (RecordedEvent event : events) {
+            byName.put(event.getEventType().getName(), event);
+        }
+        RecordedEvent parse = byName.get("org.skyscreamer.jsonassert.Parse");
+        assertEquals("{a:[{b:2},{b:1},{b:3}]}".length(), parse.getInt("characters"));
+        RecordedEvent compare = byName.get("org.skyscreamer.jsonassert.Compare");
+        assertEquals("org.skyscreamer.jsonassert.comparator.DefaultComparator", compare.getString("comparator"));
+        assertFalse(compare.getBoolean("passed"));
+        RecordedEvent arrayMatch = byName.get("org.skyscreamer.jsonassert.ArrayMatch");
+        assertEquals("a", arrayMatch.getString("path"));
+        assertEquals(3, arrayMatch.getInt("expectedSize"));
+        assertEquals(3, arrayMatch.getInt("actualSize"));
+        assertFalse(arrayMatch.getBoolean("matched"));
+    }
+
+    @Test
+    public void tokensAreReturnedOnlyForEnabledEvents() {
+        Recording recording = new Recording();
+        try {
+            recording.enable(ArrayMatchEvent.class);
+            recording.start();
+            Object token = ComparisonEvents.get().beginArrayMatch();
+            assertNotNull(token);
+            ComparisonEvents.get().endArrayMatch(token, "a", 1, 1, true);
+        }
+        finally {
+            recording.close();
+        }
+        // Another recording, such as an always-on one, may still have the event enabled
+        assertEquals(EventType.getEventType(ArrayMatchEvent.class).isEnabled(),
+                ComparisonEvents.get().beginArrayMatch() != null);
+    }
+}
@@ -0,0 +1,115 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.metrics;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.lang.management.ManagementFactory;
+import java.util.Map;
+
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+import org.json.JSONException;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.Customization;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.RegularExpressionValueMatcher;
+import org.skyscreamer.jsonassert.comparator.ArrayComparisonStrategy;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link InMemoryComparisonMetrics} and {@link ComparisonMetricsExporter}.
+ */
+public class InMemoryComparisonMetricsTest {
+    private final InMemoryComparisonMetrics metrics = new InMemoryComparisonMetrics();
+
+    @Before
+    public void install() {
+        ComparisonMetricsRegistry.install(metrics);
+    }
+
+    @After
+    public void uninstall() {
+        ComparisonMetricsRegistry.uninstall();
+    }
+
+    @Test
+    public void countsParsingAndNodes() throws JSONException {
+        String expected = "{a:1,b:{c:2}}";
+        String actual = "{a:1,b:{c:3}}";
+        assertTrue(JSONCompare.compareJSON(expected, actual, JSONCompareMode.STRICT).failed());
+        assertEquals(2, metrics.getDocumentsParsed());
+        assertEquals(expected.length() + actual.length(), metrics.getCharactersParsed());
+        assertEquals(1, metrics.getComparisons());
+        assertEquals(1, metrics.getFailedComparisons());
+        assertEquals(3, metrics.getNodesCompared());
+        assertTrue(metrics.getComparisonNanos() > 0);
+    }
+
+    @Test
+    public void countsArrayStrategies() throws JSONException {
+        JSONCompare.compareJSON("[1,2]", "[1,2]", JSONCompareMode.STRICT);
+        JSONCompare.compareJSON("[1,2]", "[2,1]", JSONCompareMode.LENIENT);
+        JSONCompare.compareJSON("[{id:1},{id:2}]", "[{id:2},{id:1}]", JSONCompareMode.LENIENT);
+        JSONCompare.compareJSON("[{a:1},{a:1}]", "[{a:1},{a:1}]", JSONCompareMode.LENIENT);
+        for (ArrayComparisonStrategy strategy : ArrayComparisonStrategy.values()) {
+            assertEquals(strategy.name(), 1, metrics.getArrayComparisons(strategy));
+        }
+        Map<String, Long> byName = metrics.getArrayComparisons();
+        assertEquals(Long.valueOf(1), byName.get("UNIQUE_KEY"));
+        assertEquals(4, byName.size());
+    }
+
+    @Test
+    public void countsCustomizationLookups() throws JSONException {
+        CustomComparator comparator = new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("a", new RegularExpressionValueMatcher<Object>("\\d+")));
+        JSONCompare.compareJSON("{a:x,b:1}", "{a:12,b:1}", comparator);
+        assertEquals(2, metrics.getCustomizationLookups());
+        assertEquals(1, metrics.getCustomizationsFound());
+        assertEquals(2, metrics.getNodesCompared());
+    }
+
+    @Test
+    public void nothingIsRecordedOnceUninstalled() throws JSONException {
+        ComparisonMetricsRegistry.uninstall();
+        JSONCompare.compareJSON("[1,2]", "[1,2]", JSONCompareMode.STRICT);
+        assertEquals(0, metrics.getComparisons());
+        assertEquals(0, metrics.getArrayComparisons(ArrayComparisonStrategy.STRICT_ORDER));
+    }
+
+    @Test
+    public void exportedMetricsAreReadableOverJmx() throws JMException, JSONException {
+        JSONCompare.compareJSON("{a:1}", "{a:1}", JSONCompareMode.STRICT);
+        ObjectName name = ComparisonMetricsExporter.export(metrics);
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            assertEquals(1L, server.getAttribute(name, "Comparisons"));
+            server.invoke(name, "reset", new Object[0], new String[0]);
+            assertEquals(0L, server.getAttribute(name, "NodesCompared"));
+        }
+        finally {
+            ComparisonMetricsExporter.unexport(name);
+        }
+        assertFalse(ManagementFactory.getPlatformMBeanServer().isRegistered(name));
+    }
+}
@@ -0,0 +1,121 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.report;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+
+import javax.xml.parsers.DocumentBuilderFactory;
+
+import org.json.JSONArray;
+import org.json.JSONObject;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.JSONCompareResult;
+import org.w3c.dom.Document;
+import org.w3c.dom.NodeList;
+
+/**
+ * Unit tests for the {@link ReportWriter}s.
+ */
+public class ReportWriterTest {
+    private static final String EXPECTED = "{a:{b:1},c:\"x\",e:[1,2]}";
+    private static final String ACTUAL = "{a:{b:2},d:\"<&>\",e:[1]}";
+
+    private static String streamed(ReportWriter writer, ByteArrayOutputStream bytes) throws Exception {
+        JSONCompare.compareJSON(EXPECTED, ACTUAL, JSONCompareMode.STRICT, writer);
+        writer.close();
+        return new String(bytes.toByteArray(), StandardCharsets.UTF_8);
+    }
+
+    @Test
+    public void jsonReportListsEveryFailure() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JSONObject report = new JSONObject(streamed(new JSONReportWriter(bytes), bytes));
+        JSONArray failures = report.getJSONArray("failures");
+        assertEquals(4, failures.length());
+        assertEquals(4, report.getInt("count"));
+        assertEquals("failure", failures.getJSONObject(0).getString("type"));
+        assertEquals("a.b", failures.getJSONObject(0).getString("field"));
+        assertEquals(1, failures.getJSONObject(0).getInt("expected"));
+        assertEquals("missing", failures.getJSONObject(1).getString("type"));
+        assertEquals("c", failures.getJSONObject(1).getString("expected"));
+        assertEquals("e[]: Expected 2 values but got 1", failures.getJSONObject(2).getString("message"));
+        assertEquals("d", failures.getJSONObject(3).getString("actual"));
+    }
+
+    @Test
+    public void collectedResultWritesSameReportAsStreaming() throws Exception {
+        ByteArrayOutputStream streamedBytes = new ByteArrayOutputStream();
+        String streamed = streamed(new JSONReportWriter(streamedBytes), streamedBytes);
+        JSONCompareResult result = JSONCompare.compareJSON(EXPECTED, ACTUAL, JSONCompareMode.STRICT);
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        new JSONReportWriter(bytes).write(result).close();
+        assertEquals(streamed, new String(bytes.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    public void junitReportHasOneTestCasePerFailure() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        streamed(new JUnitXmlReportWriter(bytes, "diff \"nightly\""), bytes);
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals("diff \"nightly\"", document.getDocumentElement().getAttribute("name"));
+        NodeList failures = document.getElementsByTagName("failure");
+        assertEquals(4, failures.getLength());
+        assertEquals("a.b\nExpected: 1\n     got: 2\n",
+                ((org.w3c.dom.Element) failures.item(0)).getAttribute("message"));
+    }
+
+    @Test
+    public void passingComparisonWritesPassingTestCase() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JUnitXmlReportWriter writer = new JUnitXmlReportWriter(bytes, "suite");
+        writer.write(JSONCompare.compareJSON("{a:1}", "{a:1}", JSONCompareMode.STRICT)).close();
+        Document document = DocumentBuilderFactory.newInstance().newDocumentBuilder()
+                .parse(new ByteArrayInputStream(bytes.toByteArray()));
+        assertEquals(1, document.getElementsByTagName("testcase").getLength());
+        assertEquals(0, document.getElementsByTagName("failure").getLength());
+    }
+
+    @Test
+    public void sarifReportLocatesResults() throws Exception {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        JSONObject log = new JSONObject(streamed(new SarifReportWriter(bytes, "actual.json"), bytes));
+        assertEquals("2.1.0", log.getString("version"));
+        JSONObject run = log.getJSONArray("runs").getJSONObject(0);
+        assertEquals(4, run.getJSONObject("tool").getJSONObject("driver").getJSONArray("rules").length());
+        JSONArray results = run.getJSONArray("results");
+        assertEquals(4, results.length());
+        JSONObject location = results.getJSONObject(0).getJSONArray("locations").getJSONObject(0);
+        assertEquals("a.b", location.getJSONArray("logicalLocations").getJSONObject(0).getString("fullyQualifiedName"));
+        assertEquals("actual.json", location.getJSONObject("physicalLocation").getJSONObject("artifactLocation")
+                .getString("uri"));
+        assertTrue(results.getJSONObject(3).getJSONObject("message").getString("text").contains("Unexpected: d"));
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void failuresAfterFinishAreRejected() throws IOException {
+        JSONReportWriter writer = new JSONReportWriter(new ByteArrayOutputStream());
+        writer.finish();
+        writer.onMessage("late");
+    }
+}
@@ -0,0 +1,159 @@
+/*
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+*/
+
+package org.skyscreamer.jsonassert.trace;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNull;
+import static org.junit.Assert.assertTrue;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import org.json.JSONArray;
+import org.json.JSONException;
+import org.json.JSONObject;
+import org.junit.After;
+import org.junit.Test;
+import org.skyscreamer.jsonassert.Customization;
+import org.skyscreamer.jsonassert.JSONCompare;
+import org.skyscreamer.jsonassert.JSONCompareMode;
+import org.skyscreamer.jsonassert.JSONParser;
+import org.skyscreamer.jsonassert.RegularExpressionValueMatcher;
+import org.skyscreamer.jsonassert.ValueMatcher;
+import org.skyscreamer.jsonassert.comparator.CustomComparator;
+
+/**
+ * Unit tests for {@link ComparisonTracer}.
+ */
+public class ComparisonTracerTest {
+
+    @After
+    public void uninstall() {
+        ComparisonTracer.uninstall();
+    }
+
+    private static JSONObject trace(ComparisonTracer tracer) throws IOException {
+        StringWriter out = new StringWriter();
+        tracer.writeTo(out);
+        return new JSONObject(out.toString());
+    }
+
+    private static List<String> names(JSONArray events) {
+        List<String> names = new ArrayList<String>();
+        for (int i = 0; i < events.length(); i++) {
+            names.add(events.getJSONObject(i).getString("name"));
+        }
+        return names;
+    }
+
+    @Test
+    public void recordsNestedSpansAboveMinimumSize() throws JSONException, IOException {
+        ComparisonTracer tracer = new ComparisonTracer(100, 3);
+        ComparisonTracer.install(tracer);
+        JSONCompare.compareJSON("{a:[1,2,3],b:[1],c:{d:1}}", "{a:[3,2,1],b:[1],c:{d:1}}", JSONCompareMode.LENIENT);
+
+        JSONArray events = trace(tracer).getJSONArray("traceEvents");
+        // Spans appear in the order they began; b and c are too small to be traced
+        assertEquals("[parse, parse, compare, object, array]", names(events).toString());
+        JSONObject compare = null;
+        JSONObject array = null;
+        for (int i = 0; i < events.length(); i++) {
+            JSONObject event = events.getJSONObject(i);
+            assertEquals("X", event.getString("ph"));
+            if ("compare".equals(event.getString("name"))) {
+                compare = event;
+            } else if ("array".equals(event.getString("name"))) {
+                array = event;
+            }
+        }
+        assertEquals("a", array.getJSONObject("args").getString("path"));
+        assertEquals(3, array.getJSONObject("args").getInt("size"));
+        assertTrue(array.getDouble("ts") >= compare.getDouble("ts"));
+        assertTrue(array.getDouble("ts") + array.getDouble("dur") <= compare.getDouble("ts") + compare.getDouble("dur"));
+    }
+
+    @Test
+    public void recordsMatcherCalls() throws JSONException, IOException {
+        ComparisonTracer tracer = new ComparisonTracer();
+        ComparisonTracer.install(tracer);
+        JSONCompare.compareJSON("{a:x}", "{a:1}", new CustomComparator(JSONCompareMode.STRICT,
+                new Customization("a", new RegularExpressionValueMatcher<Object>("\\d"))));
+        assertTrue(names(trace(tracer).getJSONArray("traceEvents")).contains("match a"));
+    }
+
+    @Test
+    public void dropsSpansOnceFull() throws JSONException, IOException {
+        ComparisonTracer tracer = new ComparisonTracer(2, 0);
+        ComparisonTracer.install(tracer);
+        JSONCompare.compareJSON("{a:1}", "{a:1}", JSONCompareMode.STRICT);
+        assertEquals(2, tracer.getSpanCount());
+        assertEquals(2, tracer.getDroppedCount());
+        JSONObject trace = trace(tracer);
+        assertEquals(2, trace.getJSONArray("traceEvents").length());
+        assertEquals(2, trace.getJSONObject("otherData").getInt("droppedSpans"));
+        assertNull(tracer.begin("late", null, -1));
+    }
+
+    @Test
+    public void openSpansAreLeftOutUntilEnded() throws IOException {
+        ComparisonTracer tracer = new ComparisonTracer();
+        ComparisonTracer.Span span = tracer.begin("step", null, -1);
+        JSONObject trace = trace(tracer);
+        assertEquals(0, trace.getJSONArray("traceEvents").length());
+        assertEquals(1, trace.getJSONObject("otherData").getInt("unfinishedSpans"));
+
+        ComparisonTracer.end(span);
+        trace = trace(tracer);
+        assertEquals(1, trace.getJSONArray("traceEvents").length());
+        assertTrue(trace.getJSONArray("traceEvents").getJSONObject(0).getDouble("dur") >= 0);
+        assertEquals(0, trace.getJSONObject("otherData").getInt("unfinishedSpans"));
+    }
+
+    @Test
+    public void spansEndWhenAStepThrows() throws JSONException, IOException {
+        ComparisonTracer tracer = new ComparisonTracer(100, 0);
+        ComparisonTracer.install(tracer);
+        try {
+            JSONCompare.compareJSON("{a:[{b:1}]}", "{a:[{b:2}]}", new CustomComparator(JSONCompareMode.STRICT,
+                    new Customization("a[0].b", new ValueMatcher<Object>() {
+                        public boolean equal(Object o1, Object o2) {
+                            throw new IllegalStateException("matcher failed");
+                        }
+                    })));
+            throw new AssertionError("Matcher exception was not thrown");
+        }
+        catch (IllegalStateException expected) {
+            // The spans of every step it escaped from must still end
+        }
+        try {
+            JSONParser.parseJSON("{a:");
+            throw new AssertionError("Parse exception was not thrown");
+        }
+        catch (JSONException expected) {
+            // As must the span of the failed parse
+        }
+
+        JSONObject trace = trace(tracer);
+        List<String> names = names(trace.getJSONArray("traceEvents"));
+        assertTrue(names.toString(), names.containsAll(Arrays.asList("compare", "object", "array", "match a[0].b")));
+        // Two for the documents compared, one for the document that failed to parse
+        assertEquals(3, Collections.frequency(names, "parse"));
+        assertEquals(0, trace.getJSONObject("otherData").getInt("unfinishedSpans"));
+    }
+}